@@ -1,9 +1,15 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,16 +21,24 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
+import ru.practicum.shareit.booking.dto.BookingSeriesCreateDto;
 import ru.practicum.shareit.booking.dto.BookingStateQueryParam;
 import ru.practicum.shareit.client.HttpClient;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/bookings")
 @RequiredArgsConstructor
 @Validated
 public class BookingController {
     private static final String API_PREFIX = "/bookings";
+    private static final String CURSOR_PATTERN = "[A-Za-z0-9_-]+";
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_PAGE_SIZE = 100;
     private final HttpClient httpClient;
 
     @GetMapping("/{id}")
@@ -38,17 +52,48 @@ public class BookingController {
     @GetMapping
     public ResponseEntity<Object> getAllForBooker(
             @RequestHeader("${shareit.api.auth.userheader}") @Positive(message = "id пользователя должен быть больше 0") long userId,
-            @RequestParam(required = false, defaultValue = "ALL") BookingStateQueryParam state
+            @RequestParam(required = false, defaultValue = "ALL") BookingStateQueryParam state,
+            @RequestParam(required = false) @Pattern(regexp = CURSOR_PATTERN, message = "Некорректное значение курсора") String cursor,
+            @RequestParam(required = false) @Positive(message = "Размер страницы должен быть больше 0")
+            @Max(value = MAX_PAGE_SIZE, message = "Размер страницы не может быть больше " + MAX_PAGE_SIZE) Integer size
     ) {
-        return httpClient.get(API_PREFIX + "?state=" + state.toString(), userId);
+        return httpClient.get(API_PREFIX + "?state=" + state.toString() + pageParams(cursor, size), userId);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getAllForOwner(
             @RequestHeader("${shareit.api.auth.userheader}") @Positive(message = "id пользователя должен быть больше 0") long userId,
-            @RequestParam(required = false, defaultValue = "ALL") BookingStateQueryParam state
+            @RequestParam(required = false, defaultValue = "ALL") BookingStateQueryParam state,
+            @RequestParam(required = false) @Pattern(regexp = CURSOR_PATTERN, message = "Некорректное значение курсора") String cursor,
+            @RequestParam(required = false) @Positive(message = "Размер страницы должен быть больше 0")
+            @Max(value = MAX_PAGE_SIZE, message = "Размер страницы не может быть больше " + MAX_PAGE_SIZE) Integer size
+    ) {
+        return httpClient.get(API_PREFIX + "/owner?state=" + state.toString() + pageParams(cursor, size), userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getSummaryForOwner(
+            @RequestHeader("${shareit.api.auth.userheader}") @Positive(message = "id пользователя должен быть больше 0") long userId
     ) {
-        return httpClient.get(API_PREFIX + "/owner?state=" + state.toString(), userId);
+        return httpClient.get(API_PREFIX + "/owner/summary", userId);
+    }
+
+    @GetMapping("/owner/export")
+    public StreamingResponseBody exportForOwner(
+            @RequestHeader("${shareit.api.auth.userheader}") @Positive(message = "id пользователя должен быть больше 0") long userId,
+            @RequestParam(required = false, defaultValue = "ALL") BookingStateQueryParam state,
+            @RequestParam(required = false, defaultValue = "NDJSON") BookingExportFormat format,
+            HttpServletResponse response
+    ) {
+        String endPoint = API_PREFIX + "/owner/export?state=" + state + "&format=" + format;
+        return out -> httpClient.stream(endPoint, userId, headers -> {
+            if (headers.getContentType() != null) {
+                response.setContentType(headers.getContentType().toString());
+            }
+            if (headers.containsKey(HttpHeaders.CONTENT_DISPOSITION)) {
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, headers.getFirst(HttpHeaders.CONTENT_DISPOSITION));
+            }
+        }, out);
     }
 
     @PostMapping
@@ -59,6 +104,37 @@ public class BookingController {
         return httpClient.post(API_PREFIX, userId, createDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createBatch(
+            @RequestHeader("${shareit.api.auth.userheader}") @Positive(message = "id пользователя должен быть больше 0") long userId,
+            @RequestBody
+            @NotEmpty(message = "Пакет бронирований не может быть пустым")
+            @Size(max = MAX_BATCH_SIZE, message = "Пакет не может содержать больше " + MAX_BATCH_SIZE + " бронирований")
+            List<@Valid @NotNull(message = "Бронирование в пакете не может быть пустым") BookingCreateDto> createDtos
+    ) {
+        return httpClient.post(API_PREFIX + "/batch", userId, createDtos);
+    }
+
+    @PostMapping("/series")
+    public ResponseEntity<Object> createSeries(
+            @RequestHeader("${shareit.api.auth.userheader}") @Positive(message = "id пользователя должен быть больше 0") long userId,
+            @RequestBody @Valid BookingSeriesCreateDto seriesDto
+    ) {
+        return httpClient.post(API_PREFIX + "/series", userId, seriesDto);
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> updateStatesByOwner(
+            @RequestHeader("${shareit.api.auth.userheader}") @Positive(message = "id пользователя должен быть больше 0") long userId,
+            @RequestParam @Pattern(regexp = "(?i)true|false") String approved,
+            @RequestBody
+            @NotEmpty(message = "Список бронирований не может быть пустым")
+            @Size(max = MAX_BATCH_SIZE, message = "Пакет не может содержать больше " + MAX_BATCH_SIZE + " бронирований")
+            List<@NotNull @Positive(message = "id бронирования должен быть больше 0") Long> bookingIds
+    ) {
+        return httpClient.patch(API_PREFIX + "/batch?approved=" + approved, userId, bookingIds);
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<Object> updateStateByOwner(
             @RequestHeader("${shareit.api.auth.userheader}") @Positive(message = "id пользователя должен быть больше 0") long userId,
@@ -67,4 +143,15 @@ public class BookingController {
     ) {
         return httpClient.patch(API_PREFIX + "/" + bookingId + "?approved=" + approved, userId, null);
     }
+
+    private String pageParams(String cursor, Integer size) {
+        StringBuilder params = new StringBuilder();
+        if (cursor != null) {
+            params.append("&cursor=").append(cursor);
+        }
+        if (size != null) {
+            params.append("&size=").append(size);
+        }
+        return params.toString();
+    }
 }
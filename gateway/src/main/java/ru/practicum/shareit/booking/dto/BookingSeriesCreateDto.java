@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class BookingSeriesCreateDto {
+    public static final int MAX_OCCURRENCES = 1000;
+
+    @NotNull(message = "Вещь для бронирования должна быть заполнена")
+    private Long itemId;
+
+    @NotNull(message = "Дата начала бронирования не может быть пустой")
+    @Future(message = "Бронирование доступно на предстоящие даты и время")
+    private LocalDateTime start;
+
+    @NotNull(message = "Дата окончания бронирования не может быть пустой")
+    @Future(message = "Бронирование доступно на предстоящие даты и время")
+    private LocalDateTime end;
+
+    @NotNull(message = "Периодичность серии должна быть заполнена")
+    private BookingSeriesFrequency frequency;
+
+    @Positive(message = "Интервал серии должен быть больше 0")
+    private Integer interval;
+
+    private LocalDateTime until;
+
+    @Positive(message = "Количество повторений должно быть больше 0")
+    @Max(value = MAX_OCCURRENCES, message = "Серия не может содержать больше " + MAX_OCCURRENCES + " бронирований")
+    private Integer count;
+
+    @AssertTrue(message = "Дата окончания бронирования должна быть позже даты начала")
+    private boolean isEndDateAfterStartDate() {
+        if (start == null || end == null) {
+            return true;
+        }
+        return end.isAfter(start);
+    }
+
+    @AssertTrue(message = "Для серии нужно указать дату окончания или количество повторений")
+    private boolean isSeriesBounded() {
+        return until != null || count != null;
+    }
+
+    @AssertTrue(message = "Дата окончания серии не может быть раньше начала первого бронирования")
+    private boolean isUntilNotBeforeStart() {
+        if (start == null || until == null) {
+            return true;
+        }
+        return !until.isBefore(start);
+    }
+}
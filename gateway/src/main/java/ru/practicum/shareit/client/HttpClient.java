@@ -12,6 +12,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
+import java.io.OutputStream;
+import java.util.function.Consumer;
+
 @Service
 public class HttpClient {
     private final RestTemplate restTemplate;
@@ -27,13 +30,38 @@ public class HttpClient {
     }
 
     public ResponseEntity<Object> get(String endPoint, Long userId) {
+        return get(endPoint, userId, null);
+    }
+
+    /**
+     * Условный GET: {@code ifNoneMatch} передаётся серверу, его ответ 304 возвращается клиенту как есть.
+     */
+    public ResponseEntity<Object> get(String endPoint, Long userId, String ifNoneMatch) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         if (userId != null) headers.set(userIdHeader, String.valueOf(userId));
+        if (ifNoneMatch != null) headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
         HttpEntity<String> request = new HttpEntity<>("", headers);
         return restTemplate.exchange(endPoint, HttpMethod.GET, request, Object.class);
     }
 
+    /**
+     * Передаёт тело ответа сервера в {@code out} по мере чтения, не буферизуя его целиком.
+     * Заголовки успешного ответа передаются в {@code onHeaders} до начала копирования тела.
+     */
+    public void stream(String endPoint, Long userId, Consumer<HttpHeaders> onHeaders, OutputStream out) {
+        restTemplate.execute(endPoint, HttpMethod.GET,
+                request -> {
+                    if (userId != null) request.getHeaders().set(userIdHeader, String.valueOf(userId));
+                },
+                response -> {
+                    onHeaders.accept(response.getHeaders());
+                    response.getBody().transferTo(out);
+                    out.flush();
+                    return null;
+                });
+    }
+
     public ResponseEntity<Object> post(String endPoint, Long userId, Object object) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
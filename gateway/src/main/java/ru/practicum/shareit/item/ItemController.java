@@ -1,8 +1,15 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,21 +24,28 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.client.HttpClient;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCategory;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
 @Validated
 public class ItemController {
     private static final String API_PREFIX = "/items";
+    private static final String CURSOR_PATTERN = "[A-Za-z0-9_-]+";
     private final HttpClient httpClient;
 
     @GetMapping("/{id}")
     public ResponseEntity<Object> getById(
-            @PathVariable @Positive(message = "id вещи должен быть больше 0") long id
+            @PathVariable @Positive(message = "id вещи должен быть больше 0") long id,
+            @RequestHeader(value = "${shareit.api.auth.userheader}", required = false)
+            @Positive(message = "id пользователя должен быть больше 0") Long userId
     ) {
-        return httpClient.get(API_PREFIX + "/" + id, null);
+        return httpClient.get(API_PREFIX + "/" + id, userId);
     }
 
     @DeleteMapping("/{id}")
@@ -60,14 +74,64 @@ public class ItemController {
 
     @GetMapping
     public ResponseEntity<Object> getItems(
-            @RequestHeader("${shareit.api.auth.userheader}") @Positive(message = "id вещи должен быть больше 0") long id
+            @RequestHeader("${shareit.api.auth.userheader}") @Positive(message = "id вещи должен быть больше 0") long id,
+            @RequestParam(required = false) @Pattern(regexp = CURSOR_PATTERN, message = "Некорректное значение курсора") String cursor,
+            @RequestParam(defaultValue = "10") @Positive(message = "Размер страницы должен быть больше 0")
+            @Max(value = 100, message = "Размер страницы не может быть больше 100") int size
     ) {
-        return httpClient.get(API_PREFIX, id);
+        return httpClient.get(API_PREFIX + "?" + pageParams(cursor, size).substring(1), id);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam(name = "text", required = false, defaultValue = "") String query) {
-        return httpClient.get(API_PREFIX + "/search?text=" + query, null);
+    public ResponseEntity<Object> searchItems(
+            @RequestParam(name = "text", required = false, defaultValue = "") String query,
+            @RequestParam(defaultValue = "0") @PositiveOrZero(message = "Номер первого элемента не может быть отрицательным") int from,
+            @RequestParam(defaultValue = "10") @Positive(message = "Размер страницы должен быть больше 0")
+            @Max(value = 100, message = "Размер страницы не может быть больше 100") int size
+    ) {
+        return httpClient.get(API_PREFIX + "/search?text=" + query + "&from=" + from + "&size=" + size, null);
+    }
+
+    @GetMapping("/search/faceted")
+    public ResponseEntity<Object> searchFaceted(
+            @RequestParam(required = false, defaultValue = "") String text,
+            @RequestParam(name = "category", required = false) Set<ItemCategory> categories,
+            @RequestParam(name = "lat", required = false)
+            @DecimalMin(value = "-90", message = "Широта должна быть от -90 до 90")
+            @DecimalMax(value = "90", message = "Широта должна быть от -90 до 90") Double latitude,
+            @RequestParam(name = "lon", required = false)
+            @DecimalMin(value = "-180", message = "Долгота должна быть от -180 до 180")
+            @DecimalMax(value = "180", message = "Долгота должна быть от -180 до 180") Double longitude,
+            @RequestParam(name = "radius", required = false) @Positive(message = "Радиус поиска должен быть больше 0")
+            @DecimalMax(value = "500", message = "Радиус поиска не может быть больше 500 км") Double radiusKm,
+            @RequestParam(defaultValue = "0") @PositiveOrZero(message = "Номер первого элемента не может быть отрицательным") int from,
+            @RequestParam(defaultValue = "10") @Positive(message = "Размер страницы должен быть больше 0")
+            @Max(value = 100, message = "Размер страницы не может быть больше 100") int size
+    ) {
+        StringBuilder url = new StringBuilder(API_PREFIX + "/search/faceted?text=" + text);
+        if (categories != null) {
+            categories.forEach(category -> url.append("&category=").append(category));
+        }
+        if (latitude != null) {
+            url.append("&lat=").append(latitude);
+        }
+        if (longitude != null) {
+            url.append("&lon=").append(longitude);
+        }
+        if (radiusKm != null) {
+            url.append("&radius=").append(radiusKm);
+        }
+        url.append("&from=").append(from).append("&size=").append(size);
+        return httpClient.get(url.toString(), null);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggest(
+            @RequestParam(required = false, defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") @Positive(message = "Количество подсказок должно быть больше 0")
+            @Max(value = 20, message = "Количество подсказок не может быть больше 20") int size
+    ) {
+        return httpClient.get(API_PREFIX + "/suggest?prefix=" + prefix + "&size=" + size, null);
     }
 
     @PostMapping("/{id}/comment")
@@ -78,4 +142,33 @@ public class ItemController {
     ) {
         return httpClient.post(API_PREFIX + "/" + itemId + "/comment", userId, commentDto);
     }
+
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<Object> getComments(
+            @PathVariable(name = "id") @Positive(message = "id вещи должен быть больше 0") long itemId,
+            @RequestParam(required = false) @Pattern(regexp = CURSOR_PATTERN, message = "Некорректное значение курсора") String cursor,
+            @RequestParam(defaultValue = "10") @Positive(message = "Размер страницы должен быть больше 0")
+            @Max(value = 100, message = "Размер страницы не может быть больше 100") int size
+    ) {
+        return httpClient.get(API_PREFIX + "/" + itemId + "/comments?" + pageParams(cursor, size).substring(1), null);
+    }
+
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<Object> getAvailability(
+            @PathVariable(name = "id") @Positive(message = "id вещи должен быть больше 0") long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        return httpClient.get(API_PREFIX + "/" + itemId + "/availability?from=" + from + "&to=" + to, null, ifNoneMatch);
+    }
+
+    private String pageParams(String cursor, int size) {
+        StringBuilder params = new StringBuilder();
+        if (cursor != null) {
+            params.append("&cursor=").append(cursor);
+        }
+        params.append("&size=").append(size);
+        return params.toString();
+    }
 }
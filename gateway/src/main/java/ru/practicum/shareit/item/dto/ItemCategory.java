@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+public enum ItemCategory {
+    TOOLS,
+    GARDEN,
+    ELECTRONICS,
+    SPORTS,
+    TRAVEL,
+    HOUSEHOLD,
+    KIDS,
+    OTHER
+}
@@ -1,5 +1,8 @@
 package ru.practicum.shareit.item.dto;
 
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -23,12 +26,27 @@ public class ItemDto {
 
     private Long requestId;
 
+    private ItemCategory category;
+
+    @DecimalMin(value = "-90", message = "Широта должна быть от -90 до 90")
+    @DecimalMax(value = "90", message = "Широта должна быть от -90 до 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180", message = "Долгота должна быть от -180 до 180")
+    @DecimalMax(value = "180", message = "Долгота должна быть от -180 до 180")
+    private Double longitude;
+
     private BookingInfo lastBooking;
 
     private BookingInfo nextBooking;
 
     private List<CommentDto> comments;
 
+    @AssertTrue(message = "Широта и долгота указываются вместе")
+    private boolean isLocationComplete() {
+        return (latitude == null) == (longitude == null);
+    }
+
     @Data
     @AllArgsConstructor
     public static class BookingInfo {
@@ -6,17 +6,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.client.HttpClientErrorException;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesCreateDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesFrequency;
 import ru.practicum.shareit.booking.dto.BookingStateQueryParam;
 import ru.practicum.shareit.client.HttpClient;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -347,4 +360,263 @@ public class BookingControllerTest {
                         .content(mapper.writeValueAsString(createDto)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllForOwner_WithCursorAndSize_ShouldPassThemToServer() throws Exception {
+        long userId = 1L;
+
+        when(httpClient.get(eq("/bookings/owner?state=ALL&cursor=MjAzMHwx&size=20"), eq(userId)))
+                .thenReturn(mockResponse);
+
+        mvc.perform(get("/bookings/owner")
+                        .header(userIdHeader, userId)
+                        .param("cursor", "MjAzMHwx")
+                        .param("size", "20"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAllForBooker_WithNonPositiveSize_ShouldReturnBadRequest() throws Exception {
+        mvc.perform(get("/bookings")
+                        .header(userIdHeader, 1L)
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllForOwner_WithTooLargeSize_ShouldReturnBadRequest() throws Exception {
+        mvc.perform(get("/bookings/owner")
+                        .header(userIdHeader, 1L)
+                        .param("size", "101"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllForBooker_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        mvc.perform(get("/bookings")
+                        .header(userIdHeader, 1L)
+                        .param("cursor", "a&b"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createBatch_ShouldPassEntriesToServer() throws Exception {
+        long userId = 1L;
+        List<BookingCreateDto> createDtos = List.of(
+                BookingCreateDto.builder()
+                        .start(LocalDateTime.now().plusDays(1))
+                        .end(LocalDateTime.now().plusDays(2))
+                        .itemId(1L)
+                        .build(),
+                BookingCreateDto.builder()
+                        .start(LocalDateTime.now().plusDays(3))
+                        .end(LocalDateTime.now().plusDays(4))
+                        .itemId(2L)
+                        .build());
+
+        when(httpClient.post(eq("/bookings/batch"), eq(userId), any(List.class)))
+                .thenReturn(ResponseEntity.ok().body("[{\"index\": 0}, {\"index\": 1}]"));
+
+        mvc.perform(post("/bookings/batch")
+                        .header(userIdHeader, userId)
+                        .contentType("application/json")
+                        .content(mapper.writeValueAsString(createDtos)))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"index\": 0}, {\"index\": 1}]"));
+    }
+
+    @Test
+    void createSeries_ShouldPassSeriesToServer() throws Exception {
+        long userId = 1L;
+        BookingSeriesCreateDto seriesDto = BookingSeriesCreateDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(1).plusHours(3))
+                .frequency(BookingSeriesFrequency.WEEKLY)
+                .count(26)
+                .build();
+
+        when(httpClient.post(eq("/bookings/series"), eq(userId), any(BookingSeriesCreateDto.class)))
+                .thenReturn(ResponseEntity.ok().body("[{\"index\": 0}]"));
+
+        mvc.perform(post("/bookings/series")
+                        .header(userIdHeader, userId)
+                        .contentType("application/json")
+                        .content(mapper.writeValueAsString(seriesDto)))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"index\": 0}]"));
+    }
+
+    @Test
+    void createSeries_WithoutUntilAndCount_ShouldReturnBadRequest() throws Exception {
+        BookingSeriesCreateDto seriesDto = BookingSeriesCreateDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(1).plusHours(3))
+                .frequency(BookingSeriesFrequency.DAILY)
+                .build();
+
+        mvc.perform(post("/bookings/series")
+                        .header(userIdHeader, 1L)
+                        .contentType("application/json")
+                        .content(mapper.writeValueAsString(seriesDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Для серии нужно указать дату окончания или количество повторений"));
+    }
+
+    @Test
+    void createSeries_WithTooManyOccurrences_ShouldReturnBadRequest() throws Exception {
+        BookingSeriesCreateDto seriesDto = BookingSeriesCreateDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(1).plusHours(3))
+                .frequency(BookingSeriesFrequency.DAILY)
+                .count(BookingSeriesCreateDto.MAX_OCCURRENCES + 1)
+                .build();
+
+        mvc.perform(post("/bookings/series")
+                        .header(userIdHeader, 1L)
+                        .contentType("application/json")
+                        .content(mapper.writeValueAsString(seriesDto)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createBatch_WithInvalidEntry_ShouldReturnBadRequest() throws Exception {
+        List<BookingCreateDto> createDtos = List.of(
+                BookingCreateDto.builder()
+                        .start(LocalDateTime.now().plusDays(1))
+                        .end(LocalDateTime.now().plusDays(2))
+                        .itemId(1L)
+                        .build(),
+                BookingCreateDto.builder()
+                        .start(LocalDateTime.now().plusDays(2))
+                        .end(LocalDateTime.now().plusDays(1))
+                        .itemId(1L)
+                        .build());
+
+        mvc.perform(post("/bookings/batch")
+                        .header(userIdHeader, 1L)
+                        .contentType("application/json")
+                        .content(mapper.writeValueAsString(createDtos)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createBatch_WithEmptyList_ShouldReturnBadRequest() throws Exception {
+        mvc.perform(post("/bookings/batch")
+                        .header(userIdHeader, 1L)
+                        .contentType("application/json")
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updateStatesByOwner_ShouldPassIdsToServer() throws Exception {
+        long userId = 1L;
+
+        when(httpClient.patch(eq("/bookings/batch?approved=true"), eq(userId), eq(List.of(1L, 2L))))
+                .thenReturn(ResponseEntity.ok().body("[{\"bookingId\": 1}, {\"bookingId\": 2}]"));
+
+        mvc.perform(patch("/bookings/batch")
+                        .header(userIdHeader, userId)
+                        .param("approved", "true")
+                        .contentType("application/json")
+                        .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"bookingId\": 1}, {\"bookingId\": 2}]"));
+    }
+
+    @Test
+    void updateStatesByOwner_WithNonPositiveId_ShouldReturnBadRequest() throws Exception {
+        mvc.perform(patch("/bookings/batch")
+                        .header(userIdHeader, 1L)
+                        .param("approved", "true")
+                        .contentType("application/json")
+                        .content("[1, 0]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updateStatesByOwner_WithEmptyList_ShouldReturnBadRequest() throws Exception {
+        mvc.perform(patch("/bookings/batch")
+                        .header(userIdHeader, 1L)
+                        .param("approved", "false")
+                        .contentType("application/json")
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getSummaryForOwner_ShouldReturnOk() throws Exception {
+        long userId = 1L;
+
+        when(httpClient.get(eq("/bookings/owner/summary"), eq(userId)))
+                .thenReturn(ResponseEntity.ok().body("{\"all\": 3}"));
+
+        mvc.perform(get("/bookings/owner/summary")
+                        .header(userIdHeader, userId))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"all\": 3}"));
+    }
+
+    @Test
+    void getSummaryForOwner_WithInvalidUserId_ShouldReturnBadRequest() throws Exception {
+        mvc.perform(get("/bookings/owner/summary")
+                        .header(userIdHeader, 0L))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportForOwner_ShouldStreamServerResponse() throws Exception {
+        long userId = 1L;
+
+        doAnswer(invocation -> {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.parseMediaType("text/csv"));
+            invocation.<Consumer<HttpHeaders>>getArgument(2).accept(headers);
+            OutputStream out = invocation.getArgument(3);
+            out.write("id,start\n1,2030-01-01T10:00\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(httpClient).stream(eq("/bookings/owner/export?state=ALL&format=CSV"), eq(userId), any(), any(OutputStream.class));
+
+        MvcResult result = mvc.perform(get("/bookings/owner/export")
+                        .header(userIdHeader, userId)
+                        .param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string("id,start\n1,2030-01-01T10:00\n"));
+    }
+
+    @Test
+    void exportForOwner_WhenServerReturnsNotFound_ShouldReturnNotFound() throws Exception {
+        long userId = 1L;
+
+        HttpClientErrorException notFound = HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null,
+                "{\"error\": \"not found\"}".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        notFound.setBodyConvertFunction(type -> Map.of("error", "not found"));
+        doThrow(notFound)
+                .when(httpClient).stream(any(), eq(userId), any(), any(OutputStream.class));
+
+        MvcResult result = mvc.perform(get("/bookings/owner/export")
+                        .header(userIdHeader, userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(content().json("{\"error\": \"not found\"}"));
+    }
+
+    @Test
+    void exportForOwner_WithUnknownFormat_ShouldReturnBadRequest() throws Exception {
+        mvc.perform(get("/bookings/owner/export")
+                        .header(userIdHeader, 1L)
+                        .param("format", "XML"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -9,10 +9,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -340,4 +346,25 @@ public class HttpClientTest {
                 eq(Object.class)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void stream_ShouldSetUserHeaderAndCopyBodyToOutput() {
+        byte[] body = "{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8);
+        MockClientHttpRequest request = new MockClientHttpRequest();
+        when(restTemplate.execute(eq(endPoint), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(2, RequestCallback.class).doWithRequest(request);
+                    MockClientHttpResponse response = new MockClientHttpResponse(body, HttpStatus.OK);
+                    response.getHeaders().setContentType(MediaType.APPLICATION_NDJSON);
+                    return invocation.getArgument(3, ResponseExtractor.class).extractData(response);
+                });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HttpHeaders forwarded = new HttpHeaders();
+
+        httpClient.stream(endPoint, userId, forwarded::putAll, out);
+
+        assertEquals(userId.toString(), request.getHeaders().getFirst("X-Sharer-User-Id"));
+        assertEquals(MediaType.APPLICATION_NDJSON, forwarded.getContentType());
+        assertArrayEquals(body, out.toByteArray());
+    }
+}
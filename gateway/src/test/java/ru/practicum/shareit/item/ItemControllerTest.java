@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.client.HttpClient;
@@ -47,6 +48,19 @@ public class ItemControllerTest {
                 .andExpect(content().json("{\"id\": 1}"));
     }
 
+    @Test
+    void getById_WithUserHeader_ShouldForwardUserId() throws Exception {
+        long itemId = 1L;
+        long userId = 2L;
+        when(httpClient.get(eq("/items/1"), eq(userId)))
+                .thenReturn(mockResponse);
+
+        mvc.perform(get("/items/{id}", itemId)
+                        .header(userIdHeader, userId))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\": 1}"));
+    }
+
     @Test
     void getById_WithInvalidId_ShouldReturnBadRequest() throws Exception {
         long invalidItemId = 0L;
@@ -228,7 +242,7 @@ public class ItemControllerTest {
     @Test
     void getItems_ShouldReturnOk() throws Exception {
         long userId = 1L;
-        when(httpClient.get(eq("/items"), eq(userId)))
+        when(httpClient.get(eq("/items?size=10"), eq(userId)))
                 .thenReturn(mockResponse);
 
         mvc.perform(get("/items")
@@ -251,10 +265,59 @@ public class ItemControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void getItems_WithCursorAndSize_ShouldForwardThem() throws Exception {
+        long userId = 1L;
+        when(httpClient.get(eq("/items?cursor=MTA&size=20"), eq(userId)))
+                .thenReturn(mockResponse);
+
+        mvc.perform(get("/items")
+                        .header(userIdHeader, userId)
+                        .param("cursor", "MTA")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\": 1}"));
+    }
+
+    @Test
+    void getItems_WithInvalidPage_ShouldReturnBadRequest() throws Exception {
+        mvc.perform(get("/items")
+                        .header(userIdHeader, 1L)
+                        .param("size", "101"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/items")
+                        .header(userIdHeader, 1L)
+                        .param("cursor", "MTA=?"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getComments_ShouldForwardPage() throws Exception {
+        when(httpClient.get(eq("/items/1/comments?size=10"), eq(null)))
+                .thenReturn(mockResponse);
+        when(httpClient.get(eq("/items/1/comments?cursor=MTA&size=5"), eq(null)))
+                .thenReturn(mockResponse);
+
+        mvc.perform(get("/items/{id}/comments", 1L))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items/{id}/comments", 1L)
+                        .param("cursor", "MTA")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\": 1}"));
+    }
+
+    @Test
+    void getComments_WithInvalidSize_ShouldReturnBadRequest() throws Exception {
+        mvc.perform(get("/items/{id}/comments", 1L)
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void searchItems_WithQuery_ShouldReturnOk() throws Exception {
         String query = "test";
-        when(httpClient.get(eq("/items/search?text=test"), eq(null)))
+        when(httpClient.get(eq("/items/search?text=test&from=0&size=10"), eq(null)))
                 .thenReturn(mockResponse);
 
         mvc.perform(get("/items/search")
@@ -265,7 +328,7 @@ public class ItemControllerTest {
 
     @Test
     void searchItems_WithEmptyQuery_ShouldReturnOk() throws Exception {
-        when(httpClient.get(eq("/items/search?text="), eq(null)))
+        when(httpClient.get(eq("/items/search?text=&from=0&size=10"), eq(null)))
                 .thenReturn(mockResponse);
 
         mvc.perform(get("/items/search"))
@@ -275,7 +338,7 @@ public class ItemControllerTest {
     @Test
     void searchItems_WithSpecialCharacters_ShouldReturnOk() throws Exception {
         String query = "test+query with spaces";
-        when(httpClient.get(eq("/items/search?text=test+query with spaces"), eq(null)))
+        when(httpClient.get(eq("/items/search?text=test+query with spaces&from=0&size=10"), eq(null)))
                 .thenReturn(mockResponse);
 
         mvc.perform(get("/items/search")
@@ -283,6 +346,92 @@ public class ItemControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void searchItems_WithPage_ShouldForwardPageParams() throws Exception {
+        when(httpClient.get(eq("/items/search?text=drill&from=20&size=5"), eq(null)))
+                .thenReturn(mockResponse);
+
+        mvc.perform(get("/items/search")
+                        .param("text", "drill")
+                        .param("from", "20")
+                        .param("size", "5"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void searchItems_WithNegativeFrom_ShouldReturnBadRequest() throws Exception {
+        mvc.perform(get("/items/search")
+                        .param("text", "drill")
+                        .param("from", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchItems_WithTooLargeSize_ShouldReturnBadRequest() throws Exception {
+        mvc.perform(get("/items/search")
+                        .param("text", "drill")
+                        .param("size", "101"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchFaceted_ShouldForwardFilters() throws Exception {
+        when(httpClient.get(eq("/items/search/faceted?text=drill&category=TOOLS&lat=55.75&lon=37.62&radius=5.0&from=0&size=10"),
+                eq(null)))
+                .thenReturn(mockResponse);
+
+        mvc.perform(get("/items/search/faceted")
+                        .param("text", "drill")
+                        .param("category", "TOOLS")
+                        .param("lat", "55.75")
+                        .param("lon", "37.62")
+                        .param("radius", "5"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void searchFaceted_WithoutFilters_ShouldForwardOnlyPage() throws Exception {
+        when(httpClient.get(eq("/items/search/faceted?text=&from=0&size=10"), eq(null)))
+                .thenReturn(mockResponse);
+
+        mvc.perform(get("/items/search/faceted"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void searchFaceted_WithInvalidFilters_ShouldReturnBadRequest() throws Exception {
+        mvc.perform(get("/items/search/faceted")
+                        .param("lat", "91")
+                        .param("lon", "37.62"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/items/search/faceted")
+                        .param("lat", "55.75")
+                        .param("lon", "37.62")
+                        .param("radius", "501"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/items/search/faceted")
+                        .param("category", "UNKNOWN"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void suggest_ShouldForwardPrefixAndSize() throws Exception {
+        when(httpClient.get(eq("/items/suggest?prefix=дре&size=10"), eq(null)))
+                .thenReturn(mockResponse);
+
+        mvc.perform(get("/items/suggest")
+                        .param("prefix", "дре"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void suggest_WithTooLargeSize_ShouldReturnBadRequest() throws Exception {
+        mvc.perform(get("/items/suggest")
+                        .param("prefix", "дре")
+                        .param("size", "21"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void createComment_ShouldReturnOk() throws Exception {
         long userId = 1L;
@@ -410,4 +559,35 @@ public class ItemControllerTest {
                         .content(mapper.writeValueAsString(commentDto)))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAvailability_ShouldPassRangeToServer() throws Exception {
+        when(httpClient.get(eq("/items/1/availability?from=2030-01-01T10:00&to=2030-01-05T10:00"), eq(null), eq(null)))
+                .thenReturn(mockResponse);
+
+        mvc.perform(get("/items/{id}/availability", 1L)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-05T10:00:00"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAvailability_WithIfNoneMatch_ShouldPassItToServer() throws Exception {
+        when(httpClient.get(eq("/items/1/availability?from=2030-01-01T10:00&to=2030-01-05T10:00"), eq(null),
+                eq("\"abc\"")))
+                .thenReturn(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+        mvc.perform(get("/items/{id}/availability", 1L)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-05T10:00:00")
+                        .header("If-None-Match", "\"abc\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getAvailability_WithoutRange_ShouldReturnBadRequest() throws Exception {
+        mvc.perform(get("/items/{id}/availability", 1L)
+                        .param("from", "2030-01-01T10:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+}
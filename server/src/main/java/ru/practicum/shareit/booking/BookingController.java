@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,9 +12,17 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesCreateDto;
 import ru.practicum.shareit.booking.dto.BookingStateQueryParam;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.service.BookingExport;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.util.List;
@@ -21,6 +31,8 @@ import java.util.List;
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
     private final BookingService bookingService;
 
     @GetMapping("/{id}")
@@ -32,19 +44,45 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingResponseDto> getAllForBooker(
+    public ResponseEntity<List<BookingResponseDto>> getAllForBooker(
             @RequestHeader("${shareit.api.auth.userheader}") long userId,
-            @RequestParam(required = false, defaultValue = "ALL") BookingStateQueryParam state
+            @RequestParam(required = false, defaultValue = "ALL") BookingStateQueryParam state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
     ) {
-        return bookingService.getAllForBooker(userId, state);
+        Integer pageSize = pageSize(cursor, size);
+        return withNextCursor(bookingService.getAllForBooker(userId, state, cursor, pageSize), pageSize);
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getAllForOwner(
+    public ResponseEntity<List<BookingResponseDto>> getAllForOwner(
+            @RequestHeader("${shareit.api.auth.userheader}") long userId,
+            @RequestParam(required = false, defaultValue = "ALL") BookingStateQueryParam state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        Integer pageSize = pageSize(cursor, size);
+        return withNextCursor(bookingService.getAllForOwner(userId, state, cursor, pageSize), pageSize);
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getSummaryForOwner(
+            @RequestHeader("${shareit.api.auth.userheader}") long userId
+    ) {
+        return bookingService.getSummaryForOwner(userId);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportForOwner(
             @RequestHeader("${shareit.api.auth.userheader}") long userId,
-            @RequestParam(required = false, defaultValue = "ALL") BookingStateQueryParam state
+            @RequestParam(required = false, defaultValue = "ALL") BookingStateQueryParam state,
+            @RequestParam(required = false, defaultValue = "NDJSON") BookingExportFormat format
     ) {
-        return bookingService.getAllForOwner(userId, state);
+        BookingExport export = bookingService.exportForOwner(userId, state, format);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=bookings." + format.getExtension())
+                .body(export::writeTo);
     }
 
     @PostMapping
@@ -55,6 +93,31 @@ public class BookingController {
         return bookingService.create(userId, createDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBatch(
+            @RequestHeader("${shareit.api.auth.userheader}") long userId,
+            @RequestBody List<BookingCreateDto> createDtos
+    ) {
+        return bookingService.createBatch(userId, createDtos);
+    }
+
+    @PostMapping("/series")
+    public List<BookingBatchResultDto> createSeries(
+            @RequestHeader("${shareit.api.auth.userheader}") long userId,
+            @RequestBody BookingSeriesCreateDto seriesDto
+    ) {
+        return bookingService.createSeries(userId, seriesDto);
+    }
+
+    @PatchMapping("/batch")
+    public List<BookingStatusResultDto> updateStatesByOwner(
+            @RequestHeader("${shareit.api.auth.userheader}") long userId,
+            @RequestParam boolean approved,
+            @RequestBody List<Long> bookingIds
+    ) {
+        return bookingService.updateStatesByOwner(userId, bookingIds, approved);
+    }
+
     @PatchMapping("/{id}")
     public BookingResponseDto updateStateByOwner(
             @RequestHeader("${shareit.api.auth.userheader}") long userId,
@@ -63,4 +126,23 @@ public class BookingController {
     ) {
         return bookingService.updateStateByOwner(userId, bookingId, approved);
     }
+
+    /**
+     * Без курсора и размера возвращается весь список, как до появления постраничного вывода.
+     * Курсор без размера читает страницу по умолчанию.
+     */
+    private Integer pageSize(String cursor, Integer size) {
+        if (size == null && cursor != null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return size;
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> withNextCursor(List<BookingResponseDto> bookings, Integer size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (size != null && bookings.size() == size) {
+            response.header(BookingCursor.NEXT_CURSOR_HEADER, BookingCursor.encode(bookings.getLast()));
+        }
+        return response.body(bookings);
+    }
 }
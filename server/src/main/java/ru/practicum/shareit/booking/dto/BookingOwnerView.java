@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class BookingOwnerView {
+    private Long bookingId;
+    private Long itemId;
+    private Long ownerId;
+    private Long bookerId;
+    private LocalDateTime start;
+    private BookingState status;
+}
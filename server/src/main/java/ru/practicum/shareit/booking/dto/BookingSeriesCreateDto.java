@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class BookingSeriesCreateDto {
+    private Long itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private BookingSeriesFrequency frequency;
+    private Integer interval;
+    private LocalDateTime until;
+    private Integer count;
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public enum BookingSeriesFrequency {
+    DAILY {
+        @Override
+        public LocalDateTime next(LocalDateTime from, int interval) {
+            return from.plusDays(interval);
+        }
+    },
+    WEEKLY {
+        @Override
+        public LocalDateTime next(LocalDateTime from, int interval) {
+            return from.plusWeeks(interval);
+        }
+    };
+
+    public abstract LocalDateTime next(LocalDateTime from, int interval);
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class BookingEventDto {
+    private Long id;
+    private Long bookingId;
+    private Long itemId;
+    private Long ownerId;
+    private Long bookerId;
+    private BookingEventType type;
+    private LocalDateTime created;
+}
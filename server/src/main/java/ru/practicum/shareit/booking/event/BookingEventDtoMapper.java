@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.event;
+
+public class BookingEventDtoMapper {
+    public static BookingEventDto mapToDto(BookingEvent event) {
+        return BookingEventDto.builder()
+                .id(event.getId())
+                .bookingId(event.getBookingId())
+                .itemId(event.getItemId())
+                .ownerId(event.getOwnerId())
+                .bookerId(event.getBookerId())
+                .type(event.getType())
+                .created(event.getCreated())
+                .build();
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Доставляет события из таблицы BOOKING_EVENTS получателям. Каждому получателю события отправляются
+ * отдельно, и доставка фиксируется в BOOKING_EVENT_DELIVERIES; событие отмечается опубликованным,
+ * когда его получили все получатели. Без получателей публикатор не запускается, чтобы события
+ * не отмечались опубликованными без доставки. Опубликованные события старше retention удаляются
+ * порциями, каждая в своей транзакции.
+ */
+@Slf4j
+@Component
+public class BookingEventPublisher {
+    private final BookingEventStorage bookingEventStorage;
+    private final List<BookingEventSink> sinks;
+    private final List<String> sinkNames;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+
+    public BookingEventPublisher(BookingEventStorage bookingEventStorage,
+                                 List<BookingEventSink> sinks,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${shareit.booking.events.batch-size:500}") int batchSize,
+                                 @Value("${shareit.booking.events.retention:7d}") Duration retention) {
+        if (sinks.isEmpty()) {
+            throw new IllegalStateException("Не настроен ни один получатель событий бронирований: включите " +
+                    "shareit.booking.events.queue.enabled или задайте shareit.booking.events.file.path");
+        }
+        this.sinkNames = sinks.stream().map(BookingEventSink::name).toList();
+        if (Set.copyOf(sinkNames).size() != sinkNames.size()) {
+            throw new IllegalArgumentException("Имена получателей событий бронирований должны быть уникальны: " + sinkNames);
+        }
+        this.bookingEventStorage = bookingEventStorage;
+        this.sinks = sinks;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.events.publish-interval:1000}")
+    public void publishScheduled() {
+        try {
+            publishPending();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось опубликовать события бронирований: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Доставляет ожидающие события каждому получателю и возвращает число событий, полученных всеми.
+     */
+    public int publishPending() {
+        for (BookingEventSink sink : sinks) {
+            try {
+                deliverPending(sink);
+            } catch (RuntimeException e) {
+                log.warn("Не удалось доставить события бронирований получателю {}: {}", sink.name(), e.getMessage());
+            }
+        }
+        int total = 0;
+        int published;
+        do {
+            published = transactionTemplate.execute(status -> markBatchPublished());
+            total += published;
+        } while (published == batchSize);
+        if (total > 0) {
+            log.info("Опубликовано событий бронирований: {}", total);
+        }
+        return total;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.events.purge-interval:3600000}")
+    public void purgeScheduled() {
+        try {
+            purgePublished();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось удалить опубликованные события бронирований: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Удаляет события, опубликованные раньше, чем retention назад, и возвращает их число.
+     */
+    public int purgePublished() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        int total = 0;
+        int removed;
+        do {
+            removed = transactionTemplate.execute(status -> {
+                List<Long> ids = bookingEventStorage.findPublishedIdsBefore(before, Limit.of(batchSize));
+                if (!ids.isEmpty()) {
+                    bookingEventStorage.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            });
+            total += removed;
+        } while (removed == batchSize);
+        if (total > 0) {
+            log.info("Удалено опубликованных событий бронирований: {}", total);
+        }
+        return total;
+    }
+
+    private void deliverPending(BookingEventSink sink) {
+        int delivered;
+        do {
+            delivered = transactionTemplate.execute(status -> deliverBatch(sink));
+        } while (delivered == batchSize);
+    }
+
+    private int deliverBatch(BookingEventSink sink) {
+        List<BookingEvent> events = bookingEventStorage.findPendingForSink(sink.name(), batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        sink.publish(events.stream()
+                .map(BookingEventDtoMapper::mapToDto)
+                .toList());
+        bookingEventStorage.recordDelivery(events.stream().map(BookingEvent::getId).toList(), sink.name());
+        return events.size();
+    }
+
+    private int markBatchPublished() {
+        List<Long> ids = bookingEventStorage.findPendingIdsDeliveredToAll(sinkNames, sinkNames.size(), batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        bookingEventStorage.markPublished(ids, LocalDateTime.now());
+        bookingEventStorage.deleteDeliveries(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.event;
+
+import java.util.List;
+
+/**
+ * Получатель событий бронирований. Доставка выполняется «как минимум один раз»: при ошибке
+ * получателя пакет будет отправлен ему повторно, поэтому получатели должны учитывать id события.
+ * Доставка учитывается для каждого получателя отдельно, и ошибка одного не задерживает остальных.
+ */
+public interface BookingEventSink {
+    /**
+     * Имя, под которым учитывается доставка событий получателю; не должно меняться между запусками.
+     */
+    String name();
+
+    void publish(List<BookingEventDto> events);
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking.event;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingEventStorage extends JpaRepository<BookingEvent, Long> {
+    @Query("select e " +
+            "from BookingEvent as e " +
+            "where e.publishedAt is null " +
+            "order by e.id")
+    List<BookingEvent> findPending(Limit limit);
+
+    @Query("select e.id " +
+            "from BookingEvent as e " +
+            "where e.publishedAt < :before " +
+            "order by e.id")
+    List<Long> findPublishedIdsBefore(@Param("before") LocalDateTime before, Limit limit);
+
+    @Query(value = "select e.* " +
+            "from booking_events as e " +
+            "where e.published_at is null " +
+            "and not exists (select 1 from booking_event_deliveries as d where d.event_id = e.id and d.sink = :sink) " +
+            "order by e.id " +
+            "limit :limit", nativeQuery = true)
+    List<BookingEvent> findPendingForSink(@Param("sink") String sink, @Param("limit") int limit);
+
+    /**
+     * Возвращает id неопубликованных событий, доставленных всем получателям из {@code sinks}.
+     */
+    @Query(value = "select e.id " +
+            "from booking_events as e " +
+            "where e.published_at is null " +
+            "and (select count(*) from booking_event_deliveries as d " +
+            "     where d.event_id = e.id and d.sink in :sinks) = :sinkCount " +
+            "order by e.id " +
+            "limit :limit", nativeQuery = true)
+    List<Long> findPendingIdsDeliveredToAll(@Param("sinks") Collection<String> sinks,
+                                            @Param("sinkCount") long sinkCount,
+                                            @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "insert into booking_event_deliveries (event_id, sink) " +
+            "select e.id, :sink from booking_events as e " +
+            "where e.id in :ids", nativeQuery = true)
+    int recordDelivery(@Param("ids") Collection<Long> ids, @Param("sink") String sink);
+
+    @Modifying
+    @Query(value = "delete from booking_event_deliveries " +
+            "where event_id in :ids", nativeQuery = true)
+    int deleteDeliveries(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update BookingEvent as e " +
+            "set e.publishedAt = :publishedAt " +
+            "where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Запись событий в таблицу BOOKING_EVENTS. Вызывается внутри транзакции, изменяющей бронирование,
+ * поэтому событие фиксируется тогда и только тогда, когда фиксируется само изменение.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingOutbox {
+    private final BookingEventStorage bookingEventStorage;
+
+    public void record(BookingEventType type, long bookingId, long itemId, long ownerId, long bookerId) {
+        bookingEventStorage.save(buildEvent(type, bookingId, itemId, ownerId, bookerId, LocalDateTime.now()));
+    }
+
+    public void recordAll(List<BookingEvent> events) {
+        bookingEventStorage.saveAll(events);
+    }
+
+    public static BookingEvent buildEvent(BookingEventType type, long bookingId, long itemId, long ownerId,
+                                          long bookerId, LocalDateTime created) {
+        return BookingEvent.builder()
+                .type(type)
+                .bookingId(bookingId)
+                .itemId(itemId)
+                .ownerId(ownerId)
+                .bookerId(bookerId)
+                .created(created)
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.booking.event;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Получатель событий внутри процесса: ограниченная очередь, которую разбирает отдельный поток,
+ * передавая события слушателям {@code @EventListener(BookingEventDto.class)}. Если пакет не помещается
+ * в очередь, публикация завершается ошибкой без ожидания и пакет будет доставлен повторно,
+ * не задерживая остальных получателей.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.events.queue.enabled", havingValue = "true", matchIfMissing = true)
+public class QueueBookingEventSink implements BookingEventSink {
+    private final BlockingQueue<BookingEventDto> queue;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final Thread dispatcher;
+
+    public QueueBookingEventSink(@Value("${shareit.booking.events.queue.capacity:10000}") int capacity,
+                                 ApplicationEventPublisher applicationEventPublisher) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.dispatcher = Thread.ofPlatform()
+                .name("booking-events-queue")
+                .daemon()
+                .start(this::dispatch);
+    }
+
+    @Override
+    public String name() {
+        return "queue";
+    }
+
+    @Override
+    public synchronized void publish(List<BookingEventDto> events) {
+        if (queue.remainingCapacity() < events.size()) {
+            throw new IllegalStateException("Очередь событий бронирований переполнена");
+        }
+        queue.addAll(events);
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.interrupt();
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            BookingEventDto event;
+            try {
+                event = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                applicationEventPublisher.publishEvent(event);
+            } catch (RuntimeException e) {
+                log.warn("Слушатель не обработал событие бронирования {}: {}", event.getId(), e.getMessage());
+            }
+        }
+    }
+}
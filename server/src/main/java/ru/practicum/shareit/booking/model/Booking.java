@@ -10,6 +10,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,6 +19,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.SQLRestriction;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -32,6 +34,8 @@ import java.time.LocalDateTime;
 @Builder
 @Entity
 @Table(name = "bookings")
+@SQLRestriction("item_id not in (select d.id from items d where d.deleted_at is not null) "
+        + "and user_id not in (select d.id from users d where d.deleted_at is not null)")
 public class Booking {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -48,6 +52,10 @@ public class Booking {
     @Enumerated(value = EnumType.STRING)
     private BookingState status;
 
+    @Column(name = "time_bucket")
+    @Enumerated(value = EnumType.STRING)
+    private BookingTimeBucket timeBucket;
+
     @JoinColumn(name = "user_id", nullable = false)
     @ManyToOne(fetch = FetchType.LAZY)
     private User user;
@@ -55,4 +63,11 @@ public class Booking {
     @JoinColumn(name = "item_id", nullable = false)
     @ManyToOne(fetch = FetchType.LAZY)
     private Item item;
+
+    @PrePersist
+    void assignTimeBucket() {
+        if (timeBucket == null && start != null && end != null) {
+            timeBucket = BookingTimeBucket.of(start, end, LocalDateTime.now());
+        }
+    }
 }
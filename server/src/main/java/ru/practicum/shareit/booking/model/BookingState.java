@@ -4,5 +4,6 @@ public enum BookingState {
     WAITING,
     APPROVED,
     REJECTED,
+    EXPIRED,
     CANCELED
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+
+public enum BookingTimeBucket {
+    FUTURE,
+    CURRENT,
+    PAST;
+
+    public static BookingTimeBucket of(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (end.isBefore(now)) {
+            return PAST;
+        }
+        if (start.isAfter(now)) {
+            return FUTURE;
+        }
+        return CURRENT;
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingOwnerView;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.event.BookingOutbox;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Переводит бронирования, оставшиеся в статусе WAITING после даты начала, в EXPIRED (или REJECTED),
+ * чтобы они не блокировали вещь при проверке пересечений. Обновление идёт порциями по batch-size строк,
+ * каждая порция - в своей транзакции.
+ */
+@Slf4j
+@Component
+public class BookingExpirySweeper {
+    private final BookingStorage bookingStorage;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingSummaryCache bookingSummaryCache;
+    private final BookingOutbox bookingOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingState targetState;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final DistributionSummary rowsPerRun;
+
+    public BookingExpirySweeper(BookingStorage bookingStorage,
+                                BookingIntervalIndex bookingIntervalIndex,
+                                BookingSummaryCache bookingSummaryCache,
+                                BookingOutbox bookingOutbox,
+                                TransactionTemplate transactionTemplate,
+                                ObjectProvider<MeterRegistry> meterRegistry,
+                                @Value("${shareit.booking.expiry.target-state:EXPIRED}") BookingState targetState,
+                                @Value("${shareit.booking.expiry.batch-size:500}") int batchSize,
+                                @Value("${shareit.booking.expiry.max-batches-per-run:100}") int maxBatchesPerRun) {
+        if (targetState != BookingState.EXPIRED && targetState != BookingState.REJECTED) {
+            throw new IllegalArgumentException("shareit.booking.expiry.target-state должен быть EXPIRED или REJECTED");
+        }
+        this.bookingStorage = bookingStorage;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.bookingSummaryCache = bookingSummaryCache;
+        this.bookingOutbox = bookingOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.targetState = targetState;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.rowsPerRun = DistributionSummary.builder("shareit.booking.expiry.rows")
+                .description("Бронирований WAITING, закрытых за один запуск")
+                .tag("state", targetState.name())
+                .register(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.expiry.interval:60000}")
+    public void sweepScheduled() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось закрыть просроченные бронирования: {}", e.getMessage());
+        }
+    }
+
+    public int sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int batches = 0;
+        SweepResult result;
+        do {
+            result = transactionTemplate.execute(status -> sweepBatch(now));
+            total += result.changed();
+            batches++;
+        } while (result.found() == batchSize && batches < maxBatchesPerRun);
+        rowsPerRun.record(total);
+        if (total > 0) {
+            log.info("Бронирований WAITING с прошедшей датой начала переведено в {}: {}", targetState, total);
+        }
+        return total;
+    }
+
+    private SweepResult sweepBatch(LocalDateTime now) {
+        List<BookingOwnerView> stale = bookingStorage.findStaleWaitingOwnerViews(now, Limit.of(batchSize));
+        if (stale.isEmpty()) {
+            return new SweepResult(0, 0);
+        }
+        List<Long> ids = stale.stream().map(BookingOwnerView::getBookingId).toList();
+        int updated = bookingStorage.updateWaitingStatus(ids, targetState);
+        List<BookingOwnerView> changed = stale;
+        if (updated != ids.size()) {
+            // Часть бронирований подтвердили или отклонили параллельно, их итоговый статус перечитывается
+            changed = bookingStorage.findAllOwnerViewsByIdIn(ids).stream()
+                    .filter(view -> view.getStatus() == targetState)
+                    .toList();
+        }
+        BookingEventType eventType = targetState == BookingState.EXPIRED ? BookingEventType.EXPIRED : BookingEventType.REJECTED;
+        bookingOutbox.recordAll(changed.stream()
+                .map(view -> BookingOutbox.buildEvent(eventType, view.getBookingId(), view.getItemId(),
+                        view.getOwnerId(), view.getBookerId(), now))
+                .toList());
+        changed.forEach(view -> bookingIntervalIndex.remove(view.getItemId(), view.getBookingId(), view.getStart()));
+        changed.stream()
+                .map(BookingOwnerView::getOwnerId)
+                .distinct()
+                .forEach(bookingSummaryCache::invalidate);
+        return new SweepResult(stale.size(), changed.size());
+    }
+
+    private record SweepResult(int found, int changed) {
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.service;
+
+import java.io.OutputStream;
+
+/**
+ * Подготовленная выгрузка бронирований: строки читаются из базы только при записи в поток.
+ */
+@FunctionalInterface
+public interface BookingExport {
+    long writeTo(OutputStream out);
+}
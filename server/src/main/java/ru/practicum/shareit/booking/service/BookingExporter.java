@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.Getter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Построчно пишет бронирования в поток ответа в формате NDJSON или CSV, не накапливая их в памяти.
+ */
+@Component
+public class BookingExporter {
+    private static final String CSV_HEADER = "id,start,end,status,bookerId,bookerName,bookerEmail," +
+            "itemId,itemName,itemDescription,itemAvailable";
+    private static final int FLUSH_EVERY = 1000;
+
+    private final ObjectWriter jsonWriter;
+    @Getter
+    private final int fetchSize;
+
+    public BookingExporter(ObjectProvider<ObjectMapper> objectMapper,
+                           @Value("${shareit.booking.export.fetch-size:500}") int fetchSize) {
+        this.jsonWriter = objectMapper.getIfAvailable(() -> Jackson2ObjectMapperBuilder.json().build())
+                .writerFor(BookingResponseDto.class);
+        this.fetchSize = fetchSize;
+    }
+
+    public long write(Stream<BookingResponseDto> bookings, BookingExportFormat format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = 0;
+        try {
+            if (format == BookingExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            Iterator<BookingResponseDto> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                BookingResponseDto booking = iterator.next();
+                if (format == BookingExportFormat.CSV) {
+                    writeCsvLine(writer, booking);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(booking));
+                }
+                writer.write('\n');
+                if (++count % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    private void writeCsvLine(Writer writer, BookingResponseDto booking) throws IOException {
+        writer.write(String.join(",",
+                csv(booking.getId()),
+                csv(booking.getStart()),
+                csv(booking.getEnd()),
+                csv(booking.getStatus()),
+                csv(booking.getBooker().getId()),
+                csv(booking.getBooker().getName()),
+                csv(booking.getBooker().getEmail()),
+                csv(booking.getItem().getId()),
+                csv(booking.getItem().getName()),
+                csv(booking.getItem().getDescription()),
+                csv(booking.getItem().getAvailable())));
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,19 +1,34 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
+import ru.practicum.shareit.booking.dto.BookingSeriesCreateDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.BookingStateQueryParam;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 
 import java.util.List;
 
 public interface BookingService {
     BookingResponseDto getByIdForOwnerOrBooker(long userId, long bookingId);
 
-    List<BookingResponseDto> getAllForBooker(long userId, BookingStateQueryParam state);
+    List<BookingResponseDto> getAllForBooker(long userId, BookingStateQueryParam state, String cursor, Integer size);
 
-    List<BookingResponseDto> getAllForOwner(long userId, BookingStateQueryParam state);
+    List<BookingResponseDto> getAllForOwner(long userId, BookingStateQueryParam state, String cursor, Integer size);
+
+    BookingSummaryDto getSummaryForOwner(long userId);
+
+    BookingExport exportForOwner(long userId, BookingStateQueryParam state, BookingExportFormat format);
 
     BookingResponseDto create(long userId, BookingCreateDto createDto);
 
+    List<BookingBatchResultDto> createBatch(long userId, List<BookingCreateDto> createDtos);
+
+    List<BookingBatchResultDto> createSeries(long userId, BookingSeriesCreateDto seriesDto);
+
     BookingResponseDto updateStateByOwner(long userId, long bookingId, boolean approved);
+
+    List<BookingStatusResultDto> updateStatesByOwner(long userId, List<Long> bookingIds, boolean approved);
 }
@@ -3,32 +3,73 @@ package ru.practicum.shareit.booking.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDtoMapper;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.dto.BookingOwnerView;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesCreateDto;
 import ru.practicum.shareit.booking.dto.BookingStateQueryParam;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.event.BookingOutbox;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
+import ru.practicum.shareit.booking.storage.BookingQuery;
 import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.booking.storage.IntervalMerge;
+import ru.practicum.shareit.booking.storage.IntervalTree;
 import ru.practicum.shareit.exception.ConditionsNotMetException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemCardMaintainer;
 import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoMapper;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.storage.UserStorage;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final int MAX_SERIES_OCCURRENCES = 1000;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final BookingStorage bookingStorage;
+    private final BookingIntervalIndex bookingIntervalIndex;
     private final ItemStorage itemStorage;
     private final UserStorage userStorage;
     private final UserService userService;
+    private final ItemLockStripes itemLockStripes;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingSummaryCache bookingSummaryCache;
+    private final BookingOutbox bookingOutbox;
+    private final ItemCardMaintainer itemCardMaintainer;
+    private final BookingExporter bookingExporter;
 
     @Override
     public BookingResponseDto getByIdForOwnerOrBooker(long userId, long bookingId) {
@@ -46,62 +87,86 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingResponseDto> getAllForBooker(long userId, BookingStateQueryParam state) {
-        log.info("Запрос на получение всех бронирований пользователя с id {} в состоянии - {}", userId, state.name());
+    public List<BookingResponseDto> getAllForBooker(long userId, BookingStateQueryParam state, String cursor, Integer size) {
+        log.info("Запрос на получение бронирований пользователя с id {} в состоянии - {}, курсор - {}, размер - {}", userId, state.name(), cursor, size);
         userNotExistsThrowNotFound(userId);
+        return bookingStorage.findByQuery(buildQuery(BookingQuery.Role.BOOKER, userId, state, cursor, size));
+    }
 
-        List<Booking> bookings = switch (state) {
-            case CURRENT -> bookingStorage.findCurrentByUserIdOrderByStartDesc(userId);
-            case PAST -> bookingStorage.findPastByUserIdOrderByStartDesc(userId);
-            case FUTURE -> bookingStorage.findFutureByUserIdOrderByStartDesc(userId);
-            case WAITING -> bookingStorage.findWaitingByUserIdOrderByStartDesc(userId);
-            case REJECTED -> bookingStorage.findRejectedByUserIdOrderByStartDesc(userId);
-            default -> bookingStorage.findAllByUserIdOrderByStartDesc(userId);
-        };
-
-        return bookings.stream()
-                .map(BookingDtoMapper::mapToResponseDto)
-                .toList();
+    @Override
+    public List<BookingResponseDto> getAllForOwner(long userId, BookingStateQueryParam state, String cursor, Integer size) {
+        log.info("Запрос на получение бронирований вещей пользователя с id {} в состоянии - {}, курсор - {}, размер - {}", userId, state.name(), cursor, size);
+        userNotExistsThrowNotFound(userId);
+        return bookingStorage.findByQuery(buildQuery(BookingQuery.Role.OWNER, userId, state, cursor, size));
     }
 
     @Override
-    public List<BookingResponseDto> getAllForOwner(long userId, BookingStateQueryParam state) {
-        log.info("Запрос на получение всех бронирований вещей пользователя с id {} в состоянии - {}", userId, state.name());
+    public BookingSummaryDto getSummaryForOwner(long userId) {
+        log.info("Запрос на получение сводки бронирований вещей пользователя с id {}", userId);
         userNotExistsThrowNotFound(userId);
+        return bookingSummaryCache.get(userId, () -> bookingStorage.countByStateForOwner(userId, LocalDateTime.now()));
+    }
 
-        List<Booking> bookings = switch (state) {
-            case CURRENT -> bookingStorage.findCurrentByItemOwnerIdOrderByStartDesc(userId);
-            case PAST -> bookingStorage.findPastByItemOwnerIdOrderByStartDesc(userId);
-            case FUTURE -> bookingStorage.findFutureByItemOwnerIdOrderByStartDesc(userId);
-            case WAITING -> bookingStorage.findWaitingByItemOwnerIdOrderByStartDesc(userId);
-            case REJECTED -> bookingStorage.findRejectedByItemOwnerIdOrderByStartDesc(userId);
-            default -> bookingStorage.findAllByItemOwnerIdOrderByStartDesc(userId);
+    @Override
+    public BookingExport exportForOwner(long userId, BookingStateQueryParam state, BookingExportFormat format) {
+        log.info("Запрос на выгрузку бронирований вещей пользователя с id {} в состоянии - {}, формат - {}", userId, state.name(), format);
+        userNotExistsThrowNotFound(userId);
+        BookingQuery query = buildQuery(BookingQuery.Role.OWNER, userId, state, null, null);
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransaction.setReadOnly(true);
+        return out -> {
+            Long exported = readOnlyTransaction.execute(status -> {
+                try (Stream<BookingResponseDto> bookings = bookingStorage.streamByQuery(query, bookingExporter.getFetchSize())) {
+                    return bookingExporter.write(bookings, format, out);
+                }
+            });
+            log.info("Выгружено {} бронирований вещей пользователя с id {}", exported, userId);
+            return exported == null ? 0 : exported;
         };
-
-        return bookings.stream()
-                .map(BookingDtoMapper::mapToResponseDto)
-                .toList();
     }
 
     @Override
     public BookingResponseDto create(long userId, BookingCreateDto createDto) {
         log.info("Запрос на создание бронирования от пользователя с id {}. Данные бронирования - {}", userId, createDto);
         UserDto booker = userService.getById(userId);
-        Item item = itemStorage.findById(createDto.getItemId()).orElseThrow(() -> new NotFoundException("Вещь с id " + createDto.getItemId() + " не найдена"));
-        if (!item.getAvailable() || booker.getId().equals(item.getUser().getId())) {
-            throw new ConditionsNotMetException("Вещь с id " + createDto.getItemId() + " не доступна для аренды");
+        Lock lock = itemLockStripes.forItem(createDto.getItemId());
+        lock.lock();
+        try {
+            return transactionTemplate.execute(status -> reserve(booker, createDto));
+        } finally {
+            lock.unlock();
         }
-        if (bookingStorage.hasTimeConflict(item.getId(), createDto.getStart(), createDto.getEnd())) {
-            throw new ConditionsNotMetException("Бронирование не должно пересекаться с существующими бронированиями");
-        }
-        Booking booking = BookingDtoMapper.mapCreateDtoToModel(createDto);
+    }
 
-        booking.setUser(UserDtoMapper.mapToModel(booker));
-        booking.setItem(item);
-        booking.setStatus(BookingState.WAITING);
+    @Override
+    public List<BookingBatchResultDto> createBatch(long userId, List<BookingCreateDto> createDtos) {
+        log.info("Запрос на пакетное создание {} бронирований от пользователя с id {}", createDtos.size(), userId);
+        UserDto booker = userService.getById(userId);
+        Set<Long> itemIds = createDtos.stream()
+                .map(BookingCreateDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        List<Lock> locks = itemLockStripes.forItems(itemIds);
+        locks.forEach(Lock::lock);
+        try {
+            return transactionTemplate.execute(status -> reserveBatch(booker, itemIds, createDtos));
+        } finally {
+            locks.reversed().forEach(Lock::unlock);
+        }
+    }
 
-        bookingStorage.save(booking);
-        return BookingDtoMapper.mapToResponseDto(booking);
+    @Override
+    public List<BookingBatchResultDto> createSeries(long userId, BookingSeriesCreateDto seriesDto) {
+        log.info("Запрос на создание серии бронирований от пользователя с id {}. Данные серии - {}", userId, seriesDto);
+        List<BookingInterval> occurrences = expandSeries(seriesDto);
+        UserDto booker = userService.getById(userId);
+        Lock lock = itemLockStripes.forItem(seriesDto.getItemId());
+        lock.lock();
+        try {
+            return transactionTemplate.execute(status -> reserveSeries(booker, seriesDto.getItemId(), occurrences));
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
@@ -118,16 +183,280 @@ public class BookingServiceImpl implements BookingService {
             throw new ConditionsNotMetException("Подтверждение бронирования может осуществляться только если статус равен WAITING");
         }
 
-        if (approved) {
-            booking.setStatus(BookingState.APPROVED);
-        } else {
-            booking.setStatus(BookingState.REJECTED);
+        BookingState newStatus = approved ? BookingState.APPROVED : BookingState.REJECTED;
+        transactionTemplate.executeWithoutResult(status -> {
+            // Статус мог измениться после чтения (например, бронирование просрочено), поэтому обновление условное
+            if (bookingStorage.updateWaitingStatus(List.of(bookingId), newStatus) == 0) {
+                throw new ConditionsNotMetException("Подтверждение бронирования может осуществляться только если статус равен WAITING");
+            }
+            booking.setStatus(newStatus);
+            bookingOutbox.record(approved ? BookingEventType.APPROVED : BookingEventType.REJECTED, booking.getId(),
+                    booking.getItem().getId(), userId, booking.getUser().getId());
+            if (approved) {
+                itemCardMaintainer.onBookingApproved(booking.getItem().getId());
+            }
+        });
+        bookingSummaryCache.invalidate(userId);
+        if (!approved) {
+            bookingIntervalIndex.remove(booking.getItem().getId(), booking.getId(), booking.getStart());
         }
+        return BookingDtoMapper.mapToResponseDto(booking);
+    }
+
+    @Override
+    public List<BookingStatusResultDto> updateStatesByOwner(long userId, List<Long> bookingIds, boolean approved) {
+        log.info("Запрос на пакетное подтверждение бронирований: id пользователя - {}, id бронирований - {}, approved - {}", userId, bookingIds, approved);
+        BookingState newStatus = approved ? BookingState.APPROVED : BookingState.REJECTED;
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+
+        return transactionTemplate.execute(status -> {
+            Map<Long, BookingOwnerView> views = bookingStorage.findAllOwnerViewsByIdIn(ids).stream()
+                    .collect(Collectors.toMap(BookingOwnerView::getBookingId, Function.identity()));
+
+            Map<Long, BookingStatusResultDto> results = new LinkedHashMap<>();
+            List<Long> eligibleIds = new ArrayList<>();
+            Set<Long> approvedItemIds = new TreeSet<>();
+            for (Long id : ids) {
+                BookingOwnerView view = views.get(id);
+                BookingStatusResultDto result = BookingStatusResultDto.builder().bookingId(id).build();
+                results.put(id, result);
+                if (view == null) {
+                    result.setError("Аренда с id " + id + " не найдена");
+                } else if (view.getOwnerId() != userId) {
+                    result.setError("Пользователь с id " + userId + " не является владельцем вещи с id " + view.getItemId());
+                } else if (view.getStatus() != BookingState.WAITING) {
+                    result.setStatus(view.getStatus());
+                    result.setError("Подтверждение бронирования может осуществляться только если статус равен WAITING");
+                } else {
+                    eligibleIds.add(id);
+                }
+            }
+            if (eligibleIds.isEmpty()) {
+                return List.copyOf(results.values());
+            }
+
+            int updated = bookingStorage.updateWaitingStatus(eligibleIds, newStatus);
+            bookingSummaryCache.invalidate(userId);
+            if (updated != eligibleIds.size()) {
+                // Часть бронирований изменили параллельно, их итоговый статус перечитывается
+                bookingStorage.findAllOwnerViewsByIdIn(eligibleIds)
+                        .forEach(view -> views.put(view.getBookingId(), view));
+            }
+            for (Long id : eligibleIds) {
+                BookingOwnerView view = views.get(id);
+                BookingStatusResultDto result = results.get(id);
+                if (updated != eligibleIds.size() && view.getStatus() != newStatus) {
+                    result.setStatus(view.getStatus());
+                    result.setError("Подтверждение бронирования может осуществляться только если статус равен WAITING");
+                    continue;
+                }
+                result.setStatus(newStatus);
+                bookingOutbox.record(approved ? BookingEventType.APPROVED : BookingEventType.REJECTED, id,
+                        view.getItemId(), userId, view.getBookerId());
+                if (approved) {
+                    approvedItemIds.add(view.getItemId());
+                } else {
+                    bookingIntervalIndex.remove(view.getItemId(), view.getBookingId(), view.getStart());
+                }
+            }
+            approvedItemIds.forEach(itemCardMaintainer::onBookingApproved);
+            return List.copyOf(results.values());
+        });
+    }
+
+    private BookingResponseDto reserve(UserDto booker, BookingCreateDto createDto) {
+        Item item = itemStorage.findByIdForUpdate(createDto.getItemId()).orElseThrow(() -> new NotFoundException("Вещь с id " + createDto.getItemId() + " не найдена"));
+        checkItemBookable(booker, item);
+        if (hasTimeConflict(item.getId(), createDto.getStart(), createDto.getEnd())) {
+            throw new ConditionsNotMetException("Бронирование не должно пересекаться с существующими бронированиями");
+        }
+        Booking booking = BookingDtoMapper.mapCreateDtoToModel(createDto);
+
+        booking.setUser(UserDtoMapper.mapToModel(booker));
+        booking.setItem(item);
+        booking.setStatus(BookingState.WAITING);
 
         bookingStorage.save(booking);
+        bookingIntervalIndex.add(new BookingInterval(booking.getId(), item.getId(), booking.getStart(), booking.getEnd()));
+        bookingOutbox.record(BookingEventType.CREATED, booking.getId(), item.getId(), item.getUser().getId(), booker.getId());
+        bookingSummaryCache.invalidate(item.getUser().getId());
         return BookingDtoMapper.mapToResponseDto(booking);
     }
 
+    private List<BookingBatchResultDto> reserveBatch(UserDto booker, Set<Long> itemIds, List<BookingCreateDto> createDtos) {
+        Map<Long, Item> items = new HashMap<>();
+        Map<Long, IntervalTree> intervalsByItem = new HashMap<>();
+        if (!itemIds.isEmpty()) {
+            itemStorage.findAllByIdInForUpdate(itemIds).forEach(item -> items.put(item.getId(), item));
+            for (BookingInterval interval : bookingStorage.findAllActiveIntervalsByItemIds(itemIds)) {
+                intervalsByItem.computeIfAbsent(interval.getItemId(), id -> new IntervalTree())
+                        .insert(interval.getBookingId(), interval.getStart(), interval.getEnd());
+            }
+        }
+
+        List<BookingBatchResultDto> results = new ArrayList<>(createDtos.size());
+        List<Booking> accepted = new ArrayList<>();
+        List<BookingBatchResultDto> acceptedResults = new ArrayList<>();
+        for (int i = 0; i < createDtos.size(); i++) {
+            BookingCreateDto createDto = createDtos.get(i);
+            BookingBatchResultDto result = BookingBatchResultDto.builder().index(i).build();
+            results.add(result);
+            try {
+                Item item = checkBatchEntry(booker, createDto, items, intervalsByItem);
+                // Отрицательный id занимает интервал до вставки, чтобы следующие записи пакета видели конфликт
+                intervalsByItem.computeIfAbsent(item.getId(), id -> new IntervalTree())
+                        .insert(-(i + 1), createDto.getStart(), createDto.getEnd());
+
+                Booking booking = BookingDtoMapper.mapCreateDtoToModel(createDto);
+                booking.setId(null);
+                booking.setUser(UserDtoMapper.mapToModel(booker));
+                booking.setItem(item);
+                booking.setStatus(BookingState.WAITING);
+                accepted.add(booking);
+                acceptedResults.add(result);
+            } catch (ConditionsNotMetException | NotFoundException e) {
+                result.setError(e.getMessage());
+            }
+        }
+
+        insertAccepted(booker, accepted, acceptedResults);
+        log.info("Пакетное создание бронирований: создано {} из {}", accepted.size(), createDtos.size());
+        return results;
+    }
+
+    private List<BookingBatchResultDto> reserveSeries(UserDto booker, long itemId, List<BookingInterval> occurrences) {
+        Item item = itemStorage.findByIdForUpdate(itemId).orElseThrow(() -> new NotFoundException("Вещь с id " + itemId + " не найдена"));
+        checkItemBookable(booker, item);
+        List<BookingInterval> existing = bookingStorage.findAllActiveIntervalsInRange(itemId,
+                occurrences.getFirst().getStart(), occurrences.getLast().getEnd());
+        BitSet conflicts = IntervalMerge.findConflicts(existing, occurrences);
+
+        List<BookingBatchResultDto> results = new ArrayList<>(occurrences.size());
+        List<Booking> accepted = new ArrayList<>();
+        List<BookingBatchResultDto> acceptedResults = new ArrayList<>();
+        for (int i = 0; i < occurrences.size(); i++) {
+            BookingBatchResultDto result = BookingBatchResultDto.builder().index(i).build();
+            results.add(result);
+            if (conflicts.get(i)) {
+                result.setError("Бронирование не должно пересекаться с существующими бронированиями");
+                continue;
+            }
+            BookingInterval occurrence = occurrences.get(i);
+            accepted.add(Booking.builder()
+                    .start(occurrence.getStart())
+                    .end(occurrence.getEnd())
+                    .user(UserDtoMapper.mapToModel(booker))
+                    .item(item)
+                    .status(BookingState.WAITING)
+                    .build());
+            acceptedResults.add(result);
+        }
+
+        insertAccepted(booker, accepted, acceptedResults);
+        log.info("Создание серии бронирований вещи с id {}: создано {} из {}", itemId, accepted.size(), occurrences.size());
+        return results;
+    }
+
+    private List<BookingInterval> expandSeries(BookingSeriesCreateDto seriesDto) {
+        LocalDateTime start = seriesDto.getStart();
+        LocalDateTime end = seriesDto.getEnd();
+        if (start == null || end == null || !end.isAfter(start)) {
+            throw new ConditionsNotMetException("Дата окончания бронирования должна быть позже даты начала");
+        }
+        if (seriesDto.getFrequency() == null) {
+            throw new ConditionsNotMetException("Периодичность серии должна быть заполнена");
+        }
+        if (seriesDto.getUntil() == null && seriesDto.getCount() == null) {
+            throw new ConditionsNotMetException("Для серии нужно указать дату окончания или количество повторений");
+        }
+        int interval = seriesDto.getInterval() == null ? 1 : seriesDto.getInterval();
+        if (interval <= 0 || (seriesDto.getCount() != null && seriesDto.getCount() <= 0)) {
+            throw new ConditionsNotMetException("Интервал и количество повторений серии должны быть больше 0");
+        }
+        Duration duration = Duration.between(start, end);
+        if (!seriesDto.getFrequency().next(start, interval).isAfter(end)) {
+            throw new ConditionsNotMetException("Бронирования серии не должны пересекаться между собой");
+        }
+
+        int limit = seriesDto.getCount() == null ? MAX_SERIES_OCCURRENCES + 1 : seriesDto.getCount();
+        List<BookingInterval> occurrences = new ArrayList<>();
+        for (LocalDateTime occurrence = start;
+             occurrences.size() < limit && (seriesDto.getUntil() == null || !occurrence.isAfter(seriesDto.getUntil()));
+             occurrence = seriesDto.getFrequency().next(occurrence, interval)) {
+            occurrences.add(new BookingInterval(null, seriesDto.getItemId(), occurrence, occurrence.plus(duration)));
+        }
+        if (occurrences.size() > MAX_SERIES_OCCURRENCES) {
+            throw new ConditionsNotMetException("Серия не может содержать больше " + MAX_SERIES_OCCURRENCES + " бронирований");
+        }
+        if (occurrences.isEmpty()) {
+            throw new ConditionsNotMetException("Дата окончания серии не может быть раньше начала первого бронирования");
+        }
+        return occurrences;
+    }
+
+    private void insertAccepted(UserDto booker, List<Booking> accepted, List<BookingBatchResultDto> acceptedResults) {
+        bookingStorage.insertAll(accepted);
+        LocalDateTime created = LocalDateTime.now();
+        bookingOutbox.recordAll(accepted.stream()
+                .map(booking -> BookingOutbox.buildEvent(BookingEventType.CREATED, booking.getId(), booking.getItem().getId(),
+                        booking.getItem().getUser().getId(), booker.getId(), created))
+                .toList());
+        for (int i = 0; i < accepted.size(); i++) {
+            Booking booking = accepted.get(i);
+            bookingIntervalIndex.add(new BookingInterval(booking.getId(), booking.getItem().getId(), booking.getStart(), booking.getEnd()));
+            acceptedResults.get(i).setBooking(BookingDtoMapper.mapToResponseDto(booking));
+        }
+        accepted.stream()
+                .map(booking -> booking.getItem().getUser().getId())
+                .distinct()
+                .forEach(bookingSummaryCache::invalidate);
+    }
+
+    private Item checkBatchEntry(UserDto booker, BookingCreateDto createDto, Map<Long, Item> items,
+                                 Map<Long, IntervalTree> intervalsByItem) {
+        if (createDto.getStart() == null || createDto.getEnd() == null || !createDto.getEnd().isAfter(createDto.getStart())) {
+            throw new ConditionsNotMetException("Дата окончания бронирования должна быть позже даты начала");
+        }
+        Item item = items.get(createDto.getItemId());
+        if (item == null) {
+            throw new NotFoundException("Вещь с id " + createDto.getItemId() + " не найдена");
+        }
+        checkItemBookable(booker, item);
+        IntervalTree intervals = intervalsByItem.get(item.getId());
+        if (intervals != null && intervals.overlaps(createDto.getStart(), createDto.getEnd())) {
+            throw new ConditionsNotMetException("Бронирование не должно пересекаться с существующими бронированиями");
+        }
+        return item;
+    }
+
+    private void checkItemBookable(UserDto booker, Item item) {
+        if (!item.getAvailable() || booker.getId().equals(item.getUser().getId())) {
+            throw new ConditionsNotMetException("Вещь с id " + item.getId() + " не доступна для аренды");
+        }
+    }
+
+    private boolean hasTimeConflict(long itemId, LocalDateTime start, LocalDateTime end) {
+        // Индекс лишь ускоряет отказ, отсутствие пересечения подтверждает БД
+        return bookingIntervalIndex.hasKnownConflict(itemId, start, end) || bookingStorage.hasTimeConflict(itemId, start, end);
+    }
+
+    private BookingQuery buildQuery(BookingQuery.Role role, long userId, BookingStateQueryParam state,
+                                    String cursor, Integer size) {
+        if (size != null && (size <= 0 || size > MAX_PAGE_SIZE)) {
+            throw new ConditionsNotMetException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        BookingCursor after = BookingCursor.decode(cursor);
+        return BookingQuery.builder()
+                .role(role)
+                .userId(userId)
+                .state(state)
+                .now(LocalDateTime.now())
+                .afterStart(after == null ? null : after.getStart())
+                .afterId(after == null ? null : after.getId())
+                .limit(size)
+                .build();
+    }
+
     private void userNotExistsThrowNotFound(long id) {
         if (!userStorage.existsById(id)) {
             throw new NotFoundException("Пользователь с id " + id + " не найден");
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Кэш сводки бронирований владельца с коротким временем жизни. Время жизни ограничивает и
+ * устаревание счётчиков CURRENT/PAST/FUTURE, которые меняются с течением времени без записи в БД.
+ * Число владельцев в кэше ограничено, при переполнении вытесняется давно не читавшийся.
+ * Каждый владелец относится к одной из полос с номером версии: изменение бронирований увеличивает версию
+ * полосы, и сводка, загрузка которой началась до этого, в кэш уже не попадёт.
+ */
+@Component
+public class BookingSummaryCache {
+    private static final int VERSION_STRIPES = 1024;
+
+    private final long ttlNanos;
+    private final Map<Long, Entry> entries;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public BookingSummaryCache(@Value("${shareit.booking.summary-ttl:30s}") Duration ttl,
+                               @Value("${shareit.booking.summary-max-entries:10000}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public BookingSummaryDto get(long ownerId, Supplier<BookingSummaryDto> loader) {
+        long now = System.nanoTime();
+        long version = versions.get(stripe(ownerId));
+        synchronized (entries) {
+            Entry entry = entries.get(ownerId);
+            if (entry != null && entry.version() == version && now - entry.loadedAt() < ttlNanos) {
+                return entry.summary();
+            }
+            if (entry != null) {
+                entries.remove(ownerId);
+            }
+        }
+        BookingSummaryDto summary = loader.get();
+        if (ttlNanos > 0) {
+            synchronized (entries) {
+                if (versions.get(stripe(ownerId)) == version) {
+                    entries.put(ownerId, new Entry(summary, now, version));
+                }
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Делает сводку владельца недействительной. Внутри транзакции версия увеличивается ещё раз после
+     * фиксации, чтобы не осталась сводка, прочитанная до неё.
+     */
+    public void invalidate(long ownerId) {
+        bump(ownerId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(ownerId);
+                }
+            });
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void bump(long ownerId) {
+        synchronized (entries) {
+            versions.incrementAndGet(stripe(ownerId));
+            entries.remove(ownerId);
+        }
+    }
+
+    private static int stripe(long ownerId) {
+        return Math.floorMod(Long.hashCode(ownerId) * 0x9E3779B9, VERSION_STRIPES);
+    }
+
+    private record Entry(BookingSummaryDto summary, long loadedAt, long version) {
+    }
+}
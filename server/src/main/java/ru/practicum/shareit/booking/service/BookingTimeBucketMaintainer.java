@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Переносит бронирования между временными корзинами FUTURE -> CURRENT -> PAST по мере течения времени.
+ * Запросы списков дополнительно проверяют даты, поэтому отставание переноса не влияет на результат.
+ * Перенос идёт порциями по batch-size строк, каждая порция - в своей транзакции.
+ */
+@Slf4j
+@Component
+public class BookingTimeBucketMaintainer {
+    private final BookingStorage bookingStorage;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public BookingTimeBucketMaintainer(BookingStorage bookingStorage,
+                                       TransactionTemplate transactionTemplate,
+                                       @Value("${shareit.booking.time-bucket.batch-size:1000}") int batchSize,
+                                       @Value("${shareit.booking.time-bucket.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.bookingStorage = bookingStorage;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        LocalDateTime now = LocalDateTime.now();
+        int assigned = inBatches(bookingStorage::findIdsWithoutTimeBucket,
+                bookingStorage::assignMissingTimeBuckets, now, Integer.MAX_VALUE);
+        if (assigned > 0) {
+            log.info("Назначены временные корзины для {} бронирований", assigned);
+        }
+        advance();
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.time-bucket.refresh-interval:60000}")
+    public void advanceScheduled() {
+        advance();
+    }
+
+    public int advance() {
+        LocalDateTime now = LocalDateTime.now();
+        int moved = inBatches(limit -> bookingStorage.findIdsToMoveToPastBucket(now, limit),
+                bookingStorage::moveToPastBucket, now, maxBatchesPerRun)
+                + inBatches(limit -> bookingStorage.findIdsToMoveToCurrentBucket(now, limit),
+                bookingStorage::moveToCurrentBucket, now, maxBatchesPerRun);
+        if (moved > 0) {
+            log.info("Перенесено бронирований между временными корзинами: {}", moved);
+        }
+        return moved;
+    }
+
+    private int inBatches(Function<Limit, List<Long>> findIds,
+                          BiFunction<List<Long>, LocalDateTime, Integer> update,
+                          LocalDateTime now,
+                          int maxBatches) {
+        int total = 0;
+        int batches = 0;
+        BatchResult result;
+        do {
+            result = transactionTemplate.execute(status -> {
+                List<Long> ids = findIds.apply(Limit.of(batchSize));
+                return new BatchResult(ids.size(), ids.isEmpty() ? 0 : update.apply(ids, now));
+            });
+            total += result.moved();
+            batches++;
+        } while (result.found() == batchSize && batches < maxBatches);
+        return total;
+    }
+
+    private record BatchResult(int found, int moved) {
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Фиксированный набор блокировок, разделённых по id вещи: бронирования одной вещи
+ * выполняются последовательно, разных вещей — параллельно (с точностью до коллизий полос).
+ */
+@Component
+public class ItemLockStripes {
+    private final Lock[] stripes;
+
+    public ItemLockStripes(@Value("${shareit.booking.lock-stripes:64}") int stripeCount) {
+        stripes = new Lock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock forItem(long itemId) {
+        return stripes[stripeIndex(itemId)];
+    }
+
+    /**
+     * Блокировки для набора вещей без повторов и в порядке номеров полос,
+     * чтобы параллельные пакетные запросы не взаимоблокировались.
+     */
+    public List<Lock> forItems(Collection<Long> itemIds) {
+        return itemIds.stream()
+                .map(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .map(index -> stripes[index])
+                .toList();
+    }
+
+    private int stripeIndex(long itemId) {
+        return Math.floorMod(Long.hashCode(itemId), stripes.length);
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.storage;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+public interface BookingBatchStorage {
+    void insertAll(List<Booking> bookings);
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingTimeBucket;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class BookingBatchStorageImpl implements BookingBatchStorage {
+    private static final String INSERT_SQL = "insert into bookings (start_date, end_date, state, time_bucket, user_id, item_id) " +
+            "values (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Booking booking = bookings.get(i);
+                        ps.setTimestamp(1, Timestamp.valueOf(booking.getStart()));
+                        ps.setTimestamp(2, Timestamp.valueOf(booking.getEnd()));
+                        ps.setString(3, booking.getStatus().name());
+                        if (booking.getTimeBucket() == null) {
+                            booking.setTimeBucket(BookingTimeBucket.of(booking.getStart(), booking.getEnd(), now));
+                        }
+                        ps.setString(4, booking.getTimeBucket().name());
+                        ps.setLong(5, booking.getUser().getId());
+                        ps.setLong(6, booking.getItem().getId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return bookings.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < bookings.size(); i++) {
+            bookings.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+}
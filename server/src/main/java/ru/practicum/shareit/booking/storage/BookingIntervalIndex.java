@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс активных (APPROVED и WAITING) бронирований по вещам. Найденное индексом пересечение позволяет
+ * отказать без обращения к БД; отсутствие пересечения всегда подтверждается запросом
+ * {@link BookingStorage#hasTimeConflict}, который остаётся источником истины, поэтому бронирования,
+ * не попавшие в индекс, не приводят к двойному бронированию.
+ * Изменения внутри транзакции применяются только после её фиксации.
+ * Индекс видит только изменения этого экземпляра сервера, поэтому включается
+ * свойством {@code shareit.booking.interval-index.enabled} лишь при единственном экземпляре.
+ * Выключенный индекс ничего не хранит, и каждая проверка пересечения идёт в БД.
+ */
+@Slf4j
+@Component
+public class BookingIntervalIndex {
+    private final BookingStorage bookingStorage;
+    private final boolean enabled;
+    private final Map<Long, IntervalTree> trees = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public BookingIntervalIndex(BookingStorage bookingStorage,
+                                @Value("${shareit.booking.interval-index.enabled:false}") boolean enabled) {
+        this.bookingStorage = bookingStorage;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            log.info("Индекс бронирований отключён, пересечения проверяются запросами к БД");
+            return;
+        }
+        List<BookingInterval> intervals = bookingStorage.findAllActiveIntervals();
+        intervals.forEach(this::insert);
+        ready = true;
+        log.info("Индекс бронирований загружен: {} интервалов для {} вещей", intervals.size(), trees.size());
+    }
+
+    /**
+     * Возвращает true, только если пересечение с известным индексу бронированием точно есть.
+     */
+    public boolean hasKnownConflict(long itemId, LocalDateTime start, LocalDateTime end) {
+        if (!ready || start == null || end == null) {
+            return false;
+        }
+        IntervalTree tree = trees.get(itemId);
+        if (tree == null) {
+            return false;
+        }
+        synchronized (tree) {
+            return tree.overlaps(start, end);
+        }
+    }
+
+    public void add(BookingInterval interval) {
+        if (enabled) {
+            afterCommit(() -> insert(interval));
+        }
+    }
+
+    public void remove(long itemId, long bookingId, LocalDateTime start) {
+        if (enabled) {
+            afterCommit(() -> delete(itemId, bookingId, start));
+        }
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private void insert(BookingInterval interval) {
+        IntervalTree tree = trees.computeIfAbsent(interval.getItemId(), id -> new IntervalTree());
+        synchronized (tree) {
+            tree.insert(interval.getBookingId(), interval.getStart(), interval.getEnd());
+        }
+    }
+
+    private void delete(long itemId, long bookingId, LocalDateTime start) {
+        IntervalTree tree = trees.get(itemId);
+        if (tree == null) {
+            return;
+        }
+        synchronized (tree) {
+            tree.remove(bookingId, start);
+        }
+    }
+}
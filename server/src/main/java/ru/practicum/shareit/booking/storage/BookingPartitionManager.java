@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking.storage;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Обслуживает помесячные секции таблицы BOOKINGS (PostgreSQL, секционирование по END_DATE):
+ * создаёт секции на несколько месяцев вперёд, переносит строки из секции по умолчанию
+ * в помесячные и, если задан срок хранения, отсоединяет старые секции, оставляя их архивными таблицами.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.partitions.enabled", havingValue = "true")
+public class BookingPartitionManager {
+    private static final String PARENT_TABLE = "bookings";
+    private static final String DEFAULT_PARTITION = "bookings_default";
+    private static final String PARTITION_PREFIX = "bookings_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public BookingPartitionManager(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${shareit.booking.partitions.months-ahead:3}") int monthsAhead,
+                                   @Value("${shareit.booking.partitions.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @PostConstruct
+    public void init() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${shareit.booking.partitions.cron:0 0 3 * * *}")
+    public void maintainScheduled() {
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось обслужить секции бронирований: {}", e.getMessage());
+        }
+    }
+
+    public void maintain() {
+        if (!isPartitioned()) {
+            log.warn("Таблица {} не секционирована, обслуживание секций пропущено", PARENT_TABLE);
+            return;
+        }
+        jdbcTemplate.execute("create table if not exists " + DEFAULT_PARTITION + " partition of " + PARENT_TABLE + " default");
+
+        Set<String> partitions = new HashSet<>(findPartitions());
+        YearMonth current = YearMonth.now();
+        Set<YearMonth> required = new TreeSet<>(findMonthsInDefaultPartition());
+        for (int i = 0; i <= monthsAhead; i++) {
+            required.add(current.plusMonths(i));
+        }
+        for (YearMonth month : required) {
+            if (!partitions.contains(partitionName(month))) {
+                createPartition(month);
+            }
+        }
+
+        if (retentionMonths > 0) {
+            YearMonth oldestKept = current.minusMonths(retentionMonths);
+            for (String partition : partitions) {
+                YearMonth month = parseMonth(partition);
+                if (month != null && month.isBefore(oldestKept)) {
+                    jdbcTemplate.execute("alter table " + PARENT_TABLE + " detach partition " + partition);
+                    log.info("Секция {} отсоединена и оставлена архивной таблицей", partition);
+                }
+            }
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("create table " + name + " (like " + PARENT_TABLE + " including defaults)");
+            int moved = jdbcTemplate.update("with moved as (" +
+                            "delete from " + DEFAULT_PARTITION + " where end_date >= ? and end_date < ? returning *" +
+                            ") insert into " + name + " select * from moved",
+                    Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.atStartOfDay()));
+            jdbcTemplate.execute("alter table " + PARENT_TABLE + " attach partition " + name +
+                    " for values from ('" + from + "') to ('" + to + "')");
+            log.info("Создана секция {}, перенесено строк из секции по умолчанию: {}", name, moved);
+        });
+    }
+
+    private boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject("select count(*) " +
+                "from pg_partitioned_table as pt " +
+                "join pg_class as c on c.oid = pt.partrelid " +
+                "where c.relname = ?", Integer.class, PARENT_TABLE);
+        return count != null && count > 0;
+    }
+
+    private List<String> findPartitions() {
+        return jdbcTemplate.queryForList("select c.relname " +
+                "from pg_inherits as i " +
+                "join pg_class as c on c.oid = i.inhrelid " +
+                "join pg_class as p on p.oid = i.inhparent " +
+                "where p.relname = ?", String.class, PARENT_TABLE);
+    }
+
+    private List<YearMonth> findMonthsInDefaultPartition() {
+        return jdbcTemplate.queryForList("select distinct cast(date_trunc('month', end_date) as date) " +
+                        "from " + DEFAULT_PARTITION, java.sql.Date.class).stream()
+                .map(date -> YearMonth.from(date.toLocalDate()))
+                .toList();
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private static YearMonth parseMonth(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+    }
+}
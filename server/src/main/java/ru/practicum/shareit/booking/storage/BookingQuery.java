@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.dto.BookingStateQueryParam;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class BookingQuery {
+    private Role role;
+    private long userId;
+    private BookingStateQueryParam state;
+    private LocalDateTime now;
+    private LocalDateTime afterStart;
+    private Long afterId;
+    private Integer limit;
+
+    public enum Role {
+        BOOKER,
+        OWNER
+    }
+}
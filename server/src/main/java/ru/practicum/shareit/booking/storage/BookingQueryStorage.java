@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.storage;
+
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface BookingQueryStorage {
+    List<BookingResponseDto> findByQuery(BookingQuery query);
+
+    /**
+     * Возвращает бронирования через однонаправленный курсор, читая из базы по {@code fetchSize} строк.
+     * Поток нужно закрыть, а читать его - внутри транзакции.
+     */
+    Stream<BookingResponseDto> streamByQuery(BookingQuery query, int fetchSize);
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking.storage;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingTimeBucket;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class BookingQueryStorageImpl implements BookingQueryStorage {
+    private final EntityManager entityManager;
+
+    @Override
+    public List<BookingResponseDto> findByQuery(BookingQuery query) {
+        return createQuery(query).getResultList().stream()
+                .map(this::mapToResponseDto)
+                .toList();
+    }
+
+    @Override
+    public Stream<BookingResponseDto> streamByQuery(BookingQuery query, int fetchSize) {
+        return createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(this::mapToResponseDto);
+    }
+
+    private TypedQuery<Tuple> createQuery(BookingQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteria = cb.createTupleQuery();
+        Root<Booking> booking = criteria.from(Booking.class);
+        Join<Booking, User> booker = booking.join("user");
+        Join<Booking, Item> item = booking.join("item");
+
+        Path<Long> id = booking.get("id");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<BookingState> status = booking.get("status");
+        Path<BookingTimeBucket> timeBucket = booking.get("timeBucket");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.getRole() == BookingQuery.Role.OWNER) {
+            predicates.add(cb.equal(item.get("user").get("id"), query.getUserId()));
+        } else {
+            predicates.add(cb.equal(booker.get("id"), query.getUserId()));
+        }
+
+        LocalDateTime now = query.getNow();
+        switch (query.getState()) {
+            case CURRENT -> {
+                predicates.add(timeBucket.in(BookingTimeBucket.FUTURE, BookingTimeBucket.CURRENT));
+                predicates.add(cb.lessThanOrEqualTo(start, now));
+                predicates.add(cb.greaterThanOrEqualTo(end, now));
+            }
+            case PAST -> predicates.add(cb.or(
+                    cb.equal(timeBucket, BookingTimeBucket.PAST),
+                    cb.and(timeBucket.in(BookingTimeBucket.FUTURE, BookingTimeBucket.CURRENT), cb.lessThan(end, now))
+            ));
+            case FUTURE -> {
+                predicates.add(cb.equal(timeBucket, BookingTimeBucket.FUTURE));
+                predicates.add(cb.greaterThan(start, now));
+                predicates.add(cb.greaterThan(end, now));
+            }
+            case WAITING -> predicates.add(cb.equal(status, BookingState.WAITING));
+            case REJECTED -> predicates.add(cb.equal(status, BookingState.REJECTED));
+            default -> {
+            }
+        }
+
+        if (query.getAfterStart() != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(start, query.getAfterStart()),
+                    cb.and(cb.equal(start, query.getAfterStart()), cb.lessThan(id, query.getAfterId()))
+            ));
+        }
+
+        criteria.multiselect(
+                        id, start, end, status,
+                        booker.get("id"), booker.get("name"), booker.get("email"),
+                        item.get("id"), item.get("name"), item.get("description"), item.get("available"))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(criteria);
+        if (query.getLimit() != null) {
+            typedQuery.setMaxResults(query.getLimit());
+        }
+        return typedQuery;
+    }
+
+    private BookingResponseDto mapToResponseDto(Tuple tuple) {
+        return BookingResponseDto.builder()
+                .id(tuple.get(0, Long.class))
+                .start(tuple.get(1, LocalDateTime.class))
+                .end(tuple.get(2, LocalDateTime.class))
+                .status(tuple.get(3, BookingState.class))
+                .booker(UserDto.builder()
+                        .id(tuple.get(4, Long.class))
+                        .name(tuple.get(5, String.class))
+                        .email(tuple.get(6, String.class))
+                        .build())
+                .item(ItemDto.builder()
+                        .id(tuple.get(7, Long.class))
+                        .name(tuple.get(8, String.class))
+                        .description(tuple.get(9, String.class))
+                        .available(tuple.get(10, Boolean.class))
+                        .build())
+                .build();
+    }
+}
@@ -1,16 +1,22 @@
 package ru.practicum.shareit.booking.storage;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.dto.BookingOwnerView;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.booking.model.BookingState;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingStorage extends JpaRepository<Booking, Long> {
+public interface BookingStorage extends JpaRepository<Booking, Long>, BookingQueryStorage, BookingBatchStorage {
     @Query("select b " +
             "from Booking as b " +
             "join fetch b.user " +
@@ -27,150 +33,154 @@ public interface BookingStorage extends JpaRepository<Booking, Long> {
             "and b.end < current_timestamp")
     boolean existsApprovedPastBooking(@Param("itemId") long itemId, @Param("userId") long userId);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.item.id, b.start, b.end) " +
             "from Booking as b " +
-            "join fetch b.user " +
-            "join fetch b.item " +
-            "where b.user.id = :id " +
-            "order by b.start desc")
-    List<Booking> findAllByUserIdOrderByStartDesc(@Param("id") long id);
+            "where b.item.id = :itemId " +
+            "and b.status = 'APPROVED' " +
+            "and b.end < :now " +
+            "order by b.end desc")
+    List<BookingInterval> findApprovedEndedBefore(@Param("itemId") long itemId,
+                                                  @Param("now") LocalDateTime now,
+                                                  Limit limit);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.item.id, b.start, b.end) " +
             "from Booking as b " +
-            "join fetch b.user " +
-            "join fetch b.item " +
-            "where b.user.id = :id " +
-            "and b.start <= current_timestamp " +
-            "and b.end >= current_timestamp " +
-            "order by b.start desc")
-    List<Booking> findCurrentByUserIdOrderByStartDesc(@Param("id") long id);
+            "where b.item.id = :itemId " +
+            "and b.status = 'APPROVED' " +
+            "and b.end >= :now " +
+            "order by b.start")
+    List<BookingInterval> findApprovedNotEndedAt(@Param("itemId") long itemId,
+                                                 @Param("now") LocalDateTime now,
+                                                 Limit limit);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.item.id, b.start, b.end) " +
             "from Booking as b " +
-            "join fetch b.user " +
-            "join fetch b.item " +
-            "where b.user.id = :id " +
-            "and b.end < current_timestamp " +
-            "order by b.start desc")
-    List<Booking> findPastByUserIdOrderByStartDesc(@Param("id") long id);
+            "where b.item.id in :itemIds " +
+            "and b.status = 'APPROVED' " +
+            "and b.end = (" +
+            "   select max(l.end) from Booking as l " +
+            "   where l.item.id = b.item.id and l.status = 'APPROVED' and l.end < :now" +
+            ")")
+    List<BookingInterval> findLastApprovedEndedBefore(@Param("itemIds") Collection<Long> itemIds,
+                                                      @Param("now") LocalDateTime now);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.item.id, b.start, b.end) " +
             "from Booking as b " +
-            "join fetch b.user " +
-            "join fetch b.item " +
-            "where b.user.id = :id " +
-            "and b.start > current_timestamp " +
-            "order by b.start desc")
-    List<Booking> findFutureByUserIdOrderByStartDesc(@Param("id") long id);
+            "where b.item.id in :itemIds " +
+            "and b.status = 'APPROVED' " +
+            "and b.end >= :now " +
+            "order by b.item.id, b.start")
+    List<BookingInterval> findAllApprovedNotEndedAt(@Param("itemIds") Collection<Long> itemIds,
+                                                    @Param("now") LocalDateTime now);
+
+    /**
+     * Интервалы бронирований полуоткрытые [start, end): бронирование может начаться в момент окончания другого.
+     */
+    @Query("SELECT COUNT(b) > 0 FROM Booking b " +
+            "WHERE b.item.id = :itemId " +
+            "AND b.status IN ('APPROVED', 'WAITING') " +
+            "AND b.end > :start " +
+            "AND b.start < :end")
+    boolean hasTimeConflict(@Param("itemId") Long itemId,
+                            @Param("start") LocalDateTime start,
+                            @Param("end") LocalDateTime end);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.item.id, b.start, b.end) " +
             "from Booking as b " +
-            "join fetch b.user " +
-            "join fetch b.item " +
-            "where b.user.id = :id " +
-            "and b.status = 'WAITING' " +
-            "order by b.start desc")
-    List<Booking> findWaitingByUserIdOrderByStartDesc(@Param("id") long id);
+            "where b.status in ('APPROVED', 'WAITING')")
+    List<BookingInterval> findAllActiveIntervals();
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.item.id, b.start, b.end) " +
             "from Booking as b " +
-            "join fetch b.user " +
-            "join fetch b.item " +
-            "where b.user.id = :id " +
-            "and b.status = 'REJECTED' " +
-            "order by b.start desc")
-    List<Booking> findRejectedByUserIdOrderByStartDesc(@Param("id") long id);
+            "where b.item.id in :itemIds " +
+            "and b.status in ('APPROVED', 'WAITING')")
+    List<BookingInterval> findAllActiveIntervalsByItemIds(@Param("itemIds") Collection<Long> itemIds);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.item.id, b.start, b.end) " +
             "from Booking as b " +
-            "join fetch b.user " +
-            "join fetch b.item as i " +
-            "join fetch i.user " +
-            "where i.user.id = :id " +
-//            "and b.start <= current_timestamp " +
-//            "and b.end >= current_timestamp " +
-            "order by b.start desc")
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(@Param("id") long id);
-
-    @Query("select b " +
+            "where b.item.id = :itemId " +
+            "and b.status in ('APPROVED', 'WAITING') " +
+            "and b.end > :from " +
+            "and b.start < :to " +
+            "order by b.start")
+    List<BookingInterval> findAllActiveIntervalsInRange(@Param("itemId") long itemId,
+                                                        @Param("from") LocalDateTime from,
+                                                        @Param("to") LocalDateTime to);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingOwnerView(b.id, i.id, i.user.id, b.user.id, b.start, b.status) " +
             "from Booking as b " +
-            "join fetch b.user " +
-            "join fetch b.item as i " +
-            "join fetch i.user " +
-            "where i.user.id = :id " +
-            "order by b.start desc")
-    List<Booking> findCurrentByItemOwnerIdOrderByStartDesc(@Param("id") long id);
+            "join b.item as i " +
+            "where b.id in :ids")
+    List<BookingOwnerView> findAllOwnerViewsByIdIn(@Param("ids") Collection<Long> ids);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingOwnerView(b.id, i.id, i.user.id, b.user.id, b.start, b.status) " +
             "from Booking as b " +
-            "join fetch b.user " +
-            "join fetch b.item as i " +
-            "join fetch i.user " +
-            "where i.user.id = :id " +
-            "and b.end < current_timestamp " +
-            "order by b.start desc")
-    List<Booking> findPastByItemOwnerIdOrderByStartDesc(@Param("id") long id);
-
-    @Query("select b " +
+            "join b.item as i " +
+            "where b.status = 'WAITING' " +
+            "and b.start < :now " +
+            "order by b.start")
+    List<BookingOwnerView> findStaleWaitingOwnerViews(@Param("now") LocalDateTime now, Limit limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking as b " +
+            "set b.status = :status " +
+            "where b.id in :ids " +
+            "and b.status = 'WAITING'")
+    int updateWaitingStatus(@Param("ids") Collection<Long> ids, @Param("status") BookingState status);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingSummaryDto(" +
+            "count(b), " +
+            "coalesce(sum(case when b.start <= :now and b.end >= :now then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.end < :now then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.start > :now then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.status = 'WAITING' then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.status = 'REJECTED' then 1 else 0 end), 0)) " +
             "from Booking as b " +
-            "join fetch b.user " +
-            "join fetch b.item as i " +
-            "join fetch i.user " +
-            "where i.user.id = :id " +
-            "and b.start > current_timestamp " +
-            "order by b.start desc")
-    List<Booking> findFutureByItemOwnerIdOrderByStartDesc(@Param("id") long id);
+            "join b.item as i " +
+            "where i.user.id = :ownerId")
+    BookingSummaryDto countByStateForOwner(@Param("ownerId") long ownerId, @Param("now") LocalDateTime now);
 
-    @Query("select b " +
+    @Query("select b.id " +
             "from Booking as b " +
-            "join fetch b.user " +
-            "join fetch b.item as i " +
-            "join fetch i.user " +
-            "where i.user.id = :id " +
-            "and b.status = 'WAITING' " +
-            "order by b.start desc")
-    List<Booking> findWaitingByItemOwnerIdOrderByStartDesc(@Param("id") long id);
-
-    @Query("select b " +
+            "where b.timeBucket in ('FUTURE', 'CURRENT') " +
+            "and b.end < :now")
+    List<Long> findIdsToMoveToPastBucket(@Param("now") LocalDateTime now, Limit limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking as b " +
+            "set b.timeBucket = 'PAST' " +
+            "where b.id in :ids " +
+            "and b.timeBucket in ('FUTURE', 'CURRENT') " +
+            "and b.end < :now")
+    int moveToPastBucket(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Query("select b.id " +
             "from Booking as b " +
-            "join fetch b.user " +
-            "join fetch b.item as i " +
-            "join fetch i.user " +
-            "where i.user.id = :id " +
-            "and b.status = 'REJECTED' " +
-            "order by b.start desc")
-    List<Booking> findRejectedByItemOwnerIdOrderByStartDesc(@Param("id") long id);
-
-    @Query("select new ru.practicum.shareit.item.dto.ItemDto$BookingInfo(" +
-            "b.item.id, b.start, b.end) " +
-            "from Booking b " +
-            "join b.item " +
-            "where b.item.id in :itemIds " +
-            "and b.status = 'APPROVED' " +
-            "and b.end < current_timestamp " +
-            "order by b.end desc " +
-            "limit 1")
-    List<ItemDto.BookingInfo> findAllLastBookingByItemIds(@Param("itemIds") List<Long> itemIds);
-
-    @Query("select new ru.practicum.shareit.item.dto.ItemDto$BookingInfo(" +
-            "b.item.id, b.start, b.end) " +
-            "from Booking b " +
-            "join b.item " +
-            "where b.item.id in :itemIds " +
-            "and b.status = 'APPROVED' " +
-            "and b.start > current_timestamp " +
-            "order by b.start asc " +
-            "limit 1")
-    List<ItemDto.BookingInfo> findAllNextBookingByItemIds(@Param("itemIds") List<Long> itemIds);
-
-    @Query("SELECT COUNT(b) > 0 FROM Booking b " +
-            "WHERE b.item.id = :itemId " +
-            "AND b.status IN ('APPROVED', 'WAITING') " +
-            "AND NOT (" +
-            "   b.end < :start OR " +
-            "   b.start > :end" +
-            ")")
-    boolean hasTimeConflict(@Param("itemId") Long itemId,
-                            @Param("start") LocalDateTime start,
-                            @Param("end") LocalDateTime end);
+            "where b.timeBucket = 'FUTURE' " +
+            "and b.start <= :now")
+    List<Long> findIdsToMoveToCurrentBucket(@Param("now") LocalDateTime now, Limit limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking as b " +
+            "set b.timeBucket = 'CURRENT' " +
+            "where b.id in :ids " +
+            "and b.timeBucket = 'FUTURE' " +
+            "and b.start <= :now")
+    int moveToCurrentBucket(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Query("select b.id " +
+            "from Booking as b " +
+            "where b.timeBucket is null")
+    List<Long> findIdsWithoutTimeBucket(Limit limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking as b " +
+            "set b.timeBucket = case " +
+            "   when b.end < :now then 'PAST' " +
+            "   when b.start > :now then 'FUTURE' " +
+            "   else 'CURRENT' " +
+            "end " +
+            "where b.id in :ids " +
+            "and b.timeBucket is null")
+    int assignMissingTimeBuckets(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.storage;
+
+import ru.practicum.shareit.booking.dto.BookingInterval;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Проверка пересечений двух отсортированных по началу списков интервалов за один проход слиянием.
+ * Интервалы полуоткрытые [start, end), как и в {@link BookingStorage#hasTimeConflict}.
+ */
+public final class IntervalMerge {
+    private IntervalMerge() {
+    }
+
+    /**
+     * Возвращает номера интервалов из {@code candidates}, пересекающихся хотя бы с одним из {@code existing}.
+     * Оба списка должны быть отсортированы по дате начала, а {@code candidates} - не пересекаться между собой.
+     */
+    public static BitSet findConflicts(List<BookingInterval> existing, List<BookingInterval> candidates) {
+        BitSet conflicts = new BitSet(candidates.size());
+        int first = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            BookingInterval candidate = candidates.get(i);
+            // Интервалы, закончившиеся до начала кандидата, не пересекутся и со следующими кандидатами
+            while (first < existing.size() && !existing.get(first).getEnd().isAfter(candidate.getStart())) {
+                first++;
+            }
+            for (int j = first; j < existing.size(); j++) {
+                BookingInterval interval = existing.get(j);
+                if (!interval.getStart().isBefore(candidate.getEnd())) {
+                    break;
+                }
+                if (interval.getEnd().isAfter(candidate.getStart())) {
+                    conflicts.set(i);
+                    break;
+                }
+            }
+        }
+        return conflicts;
+    }
+}
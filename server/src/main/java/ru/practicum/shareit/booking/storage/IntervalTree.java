@@ -0,0 +1,155 @@
+package ru.practicum.shareit.booking.storage;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Дерево интервалов (декартово дерево по ключу start, id), каждый узел которого хранит
+ * максимальную дату окончания в своём поддереве. Проверка пересечения выполняется за O(log n).
+ * Интервалы полуоткрытые [start, end), как и в {@link BookingStorage#hasTimeConflict}: бронирования,
+ * одно из которых заканчивается в момент начала другого, не пересекаются.
+ * Класс не потокобезопасен.
+ */
+public class IntervalTree {
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public void insert(long id, LocalDateTime start, LocalDateTime end) {
+        root = insert(root, new Node(id, start, end, ThreadLocalRandom.current().nextInt()));
+    }
+
+    public boolean remove(long id, LocalDateTime start) {
+        int sizeBefore = size;
+        root = remove(root, id, start);
+        return size < sizeBefore;
+    }
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && node.end.isAfter(start)) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    private Node insert(Node node, Node inserted) {
+        if (node == null) {
+            size++;
+            return inserted;
+        }
+        int cmp = compare(inserted.start, inserted.id, node);
+        if (cmp == 0) {
+            return node;
+        }
+        if (cmp < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node remove(Node node, long id, LocalDateTime start) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp == 0) {
+            size--;
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = remove(node.left, id, start);
+        } else {
+            node.right = remove(node.right, id, start);
+        }
+        node.update();
+        return node;
+    }
+
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    private int compare(LocalDateTime start, long id, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : Long.compare(id, node.id);
+    }
+
+    private static class Node {
+        private final long id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final int priority;
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(long id, LocalDateTime start, LocalDateTime end, int priority) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        void update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -11,23 +15,36 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.item.dto.CommentCursor;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
+import ru.practicum.shareit.item.dto.ItemCursor;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSearchResultDto;
+import ru.practicum.shareit.item.model.ItemCategory;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
+    private static final Duration AVAILABILITY_MAX_AGE = Duration.ofSeconds(30);
+
     private final ItemService itemService;
 
     @GetMapping("/{id}")
     public ItemDto getById(
-            @PathVariable long id
+            @PathVariable long id,
+            @RequestHeader(value = "${shareit.api.auth.userheader}", required = false) Long userId
     ) {
-        return itemService.getById(id);
+        return itemService.getById(id, userId);
     }
 
     @DeleteMapping("/{id}")
@@ -55,17 +72,54 @@ public class ItemController {
     }
 
     @GetMapping
-    public List<ItemDto> getItems(
-            @RequestHeader("${shareit.api.auth.userheader}") long id
+    public ResponseEntity<List<ItemDto>> getItems(
+            @RequestHeader("${shareit.api.auth.userheader}") long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
     ) {
-        return itemService.getItemsByUserId(id);
+        List<ItemDto> items = itemService.getItemsByUserId(id, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (items.size() == size) {
+            response.header(ItemCursor.NEXT_CURSOR_HEADER, ItemCursor.encode(items.getLast()));
+        }
+        return response.body(items);
     }
 
     @GetMapping("/search")
     public List<ItemDto> searchItems(
-            @RequestParam(name = "text", required = false, defaultValue = "") String query
+            @RequestParam(name = "text", required = false, defaultValue = "") String query,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return itemService.searchItems(query, from, size);
+    }
+
+    @GetMapping("/search/faceted")
+    public ItemSearchResultDto searchFaceted(
+            @RequestParam(required = false, defaultValue = "") String text,
+            @RequestParam(name = "category", required = false) Set<ItemCategory> categories,
+            @RequestParam(name = "lat", required = false) Double latitude,
+            @RequestParam(name = "lon", required = false) Double longitude,
+            @RequestParam(name = "radius", required = false) Double radiusKm,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        ItemSearchFilter filter = ItemSearchFilter.builder()
+                .text(text)
+                .categories(categories)
+                .latitude(latitude)
+                .longitude(longitude)
+                .radiusKm(radiusKm)
+                .build();
+        return itemService.searchFaceted(filter, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggest(
+            @RequestParam(required = false, defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") int size
     ) {
-        return itemService.searchItems(query);
+        return itemService.suggest(prefix, size);
     }
 
     @PostMapping("/{id}/comment")
@@ -76,4 +130,35 @@ public class ItemController {
     ) {
         return itemService.createComment(userId, itemId, commentDto);
     }
+
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(
+            @PathVariable(name = "id") long itemId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        List<CommentDto> comments = itemService.getComments(itemId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (comments.size() == size) {
+            response.header(ItemCursor.NEXT_CURSOR_HEADER, CommentCursor.encode(comments.getLast()));
+        }
+        return response.body(comments);
+    }
+
+    /**
+     * Ответ помечается ETag по списку интервалов: повторный запрос с If-None-Match получает 304 без тела.
+     */
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<List<FreeSlotDto>> getAvailability(
+            @PathVariable(name = "id") long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        List<FreeSlotDto> slots = itemService.getAvailability(itemId, from, to);
+        String eTag = DigestUtils.md5DigestAsHex(slots.toString().getBytes(StandardCharsets.UTF_8));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(AVAILABILITY_MAX_AGE).cachePublic())
+                .eTag(eTag)
+                .body(slots);
+    }
 }
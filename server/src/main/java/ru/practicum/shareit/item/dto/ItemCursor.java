@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.exception.ConditionsNotMetException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Data
+@AllArgsConstructor
+public class ItemCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private long id;
+
+    public static ItemCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return new ItemCursor(Long.parseLong(value));
+        } catch (IllegalArgumentException e) {
+            throw new ConditionsNotMetException("Некорректное значение курсора: " + cursor);
+        }
+    }
+
+    public static String encode(ItemDto item) {
+        String value = String.valueOf(item.getId());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
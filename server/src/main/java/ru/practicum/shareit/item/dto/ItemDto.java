@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.dto;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import ru.practicum.shareit.item.model.ItemCategory;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,8 +16,12 @@ public class ItemDto {
     private String description;
     private Boolean available;
     private Long requestId;
+    private ItemCategory category;
+    private Double latitude;
+    private Double longitude;
     private BookingInfo lastBooking;
     private BookingInfo nextBooking;
+    private Long commentCount;
     private List<CommentDto> comments;
 
     @Data
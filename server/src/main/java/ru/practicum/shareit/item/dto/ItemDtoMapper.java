@@ -1,6 +1,10 @@
 package ru.practicum.shareit.item.dto;
 
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemCard;
+import ru.practicum.shareit.item.model.ItemLocation;
+
+import java.util.List;
 
 public class ItemDtoMapper {
     public static ItemDto mapToDto(Item item) {
@@ -9,15 +13,62 @@ public class ItemDtoMapper {
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
+                .category(item.getCategory())
+                .latitude(item.getLocation() == null ? null : item.getLocation().getLatitude())
+                .longitude(item.getLocation() == null ? null : item.getLocation().getLongitude())
+                .build();
+    }
+
+    public static ItemDto mapToDto(ItemCard card, List<CommentDto> comments, boolean withBookings) {
+        ItemLocation location = card.getLocation();
+        ItemDto itemDto = ItemDto.builder()
+                .id(card.getItemId())
+                .name(card.getName())
+                .description(card.getDescription())
+                .available(card.getAvailable())
+                .category(card.getCategory())
+                .latitude(location == null ? null : location.getLatitude())
+                .longitude(location == null ? null : location.getLongitude())
+                .commentCount(card.getCommentCount())
+                .comments(comments)
+                .build();
+        if (withBookings && card.getLastBookingStart() != null) {
+            itemDto.setLastBooking(new ItemDto.BookingInfo(card.getItemId(), card.getLastBookingStart(), card.getLastBookingEnd()));
+        }
+        if (withBookings && card.getNextBookingStart() != null) {
+            itemDto.setNextBooking(new ItemDto.BookingInfo(card.getItemId(), card.getNextBookingStart(), card.getNextBookingEnd()));
+        }
+        return itemDto;
+    }
+
+    public static ItemDto mapToDto(ItemSearchDocument document) {
+        return ItemDto.builder()
+                .id(document.getId())
+                .name(document.getName())
+                .description(document.getDescription())
+                .available(document.getAvailable())
+                .category(document.getCategory())
+                .latitude(document.getLatitude())
+                .longitude(document.getLongitude())
                 .build();
     }
 
+    public static ItemSearchDocument mapToSearchDocument(Item item) {
+        ItemLocation location = item.getLocation();
+        return new ItemSearchDocument(item.getId(), item.getUser().getId(), item.getName(), item.getDescription(),
+                item.getAvailable(), item.getCategory(),
+                location == null ? null : location.getLatitude(), location == null ? null : location.getLongitude());
+    }
+
     public static Item mapToModel(ItemDto itemDto) {
         return Item.builder()
                 .id(itemDto.getId())
                 .name(itemDto.getName())
                 .description(itemDto.getDescription())
                 .available(itemDto.getAvailable())
+                .category(itemDto.getCategory())
+                .location(itemDto.getLatitude() == null || itemDto.getLongitude() == null
+                        ? null : new ItemLocation(itemDto.getLatitude(), itemDto.getLongitude()))
                 .build();
     }
 }
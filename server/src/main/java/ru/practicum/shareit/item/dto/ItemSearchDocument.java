@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.item.model.ItemCategory;
+
+@Data
+@AllArgsConstructor
+public class ItemSearchDocument {
+    private Long id;
+    private Long ownerId;
+    private String name;
+    private String description;
+    private Boolean available;
+    private ItemCategory category;
+    private Double latitude;
+    private Double longitude;
+}
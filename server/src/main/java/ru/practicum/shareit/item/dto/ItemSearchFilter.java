@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.item.model.ItemCategory;
+
+import java.util.Set;
+
+@Data
+@Builder
+public class ItemSearchFilter {
+    /**
+     * Границы фасета расстояния в километрах; счётчики накопительные: «в пределах N км».
+     */
+    public static final int[] DISTANCE_FACETS_KM = {1, 5, 10, 25, 50, 100};
+
+    private String text;
+    private Set<ItemCategory> categories;
+    private Double latitude;
+    private Double longitude;
+    private Double radiusKm;
+
+    public boolean hasPoint() {
+        return latitude != null && longitude != null;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.item.model.ItemCategory;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class ItemSearchResultDto {
+    private List<ItemDto> items;
+    private long total;
+    private Map<ItemCategory, Long> categories;
+    private Map<Integer, Long> distances;
+}
@@ -16,6 +16,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.SQLRestriction;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
@@ -29,6 +30,8 @@ import java.time.LocalDateTime;
 @Builder
 @Entity
 @Table(name = "comments")
+@SQLRestriction("item_id not in (select d.id from items d where d.deleted_at is not null) "
+        + "and user_id not in (select d.id from users d where d.deleted_at is not null)")
 public class Comment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
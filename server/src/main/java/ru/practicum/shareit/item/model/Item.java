@@ -1,7 +1,10 @@
 package ru.practicum.shareit.item.model;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -16,9 +19,14 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.SQLRestriction;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+/**
+ * Удалённая вещь помечается в колонке DELETED_AT и скрывается из запросов,
+ * строка и связанные с ней данные удаляются в фоне.
+ */
 @Getter
 @Setter
 @ToString(exclude = "user")
@@ -28,6 +36,7 @@ import ru.practicum.shareit.user.model.User;
 @Builder
 @Entity
 @Table(name = "items")
+@SQLRestriction("deleted_at is null")
 public class Item {
 
     @Id
@@ -51,4 +60,11 @@ public class Item {
     @JoinColumn(name = "request_id", nullable = true)
     @ManyToOne(fetch = FetchType.LAZY)
     private ItemRequest request;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", length = 20)
+    private ItemCategory category;
+
+    @Embedded
+    private ItemLocation location;
 }
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Карточка вещи: поля вещи, последнее и следующее бронирование и последние комментарии в одной строке.
+ * Бронирования в карточке верны до {@code bookingsValidUntil}, после этого момента их нужно пересчитать.
+ */
+@Getter
+@Setter
+@ToString(exclude = "latestComments")
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "item_cards")
+public class ItemCard {
+    @Id
+    @Column(name = "item_id")
+    @EqualsAndHashCode.Include
+    private Long itemId;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "name", nullable = false, length = 200)
+    private String name;
+
+    @Column(name = "description", nullable = false, length = 300)
+    private String description;
+
+    @Column(name = "available", nullable = false)
+    private Boolean available;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", length = 20)
+    private ItemCategory category;
+
+    @Embedded
+    private ItemLocation location;
+
+    @Column(name = "last_booking_start")
+    private LocalDateTime lastBookingStart;
+
+    @Column(name = "last_booking_end")
+    private LocalDateTime lastBookingEnd;
+
+    @Column(name = "next_booking_start")
+    private LocalDateTime nextBookingStart;
+
+    @Column(name = "next_booking_end")
+    private LocalDateTime nextBookingEnd;
+
+    @Column(name = "bookings_valid_until")
+    private LocalDateTime bookingsValidUntil;
+
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+
+    /**
+     * Последние комментарии в JSON, от новых к старым.
+     */
+    @Column(name = "latest_comments", nullable = false)
+    private String latestComments;
+}
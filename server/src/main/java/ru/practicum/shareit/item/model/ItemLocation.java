@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Координаты вещи в градусах WGS 84.
+ */
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class ItemLocation {
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
+    /**
+     * Расстояние по дуге большого круга (формула гаверсинусов) в километрах.
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double deltaLatitude = Math.toRadians(latitude2 - latitude1);
+        double deltaLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.pow(Math.sin(deltaLatitude / 2), 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.pow(Math.sin(deltaLongitude / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Граница промежуточной величины формулы гаверсинусов: расстояние не больше {@code distanceKm}
+     * тогда и только тогда, когда эта величина не больше результата. Позволяет сравнивать расстояние в SQL без asin.
+     */
+    public static double haversineBound(double distanceKm) {
+        double angle = Math.min(Math.PI, distanceKm / EARTH_RADIUS_KM);
+        return Math.pow(Math.sin(angle / 2), 2);
+    }
+}
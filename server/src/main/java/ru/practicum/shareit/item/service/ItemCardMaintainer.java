@@ -0,0 +1,292 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemCard;
+import ru.practicum.shareit.item.storage.CommentStorage;
+import ru.practicum.shareit.item.storage.ItemCardStorage;
+import ru.practicum.shareit.item.storage.ItemStorage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Поддерживает карточки вещей при изменении вещей, комментариев и бронирований, чтобы чтение вещи
+ * было одной выборкой строки по ключу. Карточка, которой ещё нет, строится при первом чтении.
+ * Последнее и следующее бронирование меняются с течением времени, поэтому карточки с истёкшим
+ * {@code bookingsValidUntil} пересчитываются при чтении и по расписанию.
+ */
+@Slf4j
+@Component
+public class ItemCardMaintainer {
+    private static final int REFRESH_BATCH = 500;
+    private static final TypeReference<List<CommentDto>> COMMENT_LIST = new TypeReference<>() {
+    };
+
+    private final ItemCardStorage itemCardStorage;
+    private final ItemStorage itemStorage;
+    private final CommentStorage commentStorage;
+    private final BookingStorage bookingStorage;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int latestComments;
+
+    public ItemCardMaintainer(ItemCardStorage itemCardStorage,
+                              ItemStorage itemStorage,
+                              CommentStorage commentStorage,
+                              BookingStorage bookingStorage,
+                              TransactionTemplate transactionTemplate,
+                              ObjectProvider<ObjectMapper> objectMapper,
+                              @Value("${shareit.item.card.latest-comments:10}") int latestComments) {
+        this.itemCardStorage = itemCardStorage;
+        this.itemStorage = itemStorage;
+        this.commentStorage = commentStorage;
+        this.bookingStorage = bookingStorage;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper.getIfAvailable(() -> Jackson2ObjectMapperBuilder.json().build());
+        this.latestComments = latestComments;
+    }
+
+    public ItemCard get(long itemId) {
+        Optional<ItemCard> card = itemCardStorage.findById(itemId);
+        if (card.isEmpty()) {
+            return build(itemId);
+        }
+        if (isExpired(card.get(), LocalDateTime.now())) {
+            return Objects.requireNonNullElseGet(refreshBookings(itemId), () -> build(itemId));
+        }
+        return card.get();
+    }
+
+    /**
+     * Возвращает карточки не более {@code limit} вещей владельца с id больше {@code afterId} в порядке id.
+     */
+    public List<ItemCard> getPageByOwner(long ownerId, long afterId, int limit) {
+        List<Long> itemIds = itemStorage.findIdsByUserIdAfter(ownerId, afterId, Limit.of(limit));
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        List<ItemCard> cards = new ArrayList<>(itemCardStorage.findAllById(itemIds));
+        if (cards.size() < itemIds.size()) {
+            Set<Long> present = cards.stream()
+                    .map(ItemCard::getItemId)
+                    .collect(Collectors.toSet());
+            cards.addAll(buildAll(itemIds.stream()
+                    .filter(itemId -> !present.contains(itemId))
+                    .toList()));
+        }
+        return refreshedAndSorted(cards);
+    }
+
+    public List<CommentDto> comments(ItemCard card) {
+        try {
+            return objectMapper.readValue(card.getLatestComments(), COMMENT_LIST);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось прочитать комментарии карточки вещи " + card.getItemId(), e);
+        }
+    }
+
+    public void onItemCreated(Item item) {
+        ItemCard card = ItemCard.builder()
+                .itemId(item.getId())
+                .latestComments(write(List.of()))
+                .build();
+        copyItem(item, card);
+        itemCardStorage.save(card);
+    }
+
+    /**
+     * Переносит в карточку изменённые поля вещи; карточки, которой ещё нет, это не касается.
+     */
+    public void onItemUpdated(Item item) {
+        transactionTemplate.executeWithoutResult(status -> itemCardStorage.findByIdForUpdate(item.getId())
+                .ifPresent(card -> {
+                    copyItem(item, card);
+                    itemCardStorage.save(card);
+                }));
+    }
+
+    /**
+     * Добавляет комментарий в карточку; вызывается в транзакции, сохраняющей комментарий.
+     */
+    public void onCommentAdded(CommentDto comment) {
+        itemCardStorage.findByIdForUpdate(comment.getItemId()).ifPresent(card -> {
+            List<CommentDto> latest = new ArrayList<>(latestComments);
+            latest.add(comment);
+            comments(card).stream()
+                    .limit(latestComments - 1)
+                    .forEach(latest::add);
+            card.setCommentCount(card.getCommentCount() + 1);
+            card.setLatestComments(write(latest));
+            itemCardStorage.save(card);
+        });
+    }
+
+    /**
+     * Пересчитывает бронирования карточки после подтверждения бронирования вещи.
+     */
+    public void onBookingApproved(long itemId) {
+        refreshBookings(itemId);
+    }
+
+    public void onItemDeleted(long itemId) {
+        itemCardStorage.deleteByItemId(itemId);
+    }
+
+    /**
+     * Удаляет карточки вещей пользователя и карточки, в которых есть его комментарии или бронирования;
+     * вызывается при удалении пользователя в той же транзакции.
+     */
+    public void onUserDeleting(long userId) {
+        int removed = itemCardStorage.deleteAllMentioningUser(userId);
+        if (removed > 0) {
+            log.info("Удалены карточки вещей с данными пользователя с id {}: {}", userId, removed);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item.card.refresh-interval:60000}")
+    public void refreshExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int refreshed = 0;
+        List<Long> itemIds;
+        do {
+            itemIds = itemCardStorage.findIdsWithExpiredBookings(now, Limit.of(REFRESH_BATCH));
+            itemIds.forEach(this::refreshBookings);
+            refreshed += itemIds.size();
+        } while (itemIds.size() == REFRESH_BATCH);
+        if (refreshed > 0) {
+            log.info("Пересчитаны бронирования в карточках вещей: {}", refreshed);
+        }
+    }
+
+    private List<ItemCard> refreshedAndSorted(List<ItemCard> cards) {
+        LocalDateTime now = LocalDateTime.now();
+        cards.replaceAll(card -> isExpired(card, now) ? refreshBookings(card.getItemId()) : card);
+        cards.removeIf(Objects::isNull);
+        cards.sort(Comparator.comparing(ItemCard::getItemId));
+        return cards;
+    }
+
+    private ItemCard build(long itemId) {
+        try {
+            return buildAll(List.of(itemId)).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new NotFoundException("Вещь с id " + itemId + " не найдена"));
+        } catch (DataIntegrityViolationException e) {
+            // Карточку одновременно построил другой запрос
+            return itemCardStorage.findById(itemId).orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * Строит карточки вещей по исходным таблицам несколькими запросами на всю пачку.
+     */
+    private List<ItemCard> buildAll(List<Long> itemIds) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, List<CommentDto>> comments = commentStorage.findAllDtosByItemIdIn(itemIds).stream()
+                    .collect(Collectors.groupingBy(CommentDto::getItemId));
+            Map<Long, BookingInterval> last = bookingStorage.findLastApprovedEndedBefore(itemIds, now).stream()
+                    .collect(Collectors.toMap(BookingInterval::getItemId, Function.identity(), (first, second) -> first));
+            Map<Long, List<BookingInterval>> notEnded = bookingStorage.findAllApprovedNotEndedAt(itemIds, now).stream()
+                    .collect(Collectors.groupingBy(BookingInterval::getItemId));
+
+            List<ItemCard> cards = new ArrayList<>(itemIds.size());
+            for (Item item : itemStorage.findAllById(itemIds)) {
+                List<CommentDto> itemComments = comments.getOrDefault(item.getId(), List.of());
+                ItemCard card = ItemCard.builder()
+                        .itemId(item.getId())
+                        .commentCount(itemComments.size())
+                        .latestComments(write(itemComments.subList(0, Math.min(latestComments, itemComments.size()))))
+                        .build();
+                copyItem(item, card);
+                setBookings(card, now, last.get(item.getId()), notEnded.getOrDefault(item.getId(), List.of()));
+                cards.add(card);
+            }
+            return itemCardStorage.saveAll(cards);
+        });
+    }
+
+    private ItemCard refreshBookings(long itemId) {
+        return transactionTemplate.execute(status -> itemCardStorage.findByIdForUpdate(itemId)
+                .map(card -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    List<BookingInterval> last = bookingStorage.findApprovedEndedBefore(itemId, now, Limit.of(1));
+                    setBookings(card, now, last.isEmpty() ? null : last.getFirst(),
+                            bookingStorage.findApprovedNotEndedAt(itemId, now, Limit.of(2)));
+                    return itemCardStorage.save(card);
+                })
+                .orElse(null));
+    }
+
+    /**
+     * Последнее бронирование — завершившееся позже всех, следующее — ближайшее ещё не начавшееся.
+     * Пересекающихся подтверждённых бронирований нет, поэтому достаточно двух ближайших незавершённых
+     * в порядке начала: карточка устаревает, когда начинается следующее или завершается текущее бронирование.
+     */
+    private static void setBookings(ItemCard card, LocalDateTime now, BookingInterval lastBooking,
+                                    List<BookingInterval> notEnded) {
+        card.setLastBookingStart(lastBooking == null ? null : lastBooking.getStart());
+        card.setLastBookingEnd(lastBooking == null ? null : lastBooking.getEnd());
+
+        BookingInterval nextBooking = null;
+        LocalDateTime validUntil = null;
+        for (BookingInterval booking : notEnded.subList(0, Math.min(2, notEnded.size()))) {
+            boolean future = booking.getStart().isAfter(now);
+            if (future && nextBooking == null) {
+                nextBooking = booking;
+            }
+            LocalDateTime changesAt = future ? booking.getStart() : booking.getEnd();
+            if (validUntil == null || changesAt.isBefore(validUntil)) {
+                validUntil = changesAt;
+            }
+        }
+        card.setNextBookingStart(nextBooking == null ? null : nextBooking.getStart());
+        card.setNextBookingEnd(nextBooking == null ? null : nextBooking.getEnd());
+        card.setBookingsValidUntil(validUntil);
+    }
+
+    private static void copyItem(Item item, ItemCard card) {
+        card.setOwnerId(item.getUser().getId());
+        card.setName(item.getName());
+        card.setDescription(item.getDescription());
+        card.setAvailable(item.getAvailable());
+        card.setCategory(item.getCategory());
+        card.setLocation(item.getLocation());
+    }
+
+    private static boolean isExpired(ItemCard card, LocalDateTime now) {
+        return card.getBookingsValidUntil() != null && !now.isBefore(card.getBookingsValidUntil());
+    }
+
+    private String write(List<CommentDto> comments) {
+        try {
+            return objectMapper.writeValueAsString(comments);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось записать комментарии карточки вещи", e);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш результатов поиска вещей, ограниченный примерным объёмом результатов в памяти.
+ * Вытеснение по схеме W-TinyLFU: новый запрос попадает в небольшое окно LRU, а вытесненный из окна
+ * переходит в основную область, только если по частотному эскизу он встречался чаще её жертв.
+ * Изменение вещей увеличивает номер поколения, после чего все ранее сохранённые результаты устаревают.
+ */
+@Component
+public class ItemSearchCache {
+    private static final int ENTRY_OVERHEAD = 64;
+    private static final int ITEM_OVERHEAD = 96;
+
+    private final long maxWeight;
+    private final long windowMaxWeight;
+    private final FrequencySketch sketch = new FrequencySketch(4096);
+    private final LinkedHashMap<SearchKey, Entry> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<SearchKey, Entry> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong generation = new AtomicLong();
+    private long windowWeight;
+    private long mainWeight;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ItemSearchCache(ObjectProvider<MeterRegistry> meterRegistry,
+                           @Value("${shareit.item.search.cache.max-weight:4MB}") DataSize maxWeight) {
+        this.maxWeight = maxWeight.toBytes();
+        this.windowMaxWeight = this.maxWeight / 100;
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.hits = Counter.builder("shareit.item.search.cache.requests")
+                .description("Запросы к кэшу поиска вещей")
+                .tag("result", "hit")
+                .register(registry);
+        this.misses = Counter.builder("shareit.item.search.cache.requests")
+                .description("Запросы к кэшу поиска вещей")
+                .tag("result", "miss")
+                .register(registry);
+        this.evictions = Counter.builder("shareit.item.search.cache.evictions")
+                .description("Результаты поиска, вытесненные или не допущенные в кэш")
+                .register(registry);
+        Gauge.builder("shareit.item.search.cache.hit.ratio", this, ItemSearchCache::hitRatio)
+                .description("Доля запросов поиска, обслуженных из кэша")
+                .register(registry);
+        Gauge.builder("shareit.item.search.cache.weight", this, ItemSearchCache::weight)
+                .description("Примерный объём результатов в кэше")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public List<ItemDto> get(String query, int from, int size, Supplier<List<ItemDto>> loader) {
+        SearchKey key = new SearchKey(ItemSearchIndex.normalizeQuery(query), from, size);
+        long loadedGeneration = generation.get();
+        if (maxWeight > 0) {
+            synchronized (this) {
+                sketch.increment(key.hashCode());
+                Entry entry = window.containsKey(key) ? window.get(key) : main.get(key);
+                if (entry != null && entry.generation() == loadedGeneration) {
+                    hits.increment();
+                    return entry.items();
+                }
+            }
+        }
+        misses.increment();
+        List<ItemDto> items = loader.get();
+        if (maxWeight > 0) {
+            put(key, items, loadedGeneration);
+        }
+        return items;
+    }
+
+    /**
+     * Делает недействительными все сохранённые результаты. Внутри транзакции поколение увеличивается
+     * ещё раз после фиксации, чтобы не остались результаты, прочитанные до неё.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    public synchronized long weight() {
+        return windowWeight + mainWeight;
+    }
+
+    private synchronized void put(SearchKey key, List<ItemDto> items, long loadedGeneration) {
+        if (loadedGeneration != generation.get()) {
+            return;
+        }
+        Entry entry = new Entry(List.copyOf(items), loadedGeneration, weigh(key, items));
+        if (entry.weight() > maxWeight - windowMaxWeight) {
+            return;
+        }
+        remove(key);
+        window.put(key, entry);
+        windowWeight += entry.weight();
+        while (windowWeight > windowMaxWeight && !window.isEmpty()) {
+            Map.Entry<SearchKey, Entry> eldest = window.entrySet().iterator().next();
+            window.remove(eldest.getKey());
+            windowWeight -= eldest.getValue().weight();
+            admit(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private void admit(SearchKey candidateKey, Entry candidate) {
+        long mainMaxWeight = maxWeight - windowMaxWeight;
+        long currentGeneration = generation.get();
+        int candidateFrequency = sketch.frequency(candidateKey.hashCode());
+        List<SearchKey> victims = new ArrayList<>();
+        long freed = 0;
+        Iterator<Map.Entry<SearchKey, Entry>> iterator = main.entrySet().iterator();
+        while (mainWeight - freed + candidate.weight() > mainMaxWeight && iterator.hasNext()) {
+            Map.Entry<SearchKey, Entry> victim = iterator.next();
+            boolean stale = victim.getValue().generation() != currentGeneration;
+            if (!stale && sketch.frequency(victim.getKey().hashCode()) >= candidateFrequency) {
+                evictions.increment();
+                return;
+            }
+            victims.add(victim.getKey());
+            freed += victim.getValue().weight();
+        }
+        for (SearchKey victim : victims) {
+            mainWeight -= main.remove(victim).weight();
+            evictions.increment();
+        }
+        main.put(candidateKey, candidate);
+        mainWeight += candidate.weight();
+    }
+
+    private void remove(SearchKey key) {
+        Entry entry = window.remove(key);
+        if (entry != null) {
+            windowWeight -= entry.weight();
+        }
+        entry = main.remove(key);
+        if (entry != null) {
+            mainWeight -= entry.weight();
+        }
+    }
+
+    private static long weigh(SearchKey key, List<ItemDto> items) {
+        long weight = ENTRY_OVERHEAD + 2L * key.query().length();
+        for (ItemDto item : items) {
+            weight += ITEM_OVERHEAD + 2L * (length(item.getName()) + length(item.getDescription()));
+        }
+        return weight;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private record SearchKey(String query, int from, int size) {
+    }
+
+    private record Entry(List<ItemDto> items, long generation, long weight) {
+    }
+
+    /**
+     * Count-min sketch с четырьмя строками 4-битных счётчиков. Когда число увеличений достигает
+     * десятикратной ширины, все счётчики делятся пополам, чтобы старые запросы постепенно забывались.
+     */
+    private static class FrequencySketch {
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+        private final byte[][] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int width) {
+            this.table = new byte[SEEDS.length][width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * width;
+        }
+
+        void increment(int hash) {
+            for (int row = 0; row < SEEDS.length; row++) {
+                int index = index(hash, row);
+                if (table[row][index] < 15) {
+                    table[row][index]++;
+                }
+            }
+            if (++additions == sampleSize) {
+                for (byte[] counters : table) {
+                    for (int i = 0; i < counters.length; i++) {
+                        counters[i] >>= 1;
+                    }
+                }
+                additions /= 2;
+            }
+        }
+
+        int frequency(int hash) {
+            int frequency = 15;
+            for (int row = 0; row < SEEDS.length; row++) {
+                frequency = Math.min(frequency, table[row][index(hash, row)]);
+            }
+            return frequency;
+        }
+
+        private int index(int hash, int row) {
+            int h = hash * SEEDS[row];
+            return (h ^ (h >>> 16)) & mask;
+        }
+    }
+}
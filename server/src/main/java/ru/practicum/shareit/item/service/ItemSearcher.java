@@ -0,0 +1,60 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoMapper;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSearchResultDto;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
+import ru.practicum.shareit.item.storage.ItemSearchMode;
+import ru.practicum.shareit.item.storage.ItemStorage;
+
+import java.util.List;
+
+/**
+ * Выполняет поиск вещей способом, выбранным в {@code shareit.item.search.mode}.
+ */
+@Slf4j
+@Component
+public class ItemSearcher {
+    private final ItemStorage itemStorage;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSearchMode mode;
+
+    public ItemSearcher(ItemStorage itemStorage,
+                        ItemSearchIndex itemSearchIndex,
+                        @Value("${shareit.item.search.mode:MEMORY}") ItemSearchMode mode) {
+        this.itemStorage = itemStorage;
+        this.itemSearchIndex = itemSearchIndex;
+        this.mode = mode;
+        log.info("Поиск вещей выполняется в режиме {}", mode);
+    }
+
+    public List<ItemDto> search(String query, int from, int size) {
+        if (mode == ItemSearchMode.FULL_TEXT) {
+            return itemStorage.findByFullText(query, from, size).stream()
+                    .map(ItemDtoMapper::mapToDto)
+                    .toList();
+        }
+        if (mode == ItemSearchMode.MEMORY && itemSearchIndex.isReady()) {
+            return itemSearchIndex.search(query, from, size).stream()
+                    .map(ItemDtoMapper::mapToDto)
+                    .toList();
+        }
+        // Без индекса релевантность упрощена: сначала совпадения в названии
+        return itemStorage.findByQuery(query, Limit.of(from + size)).stream()
+                .skip(from)
+                .map(ItemDtoMapper::mapToDto)
+                .toList();
+    }
+
+    public ItemSearchResultDto searchFaceted(ItemSearchFilter filter, int from, int size) {
+        if (mode == ItemSearchMode.MEMORY && itemSearchIndex.isReady()) {
+            return itemSearchIndex.searchFaceted(filter, from, size);
+        }
+        return itemStorage.findFaceted(filter, from, size);
+    }
+}
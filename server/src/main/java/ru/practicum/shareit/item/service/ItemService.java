@@ -1,12 +1,16 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSearchResultDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
-    ItemDto getById(long id);
+    ItemDto getById(long id, Long userId);
 
     void deleteById(long id);
 
@@ -14,9 +18,17 @@ public interface ItemService {
 
     ItemDto update(long itemId, long userId, ItemDto itemDto);
 
-    List<ItemDto> getItemsByUserId(long id);
+    List<ItemDto> getItemsByUserId(long id, String cursor, int size);
 
-    List<ItemDto> searchItems(String query);
+    List<ItemDto> searchItems(String query, int from, int size);
+
+    ItemSearchResultDto searchFaceted(ItemSearchFilter filter, int from, int size);
+
+    List<String> suggest(String prefix, int size);
 
     CommentDto createComment(long userId, long itemId, CommentDto commentDto);
+
+    List<CommentDto> getComments(long itemId, String cursor, int size);
+
+    List<FreeSlotDto> getAvailability(long itemId, LocalDateTime from, LocalDateTime to);
 }
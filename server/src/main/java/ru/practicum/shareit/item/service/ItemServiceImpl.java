@@ -2,10 +2,15 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.item.dto.CommentCursor;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoMapper;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.storage.CommentStorage;
 import ru.practicum.shareit.request.storage.ItemRequestStorage;
@@ -13,44 +18,69 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoMapper;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.exception.ConditionsNotMetException;
+import ru.practicum.shareit.item.dto.ItemCursor;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemCard;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSearchResultDto;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
+import ru.practicum.shareit.item.storage.ItemSuggestIndex;
 import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.storage.UserStorage;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Objects;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final Duration MAX_AVAILABILITY_RANGE = Duration.ofDays(366);
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_WINDOW = 10_000;
+    private static final int MAX_SUGGEST_SIZE = 20;
+    private static final int MAX_SEARCH_RADIUS_KM = 500;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ItemStorage itemStorage;
     private final UserStorage userStorage;
     private final CommentStorage commentStorage;
     private final UserService userService;
     private final BookingStorage bookingStorage;
     private final ItemRequestStorage itemRequestStorage;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemSearcher itemSearcher;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final ItemCardMaintainer itemCardMaintainer;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
-    public ItemDto getById(long id) {
-        log.info("Запрос на получение вещи с id {}", id);
-        ItemDto commentDto = ItemDtoMapper.mapToDto(getItemOrThrowNotFound(id));
-        commentDto.setComments(commentStorage.findAllByItemId(id).stream()
-                .map(CommentDtoMapper::mapToDto)
-                .toList());
-        return commentDto;
+    public ItemDto getById(long id, Long userId) {
+        log.info("Запрос на получение вещи с id {} пользователем с id {}", id, userId);
+        ItemCard card = itemCardMaintainer.get(id);
+        return ItemDtoMapper.mapToDto(card, itemCardMaintainer.comments(card), card.getOwnerId().equals(userId));
     }
 
     @Override
     public void deleteById(long id) {
         log.info("Запрос на удаление вещи с id {}", id);
-        itemStorage.deleteById(id);
+        // Бронирования и комментарии вещи удаляются в фоне (DeletedDataPurger)
+        transactionTemplate.executeWithoutResult(status -> {
+            itemStorage.markDeleted(id, LocalDateTime.now());
+            itemCardMaintainer.onItemDeleted(id);
+        });
+        itemSearchIndex.remove(id);
+        itemSuggestIndex.remove(id);
+        itemSearchCache.invalidateAll();
     }
 
     @Override
@@ -67,6 +97,7 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() == null) {
             throw new ConditionsNotMetException("Статус доступа к аренде не может быть пустым");
         }
+        checkLocation(itemDto);
 
         Item item = ItemDtoMapper.mapToModel(itemDto);
         Long requestId = itemDto.getRequestId();
@@ -75,9 +106,14 @@ public class ItemServiceImpl implements ItemService {
         }
         item.setUser(UserDtoMapper.mapToModel(user));
 
-        itemDto = ItemDtoMapper.mapToDto(itemStorage.save(item));
+        item = itemStorage.save(item);
+        itemCardMaintainer.onItemCreated(item);
+        ItemSearchDocument searchDocument = ItemDtoMapper.mapToSearchDocument(item);
+        itemSearchIndex.put(searchDocument);
+        itemSuggestIndex.put(searchDocument);
+        itemSearchCache.invalidateAll();
 
-        return itemDto;
+        return ItemDtoMapper.mapToDto(item);
     }
 
     @Override
@@ -99,46 +135,102 @@ public class ItemServiceImpl implements ItemService {
             itemDto.setAvailable(item.getAvailable());
         }
 
+        if (itemDto.getCategory() == null) {
+            itemDto.setCategory(item.getCategory());
+        }
+
+        if (itemDto.getLatitude() == null && itemDto.getLongitude() == null && item.getLocation() != null) {
+            itemDto.setLatitude(item.getLocation().getLatitude());
+            itemDto.setLongitude(item.getLocation().getLongitude());
+        }
+        checkLocation(itemDto);
+
         if (!item.getUser().getId().equals(user.getId())) {
             throw new ConditionsNotMetException("Пользователь с id " + user.getId()
                     + "не является владельцем вещи с id " + item.getId());
         }
 
+        boolean searchableChanged = !item.getName().equals(itemDto.getName())
+                || !item.getDescription().equals(itemDto.getDescription())
+                || !item.getAvailable().equals(itemDto.getAvailable())
+                || item.getCategory() != itemDto.getCategory()
+                || !Objects.equals(item.getLocation(), ItemDtoMapper.mapToModel(itemDto).getLocation());
+
         itemDto.setId(itemId);
         item = ItemDtoMapper.mapToModel(itemDto);
         item.setUser(UserDtoMapper.mapToModel(user));
 
-        return ItemDtoMapper.mapToDto(itemStorage.save(item));
+        item = itemStorage.save(item);
+        itemCardMaintainer.onItemUpdated(item);
+        ItemSearchDocument searchDocument = ItemDtoMapper.mapToSearchDocument(item);
+        itemSearchIndex.put(searchDocument);
+        itemSuggestIndex.put(searchDocument);
+        if (searchableChanged) {
+            itemSearchCache.invalidateAll();
+        }
+        return ItemDtoMapper.mapToDto(item);
     }
 
     @Override
-    public List<ItemDto> getItemsByUserId(long id) {
-        log.info("Запрос на получение вещей пользователя с id {}", id);
-        if (!userStorage.existsById(id)) {
+    public List<ItemDto> getItemsByUserId(long id, String cursor, int size) {
+        log.info("Запрос на получение вещей пользователя с id {}, курсор - {}, размер - {}", id, cursor, size);
+        checkPageSize(size);
+        ItemCursor after = ItemCursor.decode(cursor);
+        List<ItemCard> cards = itemCardMaintainer.getPageByOwner(id, after == null ? 0 : after.getId(), size);
+        if (cards.isEmpty() && !userStorage.existsById(id)) {
             throw new NotFoundException("Пользователь с id " + id + " не найден");
         }
-        List<ItemDto> items = itemStorage.findAllByUserId(id).stream()
-                .map(ItemDtoMapper::mapToDto)
+        return cards.stream()
+                .map(card -> ItemDtoMapper.mapToDto(card, itemCardMaintainer.comments(card), true))
                 .toList();
-        Map<Long, List<CommentDto>> commentsMap = commentStorage.findAllByItemOwnerId(id).stream()
-                .map(CommentDtoMapper::mapToDto)
-                .collect(Collectors.groupingBy(CommentDto::getItemId));
+    }
 
+    @Override
+    public List<ItemDto> searchItems(String query, int from, int size) {
+        log.info("Запрос на поиск вещей с подстрокой {}, с {}, размер - {}", query, from, size);
+        checkSearchPage(from, size);
+        if (query.isBlank()) {
+            return List.of();
+        }
+        // Кэш и поиск получают один и тот же нормализованный текст, иначе под одним ключом оказались бы разные результаты
+        String normalized = ItemSearchIndex.normalizeQuery(query);
+        return itemSearchCache.get(normalized, from, size, () -> itemSearcher.search(normalized, from, size));
+    }
 
-        items = setBookingInfo(items);
-        items.forEach(itemDto -> itemDto.setComments(commentsMap.getOrDefault(itemDto.getId(), List.of())));
-        return items;
+    @Override
+    public ItemSearchResultDto searchFaceted(ItemSearchFilter filter, int from, int size) {
+        log.info("Запрос на поиск вещей с фильтрами {}, с {}, размер - {}", filter, from, size);
+        checkSearchPage(from, size);
+        if ((filter.getLatitude() == null) != (filter.getLongitude() == null)) {
+            throw new ConditionsNotMetException("Широта и долгота указываются вместе");
+        }
+        if (filter.hasPoint() && (Math.abs(filter.getLatitude()) > 90 || Math.abs(filter.getLongitude()) > 180)) {
+            throw new ConditionsNotMetException("Широта должна быть от -90 до 90, долгота — от -180 до 180");
+        }
+        if (filter.getRadiusKm() != null) {
+            if (!filter.hasPoint()) {
+                throw new ConditionsNotMetException("Радиус поиска указывается вместе с точкой");
+            }
+            if (filter.getRadiusKm() <= 0 || filter.getRadiusKm() > MAX_SEARCH_RADIUS_KM) {
+                throw new ConditionsNotMetException("Радиус поиска должен быть больше 0 и не больше " + MAX_SEARCH_RADIUS_KM + " км");
+            }
+        }
+        return itemSearcher.searchFaceted(filter, from, size);
     }
 
     @Override
-    public List<ItemDto> searchItems(String query) {
-        log.info("Запрос на поиск вещей с подстрокой {}", query);
-        if (query.isBlank()) {
+    public List<String> suggest(String prefix, int size) {
+        log.info("Запрос на подсказки названий вещей по префиксу {}, размер - {}", prefix, size);
+        if (size <= 0 || size > MAX_SUGGEST_SIZE) {
+            throw new ConditionsNotMetException("Количество подсказок должно быть от 1 до " + MAX_SUGGEST_SIZE);
+        }
+        if (prefix.isBlank()) {
             return List.of();
         }
-        return itemStorage.findByQuery(query).stream()
-                .map(ItemDtoMapper::mapToDto)
-                .toList();
+        if (itemSuggestIndex.isReady()) {
+            return itemSuggestIndex.suggest(prefix, size);
+        }
+        return itemStorage.findSuggestions(prefix.trim().toLowerCase(Locale.ROOT), Limit.of(size));
     }
 
     @Override
@@ -155,36 +247,85 @@ public class ItemServiceImpl implements ItemService {
         comment.setItem(item);
         comment.setUser(UserDtoMapper.mapToModel(user));
         comment.setCreated(LocalDateTime.now());
-        commentStorage.save(comment);
-
         CommentDto commentRes = CommentDtoMapper.mapToDto(comment);
         commentRes.setAuthorName(user.getName());
+        transactionTemplate.executeWithoutResult(status -> {
+            commentStorage.save(comment);
+            commentRes.setId(comment.getId());
+            itemCardMaintainer.onCommentAdded(commentRes);
+        });
         return commentRes;
     }
 
-    private List<ItemDto> setBookingInfo(List<ItemDto> itemDtoList) {
-        List<Long> itemIds = itemDtoList.stream()
-                .map(ItemDto::getId)
-                .toList();
+    @Override
+    public List<CommentDto> getComments(long itemId, String cursor, int size) {
+        log.info("Запрос на получение комментариев вещи с id {}, курсор - {}, размер - {}", itemId, cursor, size);
+        checkPageSize(size);
+        CommentCursor before = CommentCursor.decode(cursor);
+        List<CommentDto> comments = before == null
+                ? commentStorage.findDtosByItemId(itemId, Limit.of(size))
+                : commentStorage.findDtosByItemIdBefore(itemId, before.getCreated(), before.getId(), Limit.of(size));
+        if (comments.isEmpty() && !itemStorage.existsById(itemId)) {
+            throw new NotFoundException("Вещь с id " + itemId + " не найдена");
+        }
+        return comments;
+    }
 
-        Map<Long, ItemDto.BookingInfo> lastBookingInfoMap = bookingStorage.findAllLastBookingByItemIds(itemIds).stream()
-                .collect(Collectors.toMap(ItemDto.BookingInfo::getItemId, Function.identity()));
-        Map<Long, ItemDto.BookingInfo> nextBookingInfoMap = bookingStorage.findAllNextBookingByItemIds(itemIds).stream()
-                .collect(Collectors.toMap(ItemDto.BookingInfo::getItemId, Function.identity()));
-
-        return itemDtoList.stream()
-                .peek(itemDto -> {
-                    long itemId = itemDto.getId();
-                    ItemDto.BookingInfo lastBooking = lastBookingInfoMap.get(itemId);
-                    if (lastBooking != null) {
-                        itemDto.setLastBooking(lastBooking);
-                    }
-                    ItemDto.BookingInfo nextBooking = nextBookingInfoMap.get(itemId);
-                    if (nextBooking != null) {
-                        itemDto.setNextBooking(nextBooking);
-                    }
-                })
-                .toList();
+    @Override
+    public List<FreeSlotDto> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("Запрос на получение свободных интервалов вещи с id {} с {} по {}", itemId, from, to);
+        if (!to.isAfter(from)) {
+            throw new ConditionsNotMetException("Конец интервала должен быть позже начала");
+        }
+        if (Duration.between(from, to).compareTo(MAX_AVAILABILITY_RANGE) > 0) {
+            throw new ConditionsNotMetException("Интервал не может быть длиннее " + MAX_AVAILABILITY_RANGE.toDays() + " дней");
+        }
+        Item item = getItemOrThrowNotFound(itemId);
+        if (!item.getAvailable()) {
+            return List.of();
+        }
+
+        List<FreeSlotDto> slots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (BookingInterval interval : bookingStorage.findAllActiveIntervalsInRange(itemId, from, to)) {
+            if (interval.getStart().isAfter(cursor)) {
+                slots.add(new FreeSlotDto(cursor, interval.getStart()));
+            }
+            if (interval.getEnd().isAfter(cursor)) {
+                cursor = interval.getEnd();
+            }
+        }
+        if (to.isAfter(cursor)) {
+            slots.add(new FreeSlotDto(cursor, to));
+        }
+        return slots;
+    }
+
+    private void checkPageSize(int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new ConditionsNotMetException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private void checkSearchPage(int from, int size) {
+        if (from < 0) {
+            throw new ConditionsNotMetException("Номер первого элемента не может быть отрицательным");
+        }
+        if (size <= 0 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new ConditionsNotMetException("Размер страницы должен быть от 1 до " + MAX_SEARCH_PAGE_SIZE);
+        }
+        if (from + size > MAX_SEARCH_WINDOW) {
+            throw new ConditionsNotMetException("Нельзя получить результаты поиска дальше " + MAX_SEARCH_WINDOW + "-го");
+        }
+    }
+
+    private void checkLocation(ItemDto itemDto) {
+        if ((itemDto.getLatitude() == null) != (itemDto.getLongitude() == null)) {
+            throw new ConditionsNotMetException("Широта и долгота указываются вместе");
+        }
+        if (itemDto.getLatitude() != null && (Math.abs(itemDto.getLatitude()) > 90 || Math.abs(itemDto.getLongitude()) > 180)) {
+            throw new ConditionsNotMetException("Широта должна быть от -90 до 90, долгота — от -180 до 180");
+        }
     }
 
     private Item getItemOrThrowNotFound(long id) {
@@ -1,19 +1,37 @@
 package ru.practicum.shareit.item.storage;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentStorage extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(long id);
+    @Query("select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, a.name, c.created, c.item.id) " +
+            "from Comment as c " +
+            "join c.user as a " +
+            "where c.item.id in :itemIds " +
+            "order by c.item.id, c.created desc, c.id desc")
+    List<CommentDto> findAllDtosByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query("select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, a.name, c.created, c.item.id) " +
+            "from Comment as c " +
+            "join c.user as a " +
+            "where c.item.id = :itemId " +
+            "order by c.created desc, c.id desc")
+    List<CommentDto> findDtosByItemId(@Param("itemId") long itemId, Limit limit);
 
-    @Query("select c " +
+    @Query("select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, a.name, c.created, c.item.id) " +
             "from Comment as c " +
-            "join fetch c.item as i " +
-            "join i.user as u " +
-            "where u.id = :id")
-    List<Comment> findAllByItemOwnerId(@Param("id") long id);
+            "join c.user as a " +
+            "where c.item.id = :itemId " +
+            "and (c.created < :created or (c.created = :created and c.id < :id)) " +
+            "order by c.created desc, c.id desc")
+    List<CommentDto> findDtosByItemIdBefore(@Param("itemId") long itemId, @Param("created") LocalDateTime created,
+                                            @Param("id") long id, Limit limit);
 }
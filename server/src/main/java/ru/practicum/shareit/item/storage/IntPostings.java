@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.storage;
+
+import java.util.Arrays;
+
+/**
+ * Список номеров документов в порядке возрастания на примитивном массиве.
+ * Номера добавляются только по возрастанию, поэтому список всегда отсортирован.
+ */
+class IntPostings {
+    private int[] docs = new int[4];
+    private int size;
+
+    void add(int doc) {
+        if (size > 0 && docs[size - 1] == doc) {
+            return;
+        }
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+        }
+        docs[size++] = doc;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return docs[index];
+    }
+
+    boolean contains(int doc) {
+        return Arrays.binarySearch(docs, 0, size, doc) >= 0;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.item.storage;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.model.ItemCard;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemCardStorage extends JpaRepository<ItemCard, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c " +
+            "from ItemCard as c " +
+            "where c.itemId = :itemId")
+    Optional<ItemCard> findByIdForUpdate(@Param("itemId") long itemId);
+
+    @Query("select c.itemId " +
+            "from ItemCard as c " +
+            "where c.bookingsValidUntil <= :now " +
+            "order by c.bookingsValidUntil")
+    List<Long> findIdsWithExpiredBookings(@Param("now") LocalDateTime now, Limit limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from ItemCard as c " +
+            "where c.itemId = :itemId")
+    int deleteByItemId(@Param("itemId") long itemId);
+
+    /**
+     * Удаляет карточки вещей пользователя и вещей, в которых могут быть его комментарии или бронирования.
+     * Карточки чужих вещей перестраиваются при следующем чтении.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("delete from ItemCard as c " +
+            "where c.ownerId = :userId " +
+            "or c.itemId in (select cm.item.id from Comment as cm where cm.user.id = :userId) " +
+            "or c.itemId in (select b.item.id from Booking as b where b.user.id = :userId and b.status = 'APPROVED')")
+    int deleteAllMentioningUser(@Param("userId") long userId);
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.storage;
+
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSearchResultDto;
+
+public interface ItemFacetStorage {
+    /**
+     * Фасетный поиск запросами к БД, когда индекс в памяти не используется: фильтры, страница
+     * и счётчики фасетов вычисляются в SQL, в память попадает только страница.
+     */
+    ItemSearchResultDto findFaceted(ItemSearchFilter filter, int from, int size);
+}
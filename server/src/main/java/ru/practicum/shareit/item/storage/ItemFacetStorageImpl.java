@@ -0,0 +1,164 @@
+package ru.practicum.shareit.item.storage;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import ru.practicum.shareit.item.dto.ItemDtoMapper;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSearchResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemCategory;
+import ru.practicum.shareit.item.model.ItemLocation;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class ItemFacetStorageImpl implements ItemFacetStorage {
+    private static final String PATTERN = "pattern";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public ItemSearchResultDto findFaceted(ItemSearchFilter filter, int from, int size) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        return ItemSearchResultDto.builder()
+                .items(findPage(cb, filter, from, size).stream()
+                        .map(ItemDtoMapper::mapToDto)
+                        .toList())
+                .total(count(cb, filter))
+                .categories(countCategories(cb, filter))
+                .distances(filter.hasPoint() ? countDistances(cb, filter) : new LinkedHashMap<>())
+                .build();
+    }
+
+    private List<ItemSearchDocument> findPage(HibernateCriteriaBuilder cb, ItemSearchFilter filter, int from, int size) {
+        CriteriaQuery<ItemSearchDocument> criteria = cb.createQuery(ItemSearchDocument.class);
+        Root<Item> item = criteria.from(Item.class);
+        Path<Long> id = item.get("id");
+        Path<Double> latitude = item.get("location").get("latitude");
+
+        criteria.select(cb.construct(ItemSearchDocument.class,
+                        id, item.get("user").get("id"), item.get("name"), item.get("description"), item.get("available"),
+                        item.get("category"), latitude, item.get("location").get("longitude")))
+                .where(where(cb, item, filter, true, true));
+        if (filter.hasPoint()) {
+            // Вещи без координат идут последними, как и в индексе в памяти
+            criteria.orderBy(cb.asc(cb.<Integer>selectCase().when(cb.isNull(latitude), 1).otherwise(0)),
+                    cb.asc(haversine(cb, item, filter)), cb.asc(id));
+        } else {
+            criteria.orderBy(cb.asc(id));
+        }
+        return bind(entityManager.createQuery(criteria), filter)
+                .setFirstResult(from)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    private long count(HibernateCriteriaBuilder cb, ItemSearchFilter filter) {
+        CriteriaQuery<Long> criteria = cb.createQuery(Long.class);
+        Root<Item> item = criteria.from(Item.class);
+        criteria.select(cb.count(item)).where(where(cb, item, filter, true, true));
+        return bind(entityManager.createQuery(criteria), filter).getSingleResult();
+    }
+
+    /**
+     * Счётчики категорий учитывают все фильтры, кроме фильтра по категории.
+     */
+    private Map<ItemCategory, Long> countCategories(HibernateCriteriaBuilder cb, ItemSearchFilter filter) {
+        CriteriaQuery<Tuple> criteria = cb.createTupleQuery();
+        Root<Item> item = criteria.from(Item.class);
+        Path<ItemCategory> category = item.get("category");
+        List<Predicate> predicates = new ArrayList<>(List.of(where(cb, item, filter, false, true)));
+        predicates.add(cb.isNotNull(category));
+        criteria.multiselect(category, cb.count(item))
+                .where(predicates.toArray(new Predicate[0]))
+                .groupBy(category);
+
+        Map<ItemCategory, Long> counts = new EnumMap<>(ItemCategory.class);
+        bind(entityManager.createQuery(criteria), filter).getResultList()
+                .forEach(tuple -> counts.put(tuple.get(0, ItemCategory.class), tuple.get(1, Long.class)));
+        return counts;
+    }
+
+    /**
+     * Накопительные счётчики расстояния одним запросом; учитывают все фильтры, кроме радиуса.
+     */
+    private Map<Integer, Long> countDistances(HibernateCriteriaBuilder cb, ItemSearchFilter filter) {
+        CriteriaQuery<Tuple> criteria = cb.createTupleQuery();
+        Root<Item> item = criteria.from(Item.class);
+        Expression<Double> haversine = haversine(cb, item, filter);
+        List<Expression<?>> sums = new ArrayList<>();
+        for (int bound : ItemSearchFilter.DISTANCE_FACETS_KM) {
+            sums.add(cb.sum(cb.<Long>selectCase()
+                    .when(cb.le(haversine, ItemLocation.haversineBound(bound)), 1L)
+                    .otherwise(0L)));
+        }
+        criteria.multiselect(sums.toArray(new Expression<?>[0]))
+                .where(where(cb, item, filter, true, false));
+
+        Tuple tuple = bind(entityManager.createQuery(criteria), filter).getSingleResult();
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < ItemSearchFilter.DISTANCE_FACETS_KM.length; i++) {
+            Number count = tuple.get(i, Number.class);
+            counts.put(ItemSearchFilter.DISTANCE_FACETS_KM[i], count == null ? 0L : count.longValue());
+        }
+        return counts;
+    }
+
+    private Predicate[] where(HibernateCriteriaBuilder cb, Root<Item> item, ItemSearchFilter filter,
+                              boolean byCategory, boolean byRadius) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.isTrue(item.get("available")));
+        String text = filter.getText() == null ? "" : filter.getText().trim();
+        if (!text.isEmpty()) {
+            Expression<String> pattern = cb.lower(cb.parameter(String.class, PATTERN));
+            predicates.add(cb.or(
+                    cb.like(cb.lower(item.get("name")), pattern),
+                    cb.like(cb.lower(item.get("description")), pattern)
+            ));
+        }
+        if (byCategory && filter.getCategories() != null && !filter.getCategories().isEmpty()) {
+            predicates.add(item.get("category").in(filter.getCategories()));
+        }
+        if (byRadius && filter.hasPoint() && filter.getRadiusKm() != null) {
+            predicates.add(cb.le(haversine(cb, item, filter), ItemLocation.haversineBound(filter.getRadiusKm())));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    /**
+     * Промежуточная величина формулы гаверсинусов до точки фильтра; монотонна по расстоянию, поэтому
+     * подходит и для сравнения с радиусом, и для сортировки. Для вещей без координат равна null.
+     * Константы подставляются литералами: привязанные параметры в арифметике H2 не принимает.
+     */
+    private static Expression<Double> haversine(HibernateCriteriaBuilder cb, Root<Item> item, ItemSearchFilter filter) {
+        Path<Double> latitude = item.get("location").get("latitude");
+        Path<Double> longitude = item.get("location").get("longitude");
+        return cb.sum(squaredSineOfHalf(cb, latitude, filter.getLatitude()),
+                cb.prod(cb.prod(cb.cos(cb.radians(latitude)), cb.literal(Math.cos(Math.toRadians(filter.getLatitude())))),
+                        squaredSineOfHalf(cb, longitude, filter.getLongitude())));
+    }
+
+    private static Expression<Double> squaredSineOfHalf(HibernateCriteriaBuilder cb, Path<Double> degrees, double origin) {
+        return cb.power(cb.sin(cb.prod(cb.radians(cb.diff(degrees, cb.literal(origin))), cb.literal(0.5))), cb.literal(2));
+    }
+
+    private static <T> TypedQuery<T> bind(TypedQuery<T> query, ItemSearchFilter filter) {
+        if (query.getParameters().stream().anyMatch(parameter -> PATTERN.equals(parameter.getName()))) {
+            query.setParameter(PATTERN, "%" + filter.getText().trim() + "%");
+        }
+        return query;
+    }
+}
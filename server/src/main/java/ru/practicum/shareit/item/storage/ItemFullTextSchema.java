@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.storage;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Создаёт расширение pg_trgm и триграммные индексы для режима {@link ItemSearchMode#FULL_TEXT}.
+ * В остальных режимах скрипт не выполняется, чтобы не требовать расширения и не строить лишние индексы.
+ * Скрипт индексирует таблицу ITEMS, поэтому бин создаётся после инициализации схемы spring.sql.init.
+ */
+@Slf4j
+@Component
+@DependsOnDatabaseInitialization
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item.search.mode", havingValue = "FULL_TEXT")
+public class ItemFullTextSchema {
+    private static final String SCRIPT = "schema-items-postgresql.sql";
+
+    private final DataSource dataSource;
+
+    @PostConstruct
+    public void init() {
+        new ResourceDatabasePopulator(new ClassPathResource(SCRIPT)).execute(dataSource);
+        log.info("Схема полнотекстового поиска вещей применена из {}", SCRIPT);
+    }
+}
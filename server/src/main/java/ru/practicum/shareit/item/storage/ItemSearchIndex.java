@@ -0,0 +1,589 @@
+package ru.practicum.shareit.item.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDtoMapper;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSearchResultDto;
+import ru.practicum.shareit.item.model.ItemCategory;
+import ru.practicum.shareit.item.model.ItemLocation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Инвертированный индекс названий и описаний вещей в памяти процесса: списки документов по триграммам
+ * и по словам. Найденные по спискам кандидаты проверяются вхождением подстроки, поэтому результат совпадает
+ * с {@link ItemStorage#findByQuery}. Пока индекс не загружен, поиск выполняется запросом к БД.
+ * Используется в режиме {@link ItemSearchMode#MEMORY}.
+ * Найденные вещи ранжируются по BM25 с большим весом совпадений в названии; страница выбирается
+ * ограниченной кучей, поэтому сортируются только {@code from + size} лучших результатов.
+ * Индекс обновляется только через сервис вещей, поэтому рассчитан на один экземпляр сервера.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+    private static final int WARM_UP_BATCH = 10_000;
+    private static final int MIN_DEAD_TO_COMPACT = 10_000;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final double KM_PER_DEGREE = 111.2;
+    private static final int MAX_GEO_CELLS = 256;
+    private static final Comparator<ScoredDoc> BEST_FIRST = Comparator.comparingDouble(ScoredDoc::score).reversed()
+            .thenComparingLong(ScoredDoc::itemId);
+
+    private final ItemStorage itemStorage;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, IntPostings> trigrams = new HashMap<>();
+    private final Map<String, IntPostings> tokens = new HashMap<>();
+    private final Map<Long, Integer> docByItem = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final BitSet available = new BitSet();
+    private final BitSet[] byCategory = new BitSet[ItemCategory.values().length];
+    private final Map<Integer, BitSet> geoCells = new HashMap<>();
+    private final BitSet located = new BitSet();
+    private long[] itemIds = new long[1024];
+    private long[] ownerIds = new long[1024];
+    private String[] names = new String[1024];
+    private String[] descriptions = new String[1024];
+    private String[] lowerNames = new String[1024];
+    private String[] lowerDescriptions = new String[1024];
+    private int[] nameLengths = new int[1024];
+    private int[] descriptionLengths = new int[1024];
+    private ItemCategory[] categories = new ItemCategory[1024];
+    private double[] latitudes = new double[1024];
+    private double[] longitudes = new double[1024];
+    private long nameLengthSum;
+    private long descriptionLengthSum;
+    private int docCount;
+    private int deadCount;
+    private Set<Long> touchedDuringWarmUp = new HashSet<>();
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemStorage itemStorage,
+                           @Value("${shareit.item.search.mode:MEMORY}") ItemSearchMode mode) {
+        this.itemStorage = itemStorage;
+        this.enabled = mode == ItemSearchMode.MEMORY;
+        Arrays.setAll(byCategory, i -> new BitSet());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            log.info("Индекс поиска вещей не используется, поиск выполняется запросами к БД");
+            return;
+        }
+        long afterId = 0;
+        List<ItemSearchDocument> batch;
+        do {
+            batch = itemStorage.findSearchDocuments(afterId, Limit.of(WARM_UP_BATCH));
+            lock.writeLock().lock();
+            try {
+                for (ItemSearchDocument document : batch) {
+                    // Вещи, изменённые во время загрузки, уже содержат актуальные данные
+                    if (!touchedDuringWarmUp.contains(document.getId()) && !docByItem.containsKey(document.getId())) {
+                        addDocument(document);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.getLast().getId();
+            }
+        } while (batch.size() == WARM_UP_BATCH);
+
+        lock.writeLock().lock();
+        try {
+            touchedDuringWarmUp = null;
+            ready = true;
+            log.info("Индекс поиска вещей загружен: {} вещей, {} триграмм, {} слов", docByItem.size(), trigrams.size(), tokens.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void put(ItemSearchDocument document) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            markTouched(document.getId());
+            removeDocument(document.getId());
+            addDocument(document);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long itemId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            markTouched(itemId);
+            removeDocument(itemId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeByOwner(long ownerId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                if (ownerIds[doc] == ownerId) {
+                    markTouched(itemIds[doc]);
+                    removeDocument(itemIds[doc]);
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает страницу доступных вещей, в названии или описании которых встречается {@code query}
+     * без учёта регистра, в порядке убывания релевантности (при равенстве — по возрастанию id).
+     */
+    public List<ItemSearchDocument> search(String query, int from, int size) {
+        String needle = normalizeQuery(query);
+        lock.readLock().lock();
+        try {
+            BitSet matched = matchText(needle);
+            return page(matched, textScorer(needle, matched.cardinality()), from, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Приводит текст запроса к виду, по которому ищет индекс: нижний регистр, без пробелов по краям,
+     * пробелы между словами схлопнуты в один.
+     */
+    public static String normalizeQuery(String query) {
+        return PrefixTrie.normalize(query);
+    }
+
+    /**
+     * Поиск с фильтрами по категориям и расстоянию и счётчиками фасетов. Фильтры и фасеты — пересечения
+     * битовых множеств с результатом текстового поиска. Счётчик фасета учитывает все фильтры, кроме своего.
+     * Без текста возвращаются все доступные вещи по возрастанию расстояния (если задана точка) или id.
+     */
+    public ItemSearchResultDto searchFaceted(ItemSearchFilter filter, int from, int size) {
+        String needle = filter.getText() == null ? "" : normalizeQuery(filter.getText());
+        lock.readLock().lock();
+        try {
+            BitSet text = needle.isBlank() ? (BitSet) available.clone() : matchText(needle);
+            BitSet category = categoryFilter(filter.getCategories());
+            BitSet nearby = filter.getRadiusKm() == null
+                    ? null
+                    : within(filter.getLatitude(), filter.getLongitude(), filter.getRadiusKm(), text);
+
+            Map<ItemCategory, Long> categoryCounts = new EnumMap<>(ItemCategory.class);
+            BitSet forCategories = intersect(text, nearby);
+            for (ItemCategory value : ItemCategory.values()) {
+                BitSet counted = intersect(forCategories, byCategory[value.ordinal()]);
+                if (!counted.isEmpty()) {
+                    categoryCounts.put(value, (long) counted.cardinality());
+                }
+            }
+            Map<Integer, Long> distanceCounts = filter.hasPoint()
+                    ? distanceCounts(intersect(text, category), filter.getLatitude(), filter.getLongitude())
+                    : Map.of();
+
+            BitSet result = intersect(intersect(text, category), nearby);
+            IntToDoubleFunction scorer;
+            if (!needle.isBlank()) {
+                scorer = textScorer(needle, text.cardinality());
+            } else if (filter.hasPoint()) {
+                scorer = doc -> located.get(doc)
+                        ? -ItemLocation.distanceKm(filter.getLatitude(), filter.getLongitude(), latitudes[doc], longitudes[doc])
+                        : -Double.MAX_VALUE;
+            } else {
+                scorer = doc -> 0;
+            }
+            return ItemSearchResultDto.builder()
+                    .items(page(result, scorer, from, size).stream()
+                            .map(ItemDtoMapper::mapToDto)
+                            .toList())
+                    .total(result.cardinality())
+                    .categories(categoryCounts)
+                    .distances(distanceCounts)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet matchText(String needle) {
+        int[] candidates;
+        if (needle.length() >= 3) {
+            candidates = trigramCandidates(needle);
+        } else if (isWord(needle)) {
+            candidates = tokenCandidates(needle);
+        } else {
+            candidates = live.stream().toArray();
+        }
+        BitSet matched = new BitSet(docCount);
+        for (int doc : candidates) {
+            if (live.get(doc) && available.get(doc)
+                    && (lowerNames[doc].contains(needle) || lowerDescriptions[doc].contains(needle))) {
+                matched.set(doc);
+            }
+        }
+        return matched;
+    }
+
+    private IntToDoubleFunction textScorer(String needle, int matched) {
+        String[] terms = splitWords(needle);
+        double[] idf = new double[terms.length];
+        for (int t = 0; t < terms.length; t++) {
+            IntPostings postings = tokens.get(terms[t]);
+            // Для части слова частота документов неизвестна, берём число найденных вещей
+            int df = postings == null ? matched : Math.min(postings.size(), docByItem.size());
+            idf[t] = Math.log(1 + (docByItem.size() - df + 0.5) / (df + 0.5));
+        }
+        return doc -> score(doc, terms, idf);
+    }
+
+    /**
+     * Выбирает страницу лучших документов ограниченной кучей из {@code from + size} элементов.
+     */
+    private List<ItemSearchDocument> page(BitSet matched, IntToDoubleFunction scorer, int from, int size) {
+        int limit = from + size;
+        PriorityQueue<ScoredDoc> top = new PriorityQueue<>(Math.min(limit, matched.cardinality()) + 1, BEST_FIRST.reversed());
+        for (int doc = matched.nextSetBit(0); doc >= 0; doc = matched.nextSetBit(doc + 1)) {
+            ScoredDoc scored = new ScoredDoc(doc, itemIds[doc], scorer.applyAsDouble(doc));
+            if (top.size() < limit) {
+                top.add(scored);
+            } else if (BEST_FIRST.compare(scored, top.peek()) < 0) {
+                top.poll();
+                top.add(scored);
+            }
+        }
+
+        ScoredDoc[] best = top.toArray(new ScoredDoc[0]);
+        Arrays.sort(best, BEST_FIRST);
+        List<ItemSearchDocument> page = new ArrayList<>(Math.max(0, best.length - from));
+        for (int i = from; i < best.length; i++) {
+            page.add(toDocument(best[i].doc()));
+        }
+        return page;
+    }
+
+    private BitSet categoryFilter(Set<ItemCategory> selected) {
+        if (selected == null || selected.isEmpty()) {
+            return null;
+        }
+        BitSet union = new BitSet(docCount);
+        for (ItemCategory value : selected) {
+            union.or(byCategory[value.ordinal()]);
+        }
+        return union;
+    }
+
+    /**
+     * Документы из {@code restrictTo} не дальше {@code radiusKm}: кандидаты берутся из ячеек сетки в один градус,
+     * покрывающих описанный квадрат, затем расстояние проверяется точно.
+     */
+    private BitSet within(double latitude, double longitude, double radiusKm, BitSet restrictTo) {
+        double latitudeDelta = radiusKm / KM_PER_DEGREE;
+        double maxLatitude = Math.min(90, Math.abs(latitude) + latitudeDelta);
+        double longitudeDelta = radiusKm / (KM_PER_DEGREE * Math.cos(Math.toRadians(maxLatitude)));
+        BitSet candidates;
+        int rows = (int) Math.floor(latitude + latitudeDelta) - (int) Math.floor(latitude - latitudeDelta) + 1;
+        int columns = (int) Math.floor(longitude + longitudeDelta) - (int) Math.floor(longitude - longitudeDelta) + 1;
+        if (maxLatitude >= 89 || columns >= 360 || (long) rows * columns > MAX_GEO_CELLS) {
+            candidates = (BitSet) located.clone();
+        } else {
+            candidates = new BitSet(docCount);
+            for (int row = (int) Math.floor(latitude - latitudeDelta); row <= (int) Math.floor(latitude + latitudeDelta); row++) {
+                for (int column = (int) Math.floor(longitude - longitudeDelta);
+                     column <= (int) Math.floor(longitude + longitudeDelta); column++) {
+                    BitSet cell = geoCells.get(geoCell(row, column));
+                    if (cell != null) {
+                        candidates.or(cell);
+                    }
+                }
+            }
+        }
+        candidates.and(restrictTo);
+        for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+            if (ItemLocation.distanceKm(latitude, longitude, latitudes[doc], longitudes[doc]) > radiusKm) {
+                candidates.clear(doc);
+            }
+        }
+        return candidates;
+    }
+
+    private Map<Integer, Long> distanceCounts(BitSet base, double latitude, double longitude) {
+        int[] bounds = ItemSearchFilter.DISTANCE_FACETS_KM;
+        long[] counts = new long[bounds.length];
+        BitSet nearby = within(latitude, longitude, bounds[bounds.length - 1], base);
+        for (int doc = nearby.nextSetBit(0); doc >= 0; doc = nearby.nextSetBit(doc + 1)) {
+            double distance = ItemLocation.distanceKm(latitude, longitude, latitudes[doc], longitudes[doc]);
+            for (int i = bounds.length - 1; i >= 0 && distance <= bounds[i]; i--) {
+                counts[i]++;
+            }
+        }
+        Map<Integer, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < bounds.length; i++) {
+            result.put(bounds[i], counts[i]);
+        }
+        return result;
+    }
+
+    private static BitSet intersect(BitSet left, BitSet right) {
+        BitSet result = (BitSet) left.clone();
+        if (right != null) {
+            result.and(right);
+        }
+        return result;
+    }
+
+    private double score(int doc, String[] terms, double[] idf) {
+        int liveCount = docByItem.size();
+        double nameNorm = 1 - B + B * nameLengths[doc] / Math.max(1.0, (double) nameLengthSum / liveCount);
+        double descriptionNorm = 1 - B + B * descriptionLengths[doc] / Math.max(1.0, (double) descriptionLengthSum / liveCount);
+        double score = 0;
+        for (int t = 0; t < terms.length; t++) {
+            double tf = NAME_WEIGHT * occurrences(lowerNames[doc], terms[t]) / nameNorm
+                    + DESCRIPTION_WEIGHT * occurrences(lowerDescriptions[doc], terms[t]) / descriptionNorm;
+            score += idf[t] * tf * (K1 + 1) / (tf + K1);
+        }
+        return score;
+    }
+
+    private int[] trigramCandidates(String needle) {
+        List<IntPostings> lists = new ArrayList<>(needle.length() - 2);
+        for (int i = 0; i + 3 <= needle.length(); i++) {
+            IntPostings postings = trigrams.get(trigram(needle, i));
+            if (postings == null) {
+                return new int[0];
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(IntPostings::size));
+        IntPostings smallest = lists.getFirst();
+        int[] candidates = new int[smallest.size()];
+        int count = 0;
+        candidates:
+        for (int i = 0; i < smallest.size(); i++) {
+            int doc = smallest.get(i);
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(doc)) {
+                    continue candidates;
+                }
+            }
+            candidates[count++] = doc;
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    private int[] tokenCandidates(String needle) {
+        BitSet candidates = new BitSet(docCount);
+        tokens.forEach((token, postings) -> {
+            if (token.contains(needle)) {
+                for (int i = 0; i < postings.size(); i++) {
+                    candidates.set(postings.get(i));
+                }
+            }
+        });
+        return candidates.stream().toArray();
+    }
+
+    private void addDocument(ItemSearchDocument document) {
+        int doc = docCount++;
+        ensureCapacity(docCount);
+        itemIds[doc] = document.getId();
+        ownerIds[doc] = document.getOwnerId() == null ? 0 : document.getOwnerId();
+        names[doc] = document.getName();
+        descriptions[doc] = document.getDescription();
+        lowerNames[doc] = document.getName().toLowerCase(Locale.ROOT);
+        lowerDescriptions[doc] = document.getDescription().toLowerCase(Locale.ROOT);
+        nameLengths[doc] = splitWords(lowerNames[doc]).length;
+        descriptionLengths[doc] = splitWords(lowerDescriptions[doc]).length;
+        nameLengthSum += nameLengths[doc];
+        descriptionLengthSum += descriptionLengths[doc];
+        live.set(doc);
+        if (Boolean.TRUE.equals(document.getAvailable())) {
+            available.set(doc);
+        }
+        categories[doc] = document.getCategory();
+        if (document.getCategory() != null) {
+            byCategory[document.getCategory().ordinal()].set(doc);
+        }
+        if (document.getLatitude() != null && document.getLongitude() != null) {
+            latitudes[doc] = document.getLatitude();
+            longitudes[doc] = document.getLongitude();
+            located.set(doc);
+            geoCells.computeIfAbsent(geoCell((int) Math.floor(latitudes[doc]), (int) Math.floor(longitudes[doc])),
+                    key -> new BitSet()).set(doc);
+        }
+        docByItem.put(document.getId(), doc);
+        indexText(lowerNames[doc], doc);
+        indexText(lowerDescriptions[doc], doc);
+    }
+
+    private void indexText(String text, int doc) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.computeIfAbsent(trigram(text, i), key -> new IntPostings()).add(doc);
+        }
+        for (String word : splitWords(text)) {
+            tokens.computeIfAbsent(word, key -> new IntPostings()).add(doc);
+        }
+    }
+
+    private void removeDocument(long itemId) {
+        Integer doc = docByItem.remove(itemId);
+        if (doc == null) {
+            return;
+        }
+        live.clear(doc);
+        available.clear(doc);
+        if (categories[doc] != null) {
+            byCategory[categories[doc].ordinal()].clear(doc);
+        }
+        if (located.get(doc)) {
+            located.clear(doc);
+            geoCells.get(geoCell((int) Math.floor(latitudes[doc]), (int) Math.floor(longitudes[doc]))).clear(doc);
+        }
+        nameLengthSum -= nameLengths[doc];
+        descriptionLengthSum -= descriptionLengths[doc];
+        names[doc] = null;
+        descriptions[doc] = null;
+        lowerNames[doc] = null;
+        lowerDescriptions[doc] = null;
+        deadCount++;
+    }
+
+    private void compactIfNeeded() {
+        if (deadCount < MIN_DEAD_TO_COMPACT || deadCount < docByItem.size()) {
+            return;
+        }
+        List<ItemSearchDocument> documents = live.stream().mapToObj(this::toDocument).toList();
+        trigrams.clear();
+        tokens.clear();
+        docByItem.clear();
+        live.clear();
+        available.clear();
+        Arrays.stream(byCategory).forEach(BitSet::clear);
+        geoCells.clear();
+        located.clear();
+        nameLengthSum = 0;
+        descriptionLengthSum = 0;
+        docCount = 0;
+        deadCount = 0;
+        documents.forEach(this::addDocument);
+        log.info("Индекс поиска вещей перестроен: {} вещей", documents.size());
+    }
+
+    private void markTouched(long itemId) {
+        if (touchedDuringWarmUp != null) {
+            touchedDuringWarmUp.add(itemId);
+        }
+    }
+
+    private ItemSearchDocument toDocument(int doc) {
+        boolean hasLocation = located.get(doc);
+        return new ItemSearchDocument(itemIds[doc], ownerIds[doc], names[doc], descriptions[doc], available.get(doc),
+                categories[doc], hasLocation ? latitudes[doc] : null, hasLocation ? longitudes[doc] : null);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= itemIds.length) {
+            return;
+        }
+        int newLength = Math.max(capacity, itemIds.length + (itemIds.length >> 1));
+        itemIds = Arrays.copyOf(itemIds, newLength);
+        ownerIds = Arrays.copyOf(ownerIds, newLength);
+        names = Arrays.copyOf(names, newLength);
+        descriptions = Arrays.copyOf(descriptions, newLength);
+        lowerNames = Arrays.copyOf(lowerNames, newLength);
+        lowerDescriptions = Arrays.copyOf(lowerDescriptions, newLength);
+        nameLengths = Arrays.copyOf(nameLengths, newLength);
+        descriptionLengths = Arrays.copyOf(descriptionLengths, newLength);
+        categories = Arrays.copyOf(categories, newLength);
+        latitudes = Arrays.copyOf(latitudes, newLength);
+        longitudes = Arrays.copyOf(longitudes, newLength);
+    }
+
+    private static String[] splitWords(String text) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                words.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return words.toArray(new String[0]);
+    }
+
+    private static int occurrences(String text, String term) {
+        int count = 0;
+        for (int i = text.indexOf(term); i >= 0; i = text.indexOf(term, i + term.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean isWord(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int geoCell(int row, int column) {
+        return (Math.floorMod(row + 90, 181)) * 360 + Math.floorMod(column + 180, 360);
+    }
+
+    private static long trigram(String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+
+    private record ScoredDoc(int doc, long itemId, double score) {
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.storage;
+
+/**
+ * Способ поиска вещей, задаётся свойством {@code shareit.item.search.mode}.
+ */
+public enum ItemSearchMode {
+    /**
+     * Индекс в памяти процесса, до его загрузки — запрос с LIKE.
+     */
+    MEMORY,
+    /**
+     * Триграммные GIN-индексы PostgreSQL (создаются {@link ItemFullTextSchema}), без индекса в памяти.
+     */
+    FULL_TEXT,
+    /**
+     * Запрос с LIKE без индексов, используется для H2.
+     */
+    LIKE
+}
@@ -1,24 +1,84 @@
 package ru.practicum.shareit.item.storage;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.RespondingItem;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface ItemStorage extends JpaRepository<Item, Long> {
+public interface ItemStorage extends JpaRepository<Item, Long>, ItemFacetStorage {
     @Query("select i " +
             "from Item as i " +
             "where (" +
             "lower(i.name) like lower(concat('%', ?1, '%')) or " +
             "lower(i.description) like lower(concat('%', ?1, '%'))" +
-            ") and i.available")
-    List<Item> findByQuery(String query);
+            ") and i.available " +
+            "order by case when lower(i.name) like lower(concat('%', ?1, '%')) then 0 else 1 end, i.id")
+    List<Item> findByQuery(String query, Limit limit);
 
-    List<Item> findAllByUserId(long id);
+    /**
+     * Поиск для PostgreSQL: отбор по подстроке использует триграммные индексы, порядок — триграммное
+     * сходство запроса со словами названия и описания, где название весит вдвое больше.
+     * В отличие от ранга по tsvector, сходство не равно нулю и для части слова.
+     */
+    @Query(value = "select i.* " +
+            "from items as i " +
+            "where i.available and i.deleted_at is null and (" +
+            "lower(i.name) like concat('%', lower(:query), '%') or " +
+            "lower(i.description) like concat('%', lower(:query), '%')" +
+            ") " +
+            "order by 2 * word_similarity(lower(:query), lower(i.name)) + " +
+            "word_similarity(lower(:query), lower(i.description)) desc, i.id " +
+            "limit :size offset :from", nativeQuery = true)
+    List<Item> findByFullText(@Param("query") String query, @Param("from") int from, @Param("size") int size);
+
+    @Query("select i.id " +
+            "from Item as i " +
+            "where i.user.id = :ownerId " +
+            "and i.id > :afterId " +
+            "order by i.id")
+    List<Long> findIdsByUserIdAfter(@Param("ownerId") long ownerId, @Param("afterId") long afterId, Limit limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update items " +
+            "set deleted_at = :now " +
+            "where id = :id " +
+            "and deleted_at is null", nativeQuery = true)
+    int markDeleted(@Param("id") long id, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update items " +
+            "set deleted_at = :now " +
+            "where user_id = :userId " +
+            "and deleted_at is null", nativeQuery = true)
+    int markDeletedByUserId(@Param("userId") long userId, @Param("now") LocalDateTime now);
+
+    @Query("select i.name " +
+            "from Item as i " +
+            "where i.available and (" +
+            "lower(i.name) like concat(:prefix, '%') or " +
+            "lower(i.name) like concat('% ', :prefix, '%')" +
+            ") " +
+            "group by i.name " +
+            "order by count(i) desc, i.name")
+    List<String> findSuggestions(@Param("prefix") String prefix, Limit limit);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemSearchDocument(i.id, i.user.id, i.name, i.description, i.available, " +
+            "i.category, i.location.latitude, i.location.longitude) " +
+            "from Item as i " +
+            "where i.id > :afterId " +
+            "order by i.id")
+    List<ItemSearchDocument> findSearchDocuments(@Param("afterId") long afterId, Limit limit);
 
     @Query("select i " +
             "from Item as i " +
@@ -26,6 +86,19 @@ public interface ItemStorage extends JpaRepository<Item, Long> {
             "where i.id = :id")
     Optional<Item> findByIdWithUser(@Param("id") long id);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i " +
+            "from Item as i " +
+            "where i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i " +
+            "from Item as i " +
+            "where i.id in :ids " +
+            "order by i.id")
+    List<Item> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
     @Query("select new ru.practicum.shareit.request.dto.RespondingItem(i.id, i.name, i.user.id, i.request.id) " +
             "from Item as i " +
             "join i.user " +
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.item.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Подсказки названий доступных вещей по началу слова. Популярность названия — число доступных вещей с ним.
+ * Загружается из БД при старте и обновляется сервисом вещей, поэтому рассчитан на один экземпляр сервера.
+ */
+@Slf4j
+@Component
+public class ItemSuggestIndex {
+    private static final int WARM_UP_BATCH = 10_000;
+
+    private final ItemStorage itemStorage;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final PrefixTrie trie = new PrefixTrie();
+    private final Map<Long, SuggestedItem> items = new HashMap<>();
+    private Set<Long> touchedDuringWarmUp = new HashSet<>();
+    private volatile boolean ready;
+
+    public ItemSuggestIndex(ItemStorage itemStorage,
+                            @Value("${shareit.item.suggest.enabled:true}") boolean enabled) {
+        this.itemStorage = itemStorage;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            log.info("Индекс подсказок вещей отключён, подсказки выполняются запросами к БД");
+            return;
+        }
+        long afterId = 0;
+        List<ItemSearchDocument> batch;
+        do {
+            batch = itemStorage.findSearchDocuments(afterId, Limit.of(WARM_UP_BATCH));
+            lock.writeLock().lock();
+            try {
+                for (ItemSearchDocument document : batch) {
+                    if (!touchedDuringWarmUp.contains(document.getId()) && !items.containsKey(document.getId())) {
+                        add(document);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.getLast().getId();
+            }
+        } while (batch.size() == WARM_UP_BATCH);
+
+        lock.writeLock().lock();
+        try {
+            touchedDuringWarmUp = null;
+            ready = true;
+            log.info("Индекс подсказок вещей загружен: {} вещей, {} названий", items.size(), trie.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void put(ItemSearchDocument document) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            markTouched(document.getId());
+            removeItem(document.getId());
+            add(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long itemId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            markTouched(itemId);
+            removeItem(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeByOwner(long ownerId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            List<Long> owned = items.entrySet().stream()
+                    .filter(entry -> entry.getValue().ownerId() == ownerId)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            for (Long itemId : owned) {
+                markTouched(itemId);
+                removeItem(itemId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int size) {
+        lock.readLock().lock();
+        try {
+            return trie.top(prefix, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(ItemSearchDocument document) {
+        boolean available = Boolean.TRUE.equals(document.getAvailable());
+        long ownerId = document.getOwnerId() == null ? 0 : document.getOwnerId();
+        items.put(document.getId(), new SuggestedItem(ownerId, document.getName(), available));
+        if (available) {
+            trie.increment(document.getName());
+        }
+    }
+
+    private void removeItem(long itemId) {
+        SuggestedItem item = items.remove(itemId);
+        if (item != null && item.available()) {
+            trie.decrement(item.name());
+        }
+    }
+
+    private void markTouched(long itemId) {
+        if (touchedDuringWarmUp != null) {
+            touchedDuringWarmUp.add(itemId);
+        }
+    }
+
+    private record SuggestedItem(long ownerId, String name, boolean available) {
+    }
+}
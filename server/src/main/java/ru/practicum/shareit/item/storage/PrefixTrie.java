@@ -0,0 +1,321 @@
+package ru.practicum.shareit.item.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Сжатое префиксное дерево (radix trie) названий. Название попадает в дерево под каждым своим окончанием,
+ * начинающимся с начала слова, поэтому префикс совпадает с началом любого слова названия.
+ * Узел хранит наибольшую популярность названий в своём поддереве, и лучшие дополнения находятся
+ * обходом по убыванию этой оценки без просмотра всего поддерева.
+ */
+class PrefixTrie {
+    private static final Comparator<Candidate> BEST_FIRST = Comparator.comparingInt(Candidate::score).reversed()
+            .thenComparing(candidate -> candidate.node() != null)
+            .thenComparingLong(Candidate::order);
+
+    private final Node root = new Node("");
+    private final Map<String, NameEntry> names = new HashMap<>();
+
+    /**
+     * Увеличивает популярность названия на единицу; показывается последнее добавленное написание.
+     */
+    void increment(String name) {
+        String key = normalize(name);
+        if (key.isEmpty()) {
+            return;
+        }
+        NameEntry entry = names.get(key);
+        if (entry == null) {
+            entry = new NameEntry(name, 1);
+            names.put(key, entry);
+            for (String suffix : suffixes(key)) {
+                insert(suffix, entry);
+            }
+            return;
+        }
+        entry.display = name;
+        entry.count++;
+        for (String suffix : suffixes(key)) {
+            refresh(path(suffix));
+        }
+    }
+
+    void decrement(String name) {
+        String key = normalize(name);
+        NameEntry entry = names.get(key);
+        if (entry == null) {
+            return;
+        }
+        entry.count--;
+        if (entry.count == 0) {
+            names.remove(key);
+            for (String suffix : suffixes(key)) {
+                remove(suffix, entry);
+            }
+            return;
+        }
+        for (String suffix : suffixes(key)) {
+            refresh(path(suffix));
+        }
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    /**
+     * Возвращает до {@code limit} названий, у которых одно из слов начинается с {@code prefix}, в порядке убывания
+     * популярности; при равной популярности раньше идут более короткие дополнения.
+     */
+    List<String> top(String prefix, int limit) {
+        Node start = find(normalizePrefix(prefix));
+        if (start == null) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>(limit);
+        Set<NameEntry> emitted = new HashSet<>();
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(BEST_FIRST);
+        long order = 0;
+        queue.add(new Candidate(start.best, order++, start, null));
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate candidate = queue.poll();
+            if (candidate.entry() != null) {
+                if (emitted.add(candidate.entry())) {
+                    result.add(candidate.entry().display);
+                }
+                continue;
+            }
+            Node node = candidate.node();
+            for (NameEntry entry : node.entries) {
+                queue.add(new Candidate(entry.count, order++, null, entry));
+            }
+            for (Node child : node.children) {
+                queue.add(new Candidate(child.best, order++, child, null));
+            }
+        }
+        return result;
+    }
+
+    static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (String word : text.trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (!normalized.isEmpty()) {
+                normalized.append(' ');
+            }
+            normalized.append(word);
+        }
+        return normalized.toString();
+    }
+
+    private static String normalizePrefix(String prefix) {
+        String normalized = normalize(prefix);
+        boolean trailingSpace = !prefix.isEmpty() && Character.isWhitespace(prefix.charAt(prefix.length() - 1));
+        return trailingSpace && !normalized.isEmpty() ? normalized + " " : normalized;
+    }
+
+    private static List<String> suffixes(String key) {
+        List<String> suffixes = new ArrayList<>();
+        for (int i = 0; i < key.length(); i++) {
+            boolean wordStart = Character.isLetterOrDigit(key.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(key.charAt(i - 1)));
+            if (wordStart || i == 0) {
+                suffixes.add(key.substring(i));
+            }
+        }
+        return suffixes;
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        int offset = 0;
+        while (offset < prefix.length()) {
+            Node child = node.child(prefix.charAt(offset));
+            if (child == null) {
+                return null;
+            }
+            int matched = commonLength(child.label, prefix, offset);
+            if (offset + matched == prefix.length()) {
+                return child;
+            }
+            if (matched < child.label.length()) {
+                return null;
+            }
+            node = child;
+            offset += matched;
+        }
+        return node;
+    }
+
+    private void insert(String key, NameEntry entry) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int offset = 0;
+        while (offset < key.length()) {
+            Node child = node.child(key.charAt(offset));
+            if (child == null) {
+                child = new Node(key.substring(offset));
+                node.addChild(child);
+                path.add(child);
+                node = child;
+                break;
+            }
+            int matched = commonLength(child.label, key, offset);
+            if (matched < child.label.length()) {
+                Node split = new Node(child.label.substring(0, matched));
+                node.removeChild(child);
+                child.label = child.label.substring(matched);
+                split.addChild(child);
+                split.best = child.best;
+                node.addChild(split);
+                child = split;
+            }
+            path.add(child);
+            node = child;
+            offset += matched;
+        }
+        node.entries.add(entry);
+        refresh(path);
+    }
+
+    private void remove(String key, NameEntry entry) {
+        List<Node> path = path(key);
+        if (path == null) {
+            return;
+        }
+        Node node = path.getLast();
+        node.entries.remove(entry);
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            Node parent = path.get(i - 1);
+            if (current.entries.isEmpty() && current.children.length == 0) {
+                parent.removeChild(current);
+                path.remove(i);
+            } else if (current.entries.isEmpty() && current.children.length == 1) {
+                Node child = current.children[0];
+                parent.removeChild(current);
+                child.label = current.label + child.label;
+                parent.addChild(child);
+                path.remove(i);
+            }
+        }
+        refresh(path);
+    }
+
+    private List<Node> path(String key) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int offset = 0;
+        while (offset < key.length()) {
+            Node child = node.child(key.charAt(offset));
+            if (child == null || !key.startsWith(child.label, offset)) {
+                return null;
+            }
+            path.add(child);
+            node = child;
+            offset += child.label.length();
+        }
+        return path;
+    }
+
+    private static void refresh(List<Node> path) {
+        if (path == null) {
+            return;
+        }
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            int best = 0;
+            for (NameEntry entry : node.entries) {
+                best = Math.max(best, entry.count);
+            }
+            for (Node child : node.children) {
+                best = Math.max(best, child.best);
+            }
+            node.best = best;
+        }
+    }
+
+    private static int commonLength(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static class NameEntry {
+        private String display;
+        private int count;
+
+        NameEntry(String display, int count) {
+            this.display = display;
+            this.count = count;
+        }
+    }
+
+    private static class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private final List<NameEntry> entries = new ArrayList<>(1);
+        private int best;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char current = children[middle].label.charAt(0);
+                if (current < first) {
+                    low = middle + 1;
+                } else if (current > first) {
+                    high = middle - 1;
+                } else {
+                    return children[middle];
+                }
+            }
+            return null;
+        }
+
+        void addChild(Node child) {
+            int index = 0;
+            while (index < children.length && children[index].label.charAt(0) < child.label.charAt(0)) {
+                index++;
+            }
+            Node[] updated = Arrays.copyOf(children, children.length + 1);
+            System.arraycopy(children, index, updated, index + 1, children.length - index);
+            updated[index] = child;
+            children = updated;
+        }
+
+        void removeChild(Node child) {
+            int index = Arrays.asList(children).indexOf(child);
+            if (index < 0) {
+                return;
+            }
+            Node[] updated = new Node[children.length - 1];
+            System.arraycopy(children, 0, updated, 0, index);
+            System.arraycopy(children, index + 1, updated, index, children.length - index - 1);
+            children = updated;
+        }
+    }
+
+    private record Candidate(int score, long order, Node node, NameEntry entry) {
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.purge;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Физически удаляет помеченные удалёнными вещи и пользователей вместе с их бронированиями, комментариями
+ * и запросами. Строки удаляются порциями по batch-size, каждая порция - в своей транзакции, с паузой
+ * между полными порциями, чтобы не держать долгих блокировок. Вещи и пользователи удаляются последними,
+ * когда каскадное удаление в БД уже ничего не затрагивает.
+ */
+@Slf4j
+@Component
+public class DeletedDataPurger {
+    private static final List<Step> STEPS = List.of(
+            new Step("bookings", deletedParent("items", "bookings.item_id")),
+            new Step("bookings", deletedParent("users", "bookings.user_id")),
+            new Step("comments", deletedParent("items", "comments.item_id")),
+            new Step("comments", deletedParent("users", "comments.user_id")),
+            new Step("item_requests", deletedParent("users", "item_requests.user_id")),
+            new Step("items", "deleted_at is not null"),
+            new Step("users", "deleted_at is not null and not exists (select 1 from items i where i.user_id = users.id)"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final int maxBatchesPerRun;
+
+    public DeletedDataPurger(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             ObjectProvider<MeterRegistry> meterRegistry,
+                             @Value("${shareit.purge.batch-size:500}") int batchSize,
+                             @Value("${shareit.purge.pause:100}") long pauseMillis,
+                             @Value("${shareit.purge.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.purge.interval:60000}")
+    public void purgeScheduled() {
+        try {
+            purge();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось удалить помеченные удалёнными данные: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Выполняет шаги по порядку; если лимит непустых порций исчерпан, следующие шаги откладываются
+     * до следующего запуска, чтобы родительские строки не удалялись раньше зависимых.
+     */
+    public int purge() {
+        int total = 0;
+        int batches = 0;
+        boolean full = false;
+        for (Step step : STEPS) {
+            do {
+                if (batches == maxBatchesPerRun) {
+                    log.info("Удаление помеченных данных прервано после {} порций, удалено строк: {}", batches, total);
+                    return total;
+                }
+                if (full && !pause()) {
+                    return total;
+                }
+                BatchResult result = transactionTemplate.execute(status -> purgeBatch(step));
+                if (result.found() > 0) {
+                    total += result.removed();
+                    batches++;
+                }
+                full = result.found() == batchSize;
+            } while (full);
+        }
+        if (total > 0) {
+            log.info("Удалено строк, помеченных удалёнными: {}", total);
+        }
+        return total;
+    }
+
+    private BatchResult purgeBatch(Step step) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "select id from " + step.table() + " where " + step.condition() + " limit ?", Long.class, batchSize);
+        if (ids.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+        int removed = Arrays.stream(jdbcTemplate.batchUpdate("delete from " + step.table() + " where id = ?",
+                        ids.stream().map(id -> new Object[]{id}).toList()))
+                .map(count -> Math.max(count, 0))
+                .sum();
+        Counter.builder("shareit.purge.rows")
+                .description("Строк, физически удалённых после пометки")
+                .tag("table", step.table())
+                .register(meterRegistry)
+                .increment(removed);
+        return new BatchResult(ids.size(), removed);
+    }
+
+    private static String deletedParent(String table, String foreignKey) {
+        return "exists (select 1 from " + table + " d where d.id = " + foreignKey + " and d.deleted_at is not null)";
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record Step(String table, String condition) {
+    }
+
+    private record BatchResult(int found, int removed) {
+    }
+}
@@ -13,7 +13,12 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.SQLRestriction;
 
+/**
+ * Удалённый пользователь помечается в колонке DELETED_AT и скрывается из запросов,
+ * строка и связанные с ней данные удаляются в фоне.
+ */
 @Getter
 @Setter
 @ToString
@@ -23,6 +28,7 @@ import lombok.ToString;
 @Builder
 @Entity
 @Table(name = "users")
+@SQLRestriction("deleted_at is null")
 public class User {
     @Id
     @EqualsAndHashCode.Include
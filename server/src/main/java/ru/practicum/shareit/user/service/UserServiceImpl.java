@@ -3,14 +3,21 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.exception.ConditionsNotMetException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UserEmailConflictException;
+import ru.practicum.shareit.item.service.ItemCardMaintainer;
+import ru.practicum.shareit.item.service.ItemSearchCache;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.item.storage.ItemSuggestIndex;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserStorage;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -18,6 +25,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserStorage userStorage;
+    private final ItemStorage itemStorage;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final ItemCardMaintainer itemCardMaintainer;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public List<UserDto> getAll() {
@@ -36,7 +49,16 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteById(long id) {
         log.info("Запрос на удаление пользователя с id {}", id);
-        userStorage.deleteById(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            itemCardMaintainer.onUserDeleting(id);
+            itemStorage.markDeletedByUserId(id, now);
+            userStorage.markDeleted(id, now);
+        });
+        // Строки пользователя, его вещей, бронирований и комментариев удаляются в фоне (DeletedDataPurger)
+        itemSearchIndex.removeByOwner(id);
+        itemSuggestIndex.removeByOwner(id);
+        itemSearchCache.invalidateAll();
     }
 
     @Override
@@ -1,10 +1,24 @@
 package ru.practicum.shareit.user.storage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface UserStorage extends JpaRepository<User, Long> {
     List<User> findByEmailContainingIgnoreCase(String email);
+
+    /**
+     * Помечает пользователя удалённым и освобождает его электронную почту для новых пользователей.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update users " +
+            "set deleted_at = :now, email = concat('deleted-', id) " +
+            "where id = :id " +
+            "and deleted_at is null", nativeQuery = true)
+    int markDeleted(@Param("id") long id, @Param("now") LocalDateTime now);
 }
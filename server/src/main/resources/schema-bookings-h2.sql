@@ -0,0 +1,28 @@
+CREATE TABLE IF NOT EXISTS BOOKINGS
+(
+    ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    START_DATE TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    END_DATE TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    STATE VARCHAR(15) NOT NULL,
+    TIME_BUCKET VARCHAR(10),
+    USER_ID BIGINT NOT NULL REFERENCES USERS (ID) ON DELETE CASCADE ON UPDATE RESTRICT,
+    ITEM_ID BIGINT NOT NULL REFERENCES ITEMS (ID) ON DELETE CASCADE ON UPDATE RESTRICT
+);
+
+ALTER TABLE BOOKINGS ADD COLUMN IF NOT EXISTS TIME_BUCKET VARCHAR(10);
+
+CREATE INDEX IF NOT EXISTS BOOKINGS_USER_START_IDX ON BOOKINGS (USER_ID, START_DATE DESC, ID DESC);
+
+CREATE INDEX IF NOT EXISTS BOOKINGS_ITEM_START_IDX ON BOOKINGS (ITEM_ID, START_DATE DESC, ID DESC);
+
+CREATE INDEX IF NOT EXISTS BOOKINGS_USER_BUCKET_START_IDX ON BOOKINGS (USER_ID, TIME_BUCKET, START_DATE DESC, ID DESC);
+
+-- Списки владельца (фильтр по ITEMS.USER_ID) идут вложенным циклом: ITEMS_USER_IDX даёт вещи владельца,
+-- по каждой из них бронирования берутся этим индексом, затем общая сортировка top-N
+CREATE INDEX IF NOT EXISTS BOOKINGS_ITEM_BUCKET_START_IDX ON BOOKINGS (ITEM_ID, TIME_BUCKET, START_DATE DESC, ID DESC);
+
+CREATE INDEX IF NOT EXISTS BOOKINGS_BUCKET_END_IDX ON BOOKINGS (TIME_BUCKET, END_DATE);
+
+CREATE INDEX IF NOT EXISTS BOOKINGS_BUCKET_START_IDX ON BOOKINGS (TIME_BUCKET, START_DATE);
+
+CREATE INDEX IF NOT EXISTS BOOKINGS_STATE_START_IDX ON BOOKINGS (STATE, START_DATE);
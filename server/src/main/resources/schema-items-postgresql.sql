@@ -0,0 +1,6 @@
+-- Выполняется компонентом ItemFullTextSchema только в режиме поиска FULL_TEXT
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ITEMS_NAME_TRGM_IDX ON ITEMS USING GIN (LOWER(NAME) gin_trgm_ops) WHERE AVAILABLE;
+
+CREATE INDEX IF NOT EXISTS ITEMS_DESCRIPTION_TRGM_IDX ON ITEMS USING GIN (LOWER(DESCRIPTION) gin_trgm_ops) WHERE AVAILABLE;
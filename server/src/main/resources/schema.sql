@@ -3,9 +3,12 @@ CREATE TABLE IF NOT EXISTS USERS
     ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     NAME VARCHAR(100) NOT NULL,
     EMAIL VARCHAR(50) NOT NULL,
+    DELETED_AT TIMESTAMP WITHOUT TIME ZONE,
     CONSTRAINT USERS_UNIQUE_EMAIL UNIQUE (EMAIL)
 );
 
+ALTER TABLE USERS ADD COLUMN IF NOT EXISTS DELETED_AT TIMESTAMP WITHOUT TIME ZONE;
+
 CREATE TABLE IF NOT EXISTS ITEM_REQUESTS
 (
     ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -21,9 +24,21 @@ CREATE TABLE IF NOT EXISTS ITEMS
     DESCRIPTION VARCHAR(300) NOT NULL,
     AVAILABLE BOOLEAN NOT NULL,
     USER_ID BIGINT NOT NULL REFERENCES USERS (ID) ON DELETE CASCADE ON UPDATE RESTRICT,
-    REQUEST_ID BIGINT REFERENCES ITEM_REQUESTS (ID) ON DELETE SET NULL ON UPDATE RESTRICT
+    REQUEST_ID BIGINT REFERENCES ITEM_REQUESTS (ID) ON DELETE SET NULL ON UPDATE RESTRICT,
+    CATEGORY VARCHAR(20),
+    LATITUDE DOUBLE PRECISION,
+    LONGITUDE DOUBLE PRECISION,
+    DELETED_AT TIMESTAMP WITHOUT TIME ZONE
 );
 
+ALTER TABLE ITEMS ADD COLUMN IF NOT EXISTS CATEGORY VARCHAR(20);
+
+ALTER TABLE ITEMS ADD COLUMN IF NOT EXISTS LATITUDE DOUBLE PRECISION;
+
+ALTER TABLE ITEMS ADD COLUMN IF NOT EXISTS LONGITUDE DOUBLE PRECISION;
+
+ALTER TABLE ITEMS ADD COLUMN IF NOT EXISTS DELETED_AT TIMESTAMP WITHOUT TIME ZONE;
+
 CREATE TABLE IF NOT EXISTS COMMENTS
 (
     ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -33,12 +48,58 @@ CREATE TABLE IF NOT EXISTS COMMENTS
     CREATED TIMESTAMP WITHOUT TIME ZONE NOT NULL
 );
 
-CREATE TABLE IF NOT EXISTS BOOKINGS
+CREATE TABLE IF NOT EXISTS ITEM_CARDS
+(
+    ITEM_ID BIGINT PRIMARY KEY REFERENCES ITEMS (ID) ON DELETE CASCADE ON UPDATE RESTRICT,
+    OWNER_ID BIGINT NOT NULL,
+    NAME VARCHAR(200) NOT NULL,
+    DESCRIPTION VARCHAR(300) NOT NULL,
+    AVAILABLE BOOLEAN NOT NULL,
+    CATEGORY VARCHAR(20),
+    LATITUDE DOUBLE PRECISION,
+    LONGITUDE DOUBLE PRECISION,
+    LAST_BOOKING_START TIMESTAMP WITHOUT TIME ZONE,
+    LAST_BOOKING_END TIMESTAMP WITHOUT TIME ZONE,
+    NEXT_BOOKING_START TIMESTAMP WITHOUT TIME ZONE,
+    NEXT_BOOKING_END TIMESTAMP WITHOUT TIME ZONE,
+    BOOKINGS_VALID_UNTIL TIMESTAMP WITHOUT TIME ZONE,
+    COMMENT_COUNT BIGINT NOT NULL,
+    LATEST_COMMENTS VARCHAR NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS BOOKING_EVENTS
 (
     ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    START_DATE TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-    END_DATE TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-    STATE VARCHAR(15) NOT NULL,
-    USER_ID BIGINT NOT NULL REFERENCES USERS (ID) ON DELETE CASCADE ON UPDATE RESTRICT,
-    ITEM_ID BIGINT NOT NULL REFERENCES ITEMS (ID) ON DELETE CASCADE ON UPDATE RESTRICT
+    BOOKING_ID BIGINT NOT NULL,
+    ITEM_ID BIGINT NOT NULL,
+    OWNER_ID BIGINT NOT NULL,
+    BOOKER_ID BIGINT NOT NULL,
+    TYPE VARCHAR(20) NOT NULL,
+    CREATED TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    PUBLISHED_AT TIMESTAMP WITHOUT TIME ZONE
 );
+
+CREATE TABLE IF NOT EXISTS BOOKING_EVENT_DELIVERIES
+(
+    EVENT_ID BIGINT NOT NULL REFERENCES BOOKING_EVENTS (ID) ON DELETE CASCADE,
+    SINK VARCHAR(50) NOT NULL,
+    PRIMARY KEY (EVENT_ID, SINK)
+);
+
+CREATE INDEX IF NOT EXISTS ITEMS_USER_IDX ON ITEMS (USER_ID, ID);
+
+CREATE INDEX IF NOT EXISTS COMMENTS_ITEM_CREATED_IDX ON COMMENTS (ITEM_ID, CREATED, ID);
+
+CREATE INDEX IF NOT EXISTS COMMENTS_USER_IDX ON COMMENTS (USER_ID);
+
+CREATE INDEX IF NOT EXISTS ITEM_REQUESTS_USER_IDX ON ITEM_REQUESTS (USER_ID);
+
+CREATE INDEX IF NOT EXISTS USERS_DELETED_AT_IDX ON USERS (DELETED_AT);
+
+CREATE INDEX IF NOT EXISTS ITEMS_DELETED_AT_IDX ON ITEMS (DELETED_AT);
+
+CREATE INDEX IF NOT EXISTS ITEM_CARDS_OWNER_IDX ON ITEM_CARDS (OWNER_ID, ITEM_ID);
+
+CREATE INDEX IF NOT EXISTS ITEM_CARDS_BOOKINGS_VALID_UNTIL_IDX ON ITEM_CARDS (BOOKINGS_VALID_UNTIL);
+
+CREATE INDEX IF NOT EXISTS BOOKING_EVENTS_PENDING_IDX ON BOOKING_EVENTS (PUBLISHED_AT, ID);
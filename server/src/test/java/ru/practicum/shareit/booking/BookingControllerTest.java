@@ -7,14 +7,26 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesCreateDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesFrequency;
 import ru.practicum.shareit.booking.dto.BookingStateQueryParam;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -128,7 +140,7 @@ public class BookingControllerTest {
                 .status(BookingState.APPROVED)
                 .build();
 
-        when(bookingService.getAllForBooker(eq(userId), eq(BookingStateQueryParam.ALL)))
+        when(bookingService.getAllForBooker(eq(userId), eq(BookingStateQueryParam.ALL), isNull(), isNull()))
                 .thenReturn(List.of(booking));
 
         mvc.perform(get("/bookings")
@@ -145,7 +157,7 @@ public class BookingControllerTest {
                 .status(BookingState.APPROVED)
                 .build();
 
-        when(bookingService.getAllForBooker(eq(userId), eq(BookingStateQueryParam.CURRENT)))
+        when(bookingService.getAllForBooker(eq(userId), eq(BookingStateQueryParam.CURRENT), isNull(), isNull()))
                 .thenReturn(List.of(booking));
 
         mvc.perform(get("/bookings")
@@ -162,7 +174,7 @@ public class BookingControllerTest {
                 .status(BookingState.APPROVED)
                 .build();
 
-        when(bookingService.getAllForBooker(eq(userId), eq(BookingStateQueryParam.PAST)))
+        when(bookingService.getAllForBooker(eq(userId), eq(BookingStateQueryParam.PAST), isNull(), isNull()))
                 .thenReturn(List.of(booking));
 
         mvc.perform(get("/bookings")
@@ -179,7 +191,7 @@ public class BookingControllerTest {
                 .status(BookingState.APPROVED)
                 .build();
 
-        when(bookingService.getAllForBooker(eq(userId), eq(BookingStateQueryParam.FUTURE)))
+        when(bookingService.getAllForBooker(eq(userId), eq(BookingStateQueryParam.FUTURE), isNull(), isNull()))
                 .thenReturn(List.of(booking));
 
         mvc.perform(get("/bookings")
@@ -196,7 +208,7 @@ public class BookingControllerTest {
                 .status(BookingState.WAITING)
                 .build();
 
-        when(bookingService.getAllForBooker(eq(userId), eq(BookingStateQueryParam.WAITING)))
+        when(bookingService.getAllForBooker(eq(userId), eq(BookingStateQueryParam.WAITING), isNull(), isNull()))
                 .thenReturn(List.of(booking));
 
         mvc.perform(get("/bookings")
@@ -213,7 +225,7 @@ public class BookingControllerTest {
                 .status(BookingState.REJECTED)
                 .build();
 
-        when(bookingService.getAllForBooker(eq(userId), eq(BookingStateQueryParam.REJECTED)))
+        when(bookingService.getAllForBooker(eq(userId), eq(BookingStateQueryParam.REJECTED), isNull(), isNull()))
                 .thenReturn(List.of(booking));
 
         mvc.perform(get("/bookings")
@@ -230,7 +242,7 @@ public class BookingControllerTest {
                 .status(BookingState.APPROVED)
                 .build();
 
-        when(bookingService.getAllForBooker(eq(userId), eq(BookingStateQueryParam.ALL)))
+        when(bookingService.getAllForBooker(eq(userId), eq(BookingStateQueryParam.ALL), isNull(), isNull()))
                 .thenReturn(List.of(booking));
 
         mvc.perform(get("/bookings")
@@ -246,7 +258,7 @@ public class BookingControllerTest {
                 .status(BookingState.APPROVED)
                 .build();
 
-        when(bookingService.getAllForOwner(eq(userId), eq(BookingStateQueryParam.ALL)))
+        when(bookingService.getAllForOwner(eq(userId), eq(BookingStateQueryParam.ALL), isNull(), isNull()))
                 .thenReturn(List.of(booking));
 
         mvc.perform(get("/bookings/owner")
@@ -263,7 +275,7 @@ public class BookingControllerTest {
                 .status(BookingState.APPROVED)
                 .build();
 
-        when(bookingService.getAllForOwner(eq(userId), eq(BookingStateQueryParam.CURRENT)))
+        when(bookingService.getAllForOwner(eq(userId), eq(BookingStateQueryParam.CURRENT), isNull(), isNull()))
                 .thenReturn(List.of(booking));
 
         mvc.perform(get("/bookings/owner")
@@ -280,7 +292,7 @@ public class BookingControllerTest {
                 .status(BookingState.APPROVED)
                 .build();
 
-        when(bookingService.getAllForOwner(eq(userId), eq(BookingStateQueryParam.PAST)))
+        when(bookingService.getAllForOwner(eq(userId), eq(BookingStateQueryParam.PAST), isNull(), isNull()))
                 .thenReturn(List.of(booking));
 
         mvc.perform(get("/bookings/owner")
@@ -297,7 +309,7 @@ public class BookingControllerTest {
                 .status(BookingState.APPROVED)
                 .build();
 
-        when(bookingService.getAllForOwner(eq(userId), eq(BookingStateQueryParam.FUTURE)))
+        when(bookingService.getAllForOwner(eq(userId), eq(BookingStateQueryParam.FUTURE), isNull(), isNull()))
                 .thenReturn(List.of(booking));
 
         mvc.perform(get("/bookings/owner")
@@ -314,7 +326,7 @@ public class BookingControllerTest {
                 .status(BookingState.WAITING)
                 .build();
 
-        when(bookingService.getAllForOwner(eq(userId), eq(BookingStateQueryParam.WAITING)))
+        when(bookingService.getAllForOwner(eq(userId), eq(BookingStateQueryParam.WAITING), isNull(), isNull()))
                 .thenReturn(List.of(booking));
 
         mvc.perform(get("/bookings/owner")
@@ -331,7 +343,7 @@ public class BookingControllerTest {
                 .status(BookingState.REJECTED)
                 .build();
 
-        when(bookingService.getAllForOwner(eq(userId), eq(BookingStateQueryParam.REJECTED)))
+        when(bookingService.getAllForOwner(eq(userId), eq(BookingStateQueryParam.REJECTED), isNull(), isNull()))
                 .thenReturn(List.of(booking));
 
         mvc.perform(get("/bookings/owner")
@@ -348,7 +360,7 @@ public class BookingControllerTest {
                 .status(BookingState.APPROVED)
                 .build();
 
-        when(bookingService.getAllForOwner(eq(userId), eq(BookingStateQueryParam.ALL)))
+        when(bookingService.getAllForOwner(eq(userId), eq(BookingStateQueryParam.ALL), isNull(), isNull()))
                 .thenReturn(List.of(booking));
 
         mvc.perform(get("/bookings/owner")
@@ -356,4 +368,173 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(bookingId));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllForOwner_WithFullPage_ShouldReturnNextCursorHeader() throws Exception {
+        BookingResponseDto booking = BookingResponseDto.builder()
+                .id(bookingId)
+                .start(start)
+                .status(BookingState.APPROVED)
+                .build();
+
+        when(bookingService.getAllForOwner(eq(userId), eq(BookingStateQueryParam.ALL), eq("abc"), eq(1)))
+                .thenReturn(List.of(booking));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("cursor", "abc")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingCursor.NEXT_CURSOR_HEADER, BookingCursor.encode(booking)))
+                .andExpect(jsonPath("$[0].id").value(bookingId));
+    }
+
+    @Test
+    void getAllForOwner_WithCursorWithoutSize_ShouldUseDefaultPageSize() throws Exception {
+        when(bookingService.getAllForOwner(eq(userId), eq(BookingStateQueryParam.ALL), eq("abc"), eq(10)))
+                .thenReturn(List.of());
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookingCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getAllForBooker_WithLastPage_ShouldNotReturnNextCursorHeader() throws Exception {
+        when(bookingService.getAllForBooker(eq(userId), eq(BookingStateQueryParam.ALL), isNull(), eq(10)))
+                .thenReturn(List.of());
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookingCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void createBatch_ValidRequest_ShouldReturnResults() throws Exception {
+        BookingCreateDto createDto = BookingCreateDto.builder()
+                .itemId(1L)
+                .start(start)
+                .end(end)
+                .build();
+
+        when(bookingService.createBatch(eq(userId), anyList()))
+                .thenReturn(List.of(
+                        BookingBatchResultDto.builder()
+                                .index(0)
+                                .booking(BookingResponseDto.builder().id(bookingId).status(BookingState.WAITING).build())
+                                .build(),
+                        BookingBatchResultDto.builder()
+                                .index(1)
+                                .error("Бронирование не должно пересекаться с существующими бронированиями")
+                                .build()));
+
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(createDto, createDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.id").value(bookingId))
+                .andExpect(jsonPath("$[1].error").exists());
+    }
+
+    @Test
+    void createSeries_ValidRequest_ShouldReturnResults() throws Exception {
+        BookingSeriesCreateDto seriesDto = BookingSeriesCreateDto.builder()
+                .itemId(1L)
+                .start(start)
+                .end(start.plusHours(3))
+                .frequency(BookingSeriesFrequency.DAILY)
+                .count(2)
+                .build();
+
+        when(bookingService.createSeries(eq(userId), any(BookingSeriesCreateDto.class)))
+                .thenReturn(List.of(
+                        BookingBatchResultDto.builder()
+                                .index(0)
+                                .booking(BookingResponseDto.builder().id(bookingId).status(BookingState.WAITING).build())
+                                .build(),
+                        BookingBatchResultDto.builder()
+                                .index(1)
+                                .error("Бронирование не должно пересекаться с существующими бронированиями")
+                                .build()));
+
+        mvc.perform(post("/bookings/series")
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(seriesDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.id").value(bookingId))
+                .andExpect(jsonPath("$[1].error").exists());
+    }
+
+    @Test
+    void updateStatesByOwner_ValidRequest_ShouldReturnResults() throws Exception {
+        when(bookingService.updateStatesByOwner(eq(userId), eq(List.of(1L, 2L)), eq(true)))
+                .thenReturn(List.of(
+                        BookingStatusResultDto.builder().bookingId(1L).status(BookingState.APPROVED).build(),
+                        BookingStatusResultDto.builder().bookingId(2L).error("Аренда с id 2 не найдена").build()));
+
+        mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("approved", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].error").exists());
+    }
+
+    @Test
+    void getSummaryForOwner_ValidRequest_ShouldReturnCounts() throws Exception {
+        when(bookingService.getSummaryForOwner(userId))
+                .thenReturn(new BookingSummaryDto(6L, 1L, 2L, 3L, 1L, 1L));
+
+        mvc.perform(get("/bookings/owner/summary")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all").value(6))
+                .andExpect(jsonPath("$.future").value(3))
+                .andExpect(jsonPath("$.rejected").value(1));
+    }
+
+    @Test
+    void exportForOwner_ValidRequest_ShouldStreamRows() throws Exception {
+        when(bookingService.exportForOwner(userId, BookingStateQueryParam.PAST, BookingExportFormat.NDJSON))
+                .thenReturn(out -> {
+                    try {
+                        out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return 2L;
+                });
+
+        MvcResult result = mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("state", "PAST"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=bookings.ndjson"))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    void exportForOwner_UnknownUser_ShouldReturnNotFound() throws Exception {
+        when(bookingService.exportForOwner(eq(userId), any(), any()))
+                .thenThrow(new NotFoundException("Пользователь с id 1 не найден"));
+
+        mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("format", "CSV"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Пользователь с id 1 не найден"));
+    }
+}
@@ -0,0 +1,176 @@
+package ru.practicum.shareit.booking.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ComponentScan(basePackages = "ru.practicum.shareit")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingEventPublisherTest {
+    private final BookingEventStorage bookingEventStorage;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingService bookingService;
+    private final ItemStorage itemStorage;
+    private final UserStorage userStorage;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        bookingEventStorage.deleteAll();
+
+        owner = userStorage.save(new User(null, "Owner", "owner@email.com"));
+        booker = userStorage.save(new User(null, "Booker", "booker@email.com"));
+        item = itemStorage.save(new Item(null, "Item", "Description", true, owner, null, null, null));
+    }
+
+    @Test
+    void publishPending_ShouldDeliverEventsInOrderAndMarkThemPublished() {
+        RecordingSink sink = new RecordingSink("recording");
+        BookingEventPublisher publisher = publisher(sink);
+        BookingResponseDto booking = createAndApprove();
+
+        int published = publisher.publishPending();
+
+        assertThat(published).isEqualTo(2);
+        List<BookingEventDto> events = sink.received;
+        assertThat(events).extracting(BookingEventDto::getType)
+                .containsExactly(BookingEventType.CREATED, BookingEventType.APPROVED);
+        assertThat(events).allSatisfy(event -> {
+            assertThat(event.getBookingId()).isEqualTo(booking.getId());
+            assertThat(event.getOwnerId()).isEqualTo(owner.getId());
+            assertThat(event.getBookerId()).isEqualTo(booker.getId());
+        });
+        assertThat(bookingEventStorage.findPending(Limit.of(10))).isEmpty();
+        assertThat(publisher.publishPending()).isZero();
+    }
+
+    @Test
+    void publishPending_WithFailingSink_ShouldDeliverToOtherSinksOnce() {
+        RecordingSink failing = new RecordingSink("failing");
+        failing.failing = true;
+        RecordingSink healthy = new RecordingSink("healthy");
+        BookingEventPublisher publisher = publisher(failing, healthy);
+        createAndApprove();
+
+        assertThat(publisher.publishPending()).isZero();
+        assertThat(publisher.publishPending()).isZero();
+
+        assertThat(healthy.received).hasSize(2);
+        assertThat(failing.received).isEmpty();
+        assertThat(bookingEventStorage.findPending(Limit.of(10))).hasSize(2);
+
+        failing.failing = false;
+        assertThat(publisher.publishPending()).isEqualTo(2);
+
+        assertThat(failing.received).hasSize(2);
+        assertThat(healthy.received).hasSize(2);
+        assertThat(bookingEventStorage.findPending(Limit.of(10))).isEmpty();
+    }
+
+    @Test
+    void constructor_WithoutSinks_ShouldRefuseToStart() {
+        assertThatThrownBy(this::publisher).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void purgePublished_ShouldRemoveOnlyEventsPublishedBeforeRetention() {
+        BookingEventPublisher publisher = publisher(new RecordingSink("recording"));
+        createAndApprove(1);
+        createAndApprove(3);
+        createAndApprove(5);
+        List<Long> ids = bookingEventStorage.findPending(Limit.of(10)).stream().map(BookingEvent::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingEventStorage.markPublished(ids.subList(0, 5), LocalDateTime.now().minusDays(2));
+            bookingEventStorage.markPublished(ids.subList(5, 6), LocalDateTime.now());
+        });
+
+        assertThat(publisher.purgePublished()).isEqualTo(5);
+
+        assertThat(bookingEventStorage.findAll()).extracting(BookingEvent::getId).containsExactly(ids.get(5));
+        assertThat(publisher.purgePublished()).isZero();
+    }
+
+    @Test
+    void publish_WithFileSink_ShouldAppendOneJsonLinePerEvent(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("events.ndjson");
+        FileBookingEventSink sink = new FileBookingEventSink(file, new ObjectMapper().findAndRegisterModules());
+
+        sink.publish(List.of(
+                BookingEventDto.builder().id(1L).bookingId(10L).type(BookingEventType.CREATED).build(),
+                BookingEventDto.builder().id(2L).bookingId(10L).type(BookingEventType.REJECTED).build()));
+        sink.publish(List.of(BookingEventDto.builder().id(3L).bookingId(11L).type(BookingEventType.CREATED).build()));
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(1)).contains("\"type\":\"REJECTED\"");
+    }
+
+    private BookingResponseDto createAndApprove() {
+        return createAndApprove(1);
+    }
+
+    private BookingResponseDto createAndApprove(int startInDays) {
+        BookingResponseDto booking = bookingService.create(booker.getId(), BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(startInDays))
+                .end(LocalDateTime.now().plusDays(startInDays + 1))
+                .build());
+        bookingService.updateStateByOwner(owner.getId(), booking.getId(), true);
+        return booking;
+    }
+
+    private BookingEventPublisher publisher(BookingEventSink... sinks) {
+        return new BookingEventPublisher(bookingEventStorage, List.of(sinks), transactionTemplate, 2, Duration.ofDays(1));
+    }
+
+    private static class RecordingSink implements BookingEventSink {
+        private final String name;
+        private final List<BookingEventDto> received = new ArrayList<>();
+        private boolean failing;
+
+        RecordingSink(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void publish(List<BookingEventDto> events) {
+            if (failing) {
+                throw new IllegalStateException("Получатель недоступен");
+            }
+            received.addAll(events);
+        }
+    }
+}
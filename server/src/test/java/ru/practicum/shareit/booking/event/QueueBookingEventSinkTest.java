@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class QueueBookingEventSinkTest {
+    private final BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private QueueBookingEventSink sink;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        sink.stop();
+    }
+
+    @Test
+    void publish_ShouldDispatchEventsToListenersInOrder() throws InterruptedException {
+        release.countDown();
+        sink = new QueueBookingEventSink(10, received::add);
+
+        sink.publish(List.of(event(1L), event(2L)));
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(event(1L));
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(event(2L));
+    }
+
+    @Test
+    void publish_WhenQueueIsFull_ShouldFailWithoutBlocking() throws InterruptedException {
+        sink = new QueueBookingEventSink(1, event -> {
+            received.add(event);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        sink.publish(List.of(event(1L)));
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(event(1L));
+        sink.publish(List.of(event(2L)));
+
+        assertThatThrownBy(() -> sink.publish(List.of(event(3L)))).isInstanceOf(IllegalStateException.class);
+        assertThat(sink.size()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(event(2L));
+    }
+
+    private static BookingEventDto event(long id) {
+        return BookingEventDto.builder().id(id).bookingId(10L).type(BookingEventType.CREATED).build();
+    }
+}
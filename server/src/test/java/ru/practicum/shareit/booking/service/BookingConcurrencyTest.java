@@ -0,0 +1,131 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.exception.ConditionsNotMetException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 100;
+    private static final int ITEMS = 4;
+
+    private final BookingService bookingService;
+    private final BookingStorage bookingStorage;
+    private final ItemStorage itemStorage;
+    private final UserStorage userStorage;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User owner = userStorage.save(new User(null, "Owner", UUID.randomUUID() + "@email.com"));
+        users.add(owner);
+        for (int i = 0; i < THREADS; i++) {
+            users.add(userStorage.save(new User(null, "Booker" + i, UUID.randomUUID() + "@email.com")));
+        }
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemStorage.save(new Item(null, "Item" + i, "Description", true, owner, null, null, null)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        userStorage.deleteAllById(users.stream().map(User::getId).toList());
+    }
+
+    @Test
+    void create_WithConcurrentOverlappingRequests_ShouldNeverDoubleBook() throws Exception {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long bookerId = users.get(t + 1).getId();
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    LocalDateTime start = base.plusHours(random.nextInt(24 * 30));
+                    BookingCreateDto createDto = BookingCreateDto.builder()
+                            .itemId(items.get(random.nextInt(ITEMS)).getId())
+                            .start(start)
+                            .end(start.plusHours(1 + random.nextInt(48)))
+                            .build();
+                    try {
+                        bookingService.create(bookerId, createDto);
+                        created.incrementAndGet();
+                    } catch (ConditionsNotMetException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        executor.shutdown();
+
+        int attempts = THREADS * ATTEMPTS_PER_THREAD;
+        log.info("Параллельное бронирование: {} попыток за {} мс ({} оп/с), создано {}, отклонено {}",
+                attempts, elapsedMillis, attempts * 1000L / elapsedMillis, created.get(), rejected.get());
+
+        assertThat(created.get() + rejected.get()).isEqualTo(attempts);
+        assertThat(created.get()).isPositive();
+
+        Set<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toSet());
+        Map<Long, List<BookingInterval>> byItem = bookingStorage.findAllActiveIntervals().stream()
+                .filter(interval -> itemIds.contains(interval.getItemId()))
+                .collect(Collectors.groupingBy(BookingInterval::getItemId));
+        assertThat(byItem.values().stream().mapToInt(List::size).sum()).isEqualTo(created.get());
+
+        for (List<BookingInterval> intervals : byItem.values()) {
+            intervals.sort(Comparator.comparing(BookingInterval::getStart));
+            for (int i = 1; i < intervals.size(); i++) {
+                assertThat(intervals.get(i).getStart()).isAfterOrEqualTo(intervals.get(i - 1).getEnd());
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventStorage;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.event.BookingOutbox;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.exception.ConditionsNotMetException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemCardMaintainer;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ComponentScan(basePackages = "ru.practicum.shareit")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingExpirySweeperTest {
+    private final BookingExpirySweeper sweeper;
+    private final BookingService bookingService;
+    private final BookingStorage bookingStorage;
+    private final BookingEventStorage bookingEventStorage;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingSummaryCache bookingSummaryCache;
+    private final BookingOutbox bookingOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemStorage itemStorage;
+    private final UserStorage userStorage;
+    private final UserService userService;
+    private final ItemLockStripes itemLockStripes;
+    private final ItemCardMaintainer itemCardMaintainer;
+    private final BookingExporter bookingExporter;
+
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userStorage.save(new User(null, "Owner", "owner@email.com"));
+        booker = userStorage.save(new User(null, "Booker", "booker@email.com"));
+        item = itemStorage.save(new Item(null, "Item", "Description", true, owner, null, null, null));
+    }
+
+    @Test
+    void sweep_ShouldExpireOnlyStaleWaitingBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking stale = save(now.minusHours(2), now.plusHours(2), BookingState.WAITING);
+        Booking upcoming = save(now.plusDays(1), now.plusDays(2), BookingState.WAITING);
+        Booking approved = save(now.minusDays(3), now.minusDays(2), BookingState.APPROVED);
+
+        int expired = sweeper.sweep();
+
+        assertThat(expired).isEqualTo(1);
+        assertThat(bookingStorage.findById(stale.getId()).orElseThrow().getStatus()).isEqualTo(BookingState.EXPIRED);
+        assertThat(bookingStorage.findById(upcoming.getId()).orElseThrow().getStatus()).isEqualTo(BookingState.WAITING);
+        assertThat(bookingStorage.findById(approved.getId()).orElseThrow().getStatus()).isEqualTo(BookingState.APPROVED);
+        assertThat(bookingEventStorage.findAll())
+                .filteredOn(event -> event.getBookingId().equals(stale.getId()))
+                .extracting(BookingEvent::getType)
+                .containsExactly(BookingEventType.EXPIRED);
+    }
+
+    @Test
+    void sweep_ShouldReleaseIntervalForNewBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        save(now.minusHours(1), now.plusHours(5), BookingState.WAITING);
+        BookingCreateDto overlapping = BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(now.plusHours(1))
+                .end(now.plusHours(2))
+                .build();
+        User another = userStorage.save(new User(null, "Another", "another@email.com"));
+
+        sweeper.sweep();
+
+        assertThat(bookingService.create(another.getId(), overlapping).getStatus()).isEqualTo(BookingState.WAITING);
+    }
+
+    @Test
+    void sweep_ShouldProcessInChunksAndRecordRowsPerRun() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            save(now.minusDays(10 - i), now.minusDays(9 - i), BookingState.WAITING);
+        }
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BookingExpirySweeper rejectingSweeper = new BookingExpirySweeper(bookingStorage, bookingIntervalIndex,
+                bookingSummaryCache, bookingOutbox, transactionTemplate,
+                new StaticListableBeanFactory(Map.of("registry", registry)).getBeanProvider(MeterRegistry.class),
+                BookingState.REJECTED, 2, 100);
+
+        assertThat(rejectingSweeper.sweep()).isEqualTo(5);
+        assertThat(rejectingSweeper.sweep()).isZero();
+
+        assertThat(bookingStorage.findAll()).extracting(Booking::getStatus).containsOnly(BookingState.REJECTED);
+        DistributionSummary rows = registry.get("shareit.booking.expiry.rows").summary();
+        assertThat(rows.count()).isEqualTo(2);
+        assertThat(rows.totalAmount()).isEqualTo(5);
+    }
+
+    @Test
+    void updateStateByOwner_WhenExpiredAfterRead_ShouldNotApprove() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking stale = save(now.minusHours(2), now.plusHours(2), BookingState.WAITING);
+        // Просрочка срабатывает между чтением бронирования и его подтверждением
+        BookingStorage racingStorage = (BookingStorage) Proxy.newProxyInstance(BookingStorage.class.getClassLoader(),
+                new Class<?>[]{BookingStorage.class}, (proxy, method, args) -> {
+                    try {
+                        Object result = method.invoke(bookingStorage, args);
+                        if (method.getName().equals("findByIdWithUserAndItemWithOwner")) {
+                            sweeper.sweep();
+                        }
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        BookingService racingService = new BookingServiceImpl(racingStorage, bookingIntervalIndex, itemStorage,
+                userStorage, userService, itemLockStripes, transactionTemplate, bookingSummaryCache, bookingOutbox,
+                itemCardMaintainer, bookingExporter);
+
+        assertThatThrownBy(() -> racingService.updateStateByOwner(item.getUser().getId(), stale.getId(), true))
+                .isInstanceOf(ConditionsNotMetException.class);
+
+        assertThat(bookingStorage.findById(stale.getId()).orElseThrow().getStatus()).isEqualTo(BookingState.EXPIRED);
+        assertThat(bookingEventStorage.findAll())
+                .filteredOn(event -> event.getBookingId().equals(stale.getId()))
+                .extracting(BookingEvent::getType)
+                .containsExactly(BookingEventType.EXPIRED);
+    }
+
+    private Booking save(LocalDateTime start, LocalDateTime end, BookingState status) {
+        return bookingStorage.save(Booking.builder()
+                .item(item)
+                .user(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build());
+    }
+}
@@ -8,24 +8,37 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.ComponentScan;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesCreateDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesFrequency;
 import ru.practicum.shareit.booking.dto.BookingStateQueryParam;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.storage.BookingStorage;
 import ru.practicum.shareit.exception.ConditionsNotMetException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemCard;
+import ru.practicum.shareit.item.service.ItemCardMaintainer;
 import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserStorage;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 
 @DataJpaTest
 @ComponentScan(basePackages = "ru.practicum.shareit")
@@ -37,6 +50,8 @@ public class BookingServiceImplTest {
 
     private final ItemStorage itemStorage;
 
+    private final ItemCardMaintainer itemCardMaintainer;
+
     private final UserStorage userStorage;
 
     private final EntityManager em;
@@ -60,8 +75,8 @@ public class BookingServiceImplTest {
         booker1 = userStorage.save(new User(null, "Booker1", "booker1@email.com"));
         booker2 = userStorage.save(new User(null, "Booker2", "booker2@email.com"));
         stranger = userStorage.save(new User(null, "stranger@email.com", "Stranger"));
-        item1 = itemStorage.save(new Item(null, "Item", "Description", true, owner, null));
-        item2 = itemStorage.save(new Item(null, "Item", "Description", false, owner, null));
+        item1 = itemStorage.save(new Item(null, "Item", "Description", true, owner, null, null, null));
+        item2 = itemStorage.save(new Item(null, "Item", "Description", false, owner, null, null, null));
         createDto1 = BookingCreateDto.builder()
                 .start(LocalDateTime.now().plusDays(1))
                 .end(LocalDateTime.now().plusDays(2))
@@ -126,7 +141,7 @@ public class BookingServiceImplTest {
         bookingService.create(booker1.getId(), createDto1);
         bookingService.create(booker1.getId(), createDto2);
 
-        List<BookingResponseDto> result = bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.ALL);
+        List<BookingResponseDto> result = bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.ALL, null, 10);
 
         assertThat(result).hasSize(2);
 
@@ -145,7 +160,7 @@ public class BookingServiceImplTest {
 
         bookingService.create(booker1.getId(), currentDto);
 
-        List<BookingResponseDto> result = bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.CURRENT);
+        List<BookingResponseDto> result = bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.CURRENT, null, 10);
 
         assertThat(result).hasSize(1);
         assertThat(result.getFirst().getBooker().getId()).isEqualTo(booker1.getId());
@@ -161,7 +176,7 @@ public class BookingServiceImplTest {
 
         bookingService.create(booker1.getId(), pastDto);
 
-        List<BookingResponseDto> result = bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.PAST);
+        List<BookingResponseDto> result = bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.PAST, null, 10);
 
         assertThat(result).hasSize(1);
         assertThat(result.getFirst().getBooker().getId()).isEqualTo(booker1.getId());
@@ -171,7 +186,7 @@ public class BookingServiceImplTest {
     void getAllForBooker_WithFutureState_ShouldReturnFutureBookings() {
         bookingService.create(booker1.getId(), createDto1);
 
-        List<BookingResponseDto> result = bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.FUTURE);
+        List<BookingResponseDto> result = bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.FUTURE, null, 10);
 
         assertThat(result).hasSize(1);
         assertThat(result.getFirst().getBooker().getId()).isEqualTo(booker1.getId());
@@ -181,7 +196,7 @@ public class BookingServiceImplTest {
     void getAllForBooker_WithWaitingState_ShouldReturnWaitingBookings() {
         bookingService.create(booker1.getId(), createDto1);
 
-        List<BookingResponseDto> result = bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.WAITING);
+        List<BookingResponseDto> result = bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.WAITING, null, 10);
 
         assertThat(result).hasSize(1);
         assertThat(result.getFirst().getStatus()).isEqualTo(BookingState.WAITING);
@@ -192,7 +207,7 @@ public class BookingServiceImplTest {
         BookingResponseDto created = bookingService.create(booker1.getId(), createDto1);
         bookingService.updateStateByOwner(owner.getId(), created.getId(), false);
 
-        List<BookingResponseDto> result = bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.REJECTED);
+        List<BookingResponseDto> result = bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.REJECTED, null, 10);
 
         assertThat(result).hasSize(1);
         assertThat(result.getFirst().getStatus()).isEqualTo(BookingState.REJECTED);
@@ -200,14 +215,14 @@ public class BookingServiceImplTest {
 
     @Test
     void getAllForBooker_WithNonExistingUser_ShouldThrowException() {
-        assertThatThrownBy(() -> bookingService.getAllForBooker(999L, BookingStateQueryParam.ALL))
+        assertThatThrownBy(() -> bookingService.getAllForBooker(999L, BookingStateQueryParam.ALL, null, 10))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("не найден");
     }
 
     @Test
     void getAllForBooker_WithNoBookings_ShouldReturnEmptyList() {
-        List<BookingResponseDto> result = bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.ALL);
+        List<BookingResponseDto> result = bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.ALL, null, 10);
 
         assertThat(result).isEmpty();
     }
@@ -217,7 +232,7 @@ public class BookingServiceImplTest {
         bookingService.create(booker1.getId(), createDto1);
         bookingService.create(booker2.getId(), createDto2);
 
-        List<BookingResponseDto> result = bookingService.getAllForOwner(owner.getId(), BookingStateQueryParam.ALL);
+        List<BookingResponseDto> result = bookingService.getAllForOwner(owner.getId(), BookingStateQueryParam.ALL, null, 10);
         assertThat(result.size()).isEqualTo(2);
 
         TypedQuery<Long> query = em.createQuery("Select distinct(i.user.id) from Item i join i.user where i.id in :ids", Long.class);
@@ -238,7 +253,7 @@ public class BookingServiceImplTest {
 
         bookingService.create(booker1.getId(), currentDto);
 
-        List<BookingResponseDto> result = bookingService.getAllForOwner(owner.getId(), BookingStateQueryParam.CURRENT);
+        List<BookingResponseDto> result = bookingService.getAllForOwner(owner.getId(), BookingStateQueryParam.CURRENT, null, 10);
         assertThat(result.size()).isEqualTo(1);
 
         TypedQuery<Long> query = em.createQuery("Select i.user.id from Item i join i.user where i.id = :id", Long.class);
@@ -248,6 +263,15 @@ public class BookingServiceImplTest {
         assertThat(ownerId).isEqualTo(owner.getId());
     }
 
+    @Test
+    void getAllForOwner_WithCurrentState_ShouldSkipFutureBookings() {
+        bookingService.create(booker1.getId(), createDto1);
+
+        List<BookingResponseDto> result = bookingService.getAllForOwner(owner.getId(), BookingStateQueryParam.CURRENT, null, 10);
+
+        assertThat(result).isEmpty();
+    }
+
     @Test
     void getAllForOwner_WithPastState_ShouldReturnPastBookings() {
         BookingCreateDto pastDto = BookingCreateDto.builder()
@@ -258,7 +282,7 @@ public class BookingServiceImplTest {
 
         bookingService.create(booker1.getId(), pastDto);
 
-        List<BookingResponseDto> result = bookingService.getAllForOwner(owner.getId(), BookingStateQueryParam.PAST);
+        List<BookingResponseDto> result = bookingService.getAllForOwner(owner.getId(), BookingStateQueryParam.PAST, null, 10);
         assertThat(result.size()).isEqualTo(1);
 
         TypedQuery<Long> query = em.createQuery("Select i.user.id from Item i join i.user where i.id = :id", Long.class);
@@ -272,7 +296,7 @@ public class BookingServiceImplTest {
     void getAllForOwner_WithFutureState_ShouldReturnFutureBookings() {
         bookingService.create(booker1.getId(), createDto1);
 
-        List<BookingResponseDto> result = bookingService.getAllForOwner(owner.getId(), BookingStateQueryParam.FUTURE);
+        List<BookingResponseDto> result = bookingService.getAllForOwner(owner.getId(), BookingStateQueryParam.FUTURE, null, 10);
         assertThat(result.size()).isEqualTo(1);
 
         TypedQuery<Long> query = em.createQuery("Select i.user.id from Item i join i.user where i.id = :id", Long.class);
@@ -286,7 +310,7 @@ public class BookingServiceImplTest {
     void getAllForOwner_WithWaitingState_ShouldReturnWaitingBookings() {
         bookingService.create(booker1.getId(), createDto1);
 
-        List<BookingResponseDto> result = bookingService.getAllForOwner(owner.getId(), BookingStateQueryParam.WAITING);
+        List<BookingResponseDto> result = bookingService.getAllForOwner(owner.getId(), BookingStateQueryParam.WAITING, null, 10);
         assertThat(result.size()).isEqualTo(1);
 
         assertThat(result.getFirst().getStatus()).isEqualTo(BookingState.WAITING);
@@ -297,7 +321,7 @@ public class BookingServiceImplTest {
         BookingResponseDto created = bookingService.create(booker1.getId(), createDto1);
         bookingService.updateStateByOwner(owner.getId(), created.getId(), false);
 
-        List<BookingResponseDto> result = bookingService.getAllForOwner(owner.getId(), BookingStateQueryParam.REJECTED);
+        List<BookingResponseDto> result = bookingService.getAllForOwner(owner.getId(), BookingStateQueryParam.REJECTED, null, 10);
         assertThat(result.size()).isEqualTo(1);
 
         assertThat(result.getFirst().getStatus()).isEqualTo(BookingState.REJECTED);
@@ -305,14 +329,56 @@ public class BookingServiceImplTest {
 
     @Test
     void getAllForOwner_WithNonExistingUser_ShouldThrowException() {
-        assertThatThrownBy(() -> bookingService.getAllForOwner(999L, BookingStateQueryParam.ALL))
+        assertThatThrownBy(() -> bookingService.getAllForOwner(999L, BookingStateQueryParam.ALL, null, 10))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("не найден");
     }
 
+    @Test
+    void exportForOwner_AsNdjson_ShouldWriteOneLinePerBooking() {
+        BookingResponseDto first = bookingService.create(booker1.getId(), createDto1);
+        BookingResponseDto second = bookingService.create(booker2.getId(), createDto2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = bookingService.exportForOwner(owner.getId(), BookingStateQueryParam.ALL, BookingExportFormat.NDJSON)
+                .writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"id\":" + second.getId() + ",");
+        assertThat(lines[1]).startsWith("{\"id\":" + first.getId() + ",");
+        assertThat(lines[1]).contains("\"status\":\"WAITING\"");
+    }
+
+    @Test
+    void exportForOwner_AsCsv_ShouldWriteHeaderAndEscapeValues() {
+        Item quoted = itemStorage.save(new Item(null, "Drill, \"Pro\"", "Description", true, owner, null, null, null));
+        BookingResponseDto created = bookingService.create(booker1.getId(), BookingCreateDto.builder()
+                .start(createDto1.getStart())
+                .end(createDto1.getEnd())
+                .itemId(quoted.getId())
+                .build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        bookingService.exportForOwner(owner.getId(), BookingStateQueryParam.FUTURE, BookingExportFormat.CSV).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("id,start,end,status,");
+        assertThat(lines[1]).startsWith(created.getId() + ",");
+        assertThat(lines[1]).contains(",\"Drill, \"\"Pro\"\"\",");
+    }
+
+    @Test
+    void exportForOwner_WithNonExistingUser_ShouldThrowException() {
+        assertThatThrownBy(() -> bookingService.exportForOwner(999L, BookingStateQueryParam.ALL, BookingExportFormat.NDJSON))
+                .isInstanceOf(NotFoundException.class);
+    }
+
     @Test
     void getAllForOwner_WithNoBookings_ShouldReturnEmptyList() {
-        List<BookingResponseDto> result = bookingService.getAllForOwner(owner.getId(), BookingStateQueryParam.ALL);
+        List<BookingResponseDto> result = bookingService.getAllForOwner(owner.getId(), BookingStateQueryParam.ALL, null, 10);
 
         assertThat(result).isEmpty();
     }
@@ -326,6 +392,19 @@ public class BookingServiceImplTest {
         assertThat(result.getStatus()).isEqualTo(BookingState.APPROVED);
     }
 
+    @Test
+    void updateStateByOwner_WithApproval_ShouldRefreshItemCard() {
+        BookingResponseDto created = bookingService.create(booker1.getId(), createDto1);
+        assertThat(itemCardMaintainer.get(item1.getId()).getNextBookingStart()).isNull();
+
+        bookingService.updateStateByOwner(owner.getId(), created.getId(), true);
+
+        ItemCard card = itemCardMaintainer.get(item1.getId());
+        assertThat(card.getNextBookingStart()).isCloseTo(createDto1.getStart(), within(1, ChronoUnit.MILLIS));
+        assertThat(card.getNextBookingEnd()).isCloseTo(createDto1.getEnd(), within(1, ChronoUnit.MILLIS));
+        assertThat(card.getBookingsValidUntil()).isEqualTo(card.getNextBookingStart());
+    }
+
     @Test
     void updateStateByOwner_ShouldRejectBooking() {
         BookingResponseDto created = bookingService.create(booker1.getId(), createDto1);
@@ -461,6 +540,21 @@ public class BookingServiceImplTest {
                 .hasMessageContaining("не должно пересекаться");
     }
 
+    @Test
+    void create_WithConflictingBookingSavedBypassingService_ShouldThrowException() {
+        bookingStorage.save(Booking.builder()
+                .item(item1)
+                .user(booker1)
+                .start(createDto1.getStart())
+                .end(createDto1.getEnd())
+                .status(BookingState.APPROVED)
+                .build());
+
+        assertThatThrownBy(() -> bookingService.create(booker2.getId(), createDto1))
+                .isInstanceOf(ConditionsNotMetException.class)
+                .hasMessageContaining("не должно пересекаться");
+    }
+
     @Test
     void create_WithNoOverlap_ShouldSuccess() {
         bookingService.create(booker1.getId(), createDto1);
@@ -469,6 +563,47 @@ public class BookingServiceImplTest {
         assertThat(result).isNotNull();
     }
 
+    @Test
+    void create_BackToBackWithExisting_ShouldSuccess() {
+        // Даты без долей секунды, чтобы округление TIMESTAMP в базе не сдвинуло границы
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = start.plusDays(1);
+        bookingService.create(booker1.getId(), BookingCreateDto.builder()
+                .start(start)
+                .end(end)
+                .itemId(item1.getId())
+                .build());
+
+        BookingCreateDto startsAtEnd = BookingCreateDto.builder()
+                .start(end) // Начинается в момент окончания существующего
+                .end(end.plusDays(1))
+                .itemId(item1.getId())
+                .build();
+        BookingCreateDto endsAtStart = BookingCreateDto.builder()
+                .start(start.minusHours(12))
+                .end(start) // Заканчивается в момент начала существующего
+                .itemId(item1.getId())
+                .build();
+
+        assertThat(bookingService.create(booker2.getId(), startsAtEnd).getStatus()).isEqualTo(BookingState.WAITING);
+        assertThat(bookingService.create(booker2.getId(), endsAtStart).getStatus()).isEqualTo(BookingState.WAITING);
+    }
+
+    @Test
+    void create_OverlappingBoundaryByOneSecond_ShouldThrowException() {
+        bookingService.create(booker1.getId(), createDto1);
+
+        BookingCreateDto conflictDto = BookingCreateDto.builder()
+                .start(createDto1.getEnd().minusSeconds(1))
+                .end(createDto1.getEnd().plusDays(1))
+                .itemId(item1.getId())
+                .build();
+
+        assertThatThrownBy(() -> bookingService.create(booker2.getId(), conflictDto))
+                .isInstanceOf(ConditionsNotMetException.class)
+                .hasMessageContaining("не должно пересекаться");
+    }
+
     @Test
     void create_WithRejectedStatus_ShouldNotCauseConflict() {
         BookingResponseDto rejected = bookingService.create(booker1.getId(), createDto1);
@@ -483,4 +618,258 @@ public class BookingServiceImplTest {
         BookingResponseDto result = bookingService.create(booker2.getId(), newBooking);
         assertThat(result).isNotNull();
     }
+
+    @Test
+    void getAllForBooker_WithPageSize_ShouldWalkPagesByCursor() {
+        createDto1.setStart(createDto1.getStart().truncatedTo(ChronoUnit.SECONDS));
+        createDto2.setStart(createDto2.getStart().truncatedTo(ChronoUnit.SECONDS));
+        BookingResponseDto first = bookingService.create(booker1.getId(), createDto2);
+        BookingResponseDto second = bookingService.create(booker1.getId(), createDto1);
+        bookingService.updateStateByOwner(owner.getId(), second.getId(), false);
+        BookingResponseDto third = bookingService.create(booker1.getId(), BookingCreateDto.builder()
+                .start(createDto1.getStart())
+                .end(createDto1.getEnd())
+                .itemId(item1.getId())
+                .build());
+
+        List<BookingResponseDto> page1 = bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.ALL, null, 2);
+        List<BookingResponseDto> page2 = bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.ALL,
+                BookingCursor.encode(page1.getLast()), 2);
+
+        assertThat(page1).extracting(BookingResponseDto::getId).containsExactly(first.getId(), third.getId());
+        assertThat(page2).extracting(BookingResponseDto::getId).containsExactly(second.getId());
+    }
+
+    @Test
+    void getAllForBooker_WithoutPageSize_ShouldReturnAllBookings() {
+        bookingService.create(booker1.getId(), createDto1);
+        bookingService.create(booker1.getId(), createDto2);
+
+        List<BookingResponseDto> result = bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.ALL, null, null);
+
+        assertThat(result).hasSize(2);
+    }
+
+    @Test
+    void getAllForOwner_WithPageSize_ShouldLimitResult() {
+        bookingService.create(booker1.getId(), createDto1);
+        BookingResponseDto latest = bookingService.create(booker2.getId(), createDto2);
+
+        List<BookingResponseDto> result = bookingService.getAllForOwner(owner.getId(), BookingStateQueryParam.ALL, null, 1);
+
+        assertThat(result).extracting(BookingResponseDto::getId).containsExactly(latest.getId());
+    }
+
+    @Test
+    void getAllForBooker_WithInvalidCursor_ShouldThrowException() {
+        assertThatThrownBy(() -> bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.ALL, "invalid", 10))
+                .isInstanceOf(ConditionsNotMetException.class)
+                .hasMessageContaining("курсора");
+    }
+
+    @Test
+    void getAllForOwner_WithNonPositiveSize_ShouldThrowException() {
+        assertThatThrownBy(() -> bookingService.getAllForOwner(owner.getId(), BookingStateQueryParam.ALL, null, 0))
+                .isInstanceOf(ConditionsNotMetException.class)
+                .hasMessageContaining("от 1 до 100");
+    }
+
+    @Test
+    void getAllForBooker_WithTooLargeSize_ShouldThrowException() {
+        assertThatThrownBy(() -> bookingService.getAllForBooker(booker1.getId(), BookingStateQueryParam.ALL, null, 101))
+                .isInstanceOf(ConditionsNotMetException.class)
+                .hasMessageContaining("от 1 до 100");
+    }
+
+    @Test
+    void createBatch_ShouldReturnResultForEveryEntry() {
+        BookingCreateDto overlapping = BookingCreateDto.builder()
+                .start(createDto1.getStart().plusHours(1))
+                .end(createDto1.getEnd().plusHours(1))
+                .itemId(item1.getId())
+                .build();
+        BookingCreateDto unavailable = BookingCreateDto.builder()
+                .start(createDto1.getStart())
+                .end(createDto1.getEnd())
+                .itemId(item2.getId())
+                .build();
+        BookingCreateDto missingItem = BookingCreateDto.builder()
+                .start(createDto1.getStart())
+                .end(createDto1.getEnd())
+                .itemId(999L)
+                .build();
+
+        List<BookingBatchResultDto> result = bookingService.createBatch(booker1.getId(),
+                List.of(createDto1, overlapping, unavailable, missingItem, createDto2));
+
+        assertThat(result).extracting(BookingBatchResultDto::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(result.get(0).getBooking().getStatus()).isEqualTo(BookingState.WAITING);
+        assertThat(result.get(1).getError()).contains("пересекаться");
+        assertThat(result.get(2).getError()).contains("не доступна");
+        assertThat(result.get(3).getError()).contains("не найдена");
+        assertThat(result.get(4).getBooking().getId()).isNotNull();
+
+        List<Long> storedIds = em.createQuery("select b.id from Booking b where b.user.id = :id", Long.class)
+                .setParameter("id", booker1.getId())
+                .getResultList();
+        assertThat(storedIds).containsExactlyInAnyOrder(result.get(0).getBooking().getId(), result.get(4).getBooking().getId());
+    }
+
+    @Test
+    void createBatch_WithConflictInStorage_ShouldRejectOnlyConflictingEntry() {
+        bookingService.create(booker2.getId(), createDto1);
+
+        List<BookingBatchResultDto> result = bookingService.createBatch(booker1.getId(), List.of(createDto1, createDto2));
+
+        assertThat(result.get(0).getBooking()).isNull();
+        assertThat(result.get(0).getError()).contains("пересекаться");
+        assertThat(result.get(1).getError()).isNull();
+        assertThat(result.get(1).getBooking().getItem().getId()).isEqualTo(item1.getId());
+    }
+
+    @Test
+    void createSeries_ShouldCreateOccurrencesAndRejectConflictingOnes() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        bookingService.create(booker2.getId(), BookingCreateDto.builder()
+                .start(start.plusWeeks(2).plusHours(1))
+                .end(start.plusWeeks(2).plusHours(2))
+                .itemId(item1.getId())
+                .build());
+        BookingSeriesCreateDto seriesDto = BookingSeriesCreateDto.builder()
+                .itemId(item1.getId())
+                .start(start)
+                .end(start.plusHours(3))
+                .frequency(BookingSeriesFrequency.WEEKLY)
+                .until(start.plusWeeks(25))
+                .build();
+
+        List<BookingBatchResultDto> result = bookingService.createSeries(booker1.getId(), seriesDto);
+
+        assertThat(result).hasSize(26);
+        assertThat(result.get(2).getError()).contains("пересекаться");
+        assertThat(result.stream().filter(entry -> entry.getBooking() != null)).hasSize(25);
+        assertThat(result.get(25).getBooking().getStart()).isEqualTo(start.plusWeeks(25));
+        assertThat(result.get(25).getBooking().getEnd()).isEqualTo(start.plusWeeks(25).plusHours(3));
+        assertThat(bookingStorage.findAll().stream().filter(b -> b.getUser().getId().equals(booker1.getId())))
+                .hasSize(25);
+    }
+
+    @Test
+    void createSeries_WithOverlappingOccurrences_ShouldThrowException() {
+        BookingSeriesCreateDto seriesDto = BookingSeriesCreateDto.builder()
+                .itemId(item1.getId())
+                .start(createDto1.getStart())
+                .end(createDto1.getStart().plusDays(2))
+                .frequency(BookingSeriesFrequency.DAILY)
+                .count(3)
+                .build();
+
+        assertThatThrownBy(() -> bookingService.createSeries(booker1.getId(), seriesDto))
+                .isInstanceOf(ConditionsNotMetException.class)
+                .hasMessageContaining("между собой");
+    }
+
+    @Test
+    void createSeries_WithTooManyOccurrences_ShouldThrowException() {
+        BookingSeriesCreateDto seriesDto = BookingSeriesCreateDto.builder()
+                .itemId(item1.getId())
+                .start(createDto1.getStart())
+                .end(createDto1.getStart().plusHours(1))
+                .frequency(BookingSeriesFrequency.DAILY)
+                .until(createDto1.getStart().plusYears(5))
+                .build();
+
+        assertThatThrownBy(() -> bookingService.createSeries(booker1.getId(), seriesDto))
+                .isInstanceOf(ConditionsNotMetException.class)
+                .hasMessageContaining("1000");
+    }
+
+    @Test
+    void createSeries_ForUnavailableItem_ShouldThrowException() {
+        BookingSeriesCreateDto seriesDto = BookingSeriesCreateDto.builder()
+                .itemId(item2.getId())
+                .start(createDto1.getStart())
+                .end(createDto1.getEnd())
+                .frequency(BookingSeriesFrequency.WEEKLY)
+                .count(2)
+                .build();
+
+        assertThatThrownBy(() -> bookingService.createSeries(booker1.getId(), seriesDto))
+                .isInstanceOf(ConditionsNotMetException.class)
+                .hasMessageContaining("не доступна");
+    }
+
+    @Test
+    void updateStatesByOwner_ShouldReturnOutcomeForEveryId() {
+        BookingResponseDto waiting = bookingService.create(booker1.getId(), createDto1);
+        BookingResponseDto alreadyApproved = bookingService.create(booker1.getId(), createDto2);
+        bookingService.updateStateByOwner(owner.getId(), alreadyApproved.getId(), true);
+
+        List<BookingStatusResultDto> result = bookingService.updateStatesByOwner(owner.getId(),
+                List.of(waiting.getId(), alreadyApproved.getId(), 999L, waiting.getId()), true);
+
+        assertThat(result).extracting(BookingStatusResultDto::getBookingId)
+                .containsExactly(waiting.getId(), alreadyApproved.getId(), 999L);
+        assertThat(result.get(0).getStatus()).isEqualTo(BookingState.APPROVED);
+        assertThat(result.get(0).getError()).isNull();
+        assertThat(result.get(1).getError()).contains("WAITING");
+        assertThat(result.get(2).getError()).contains("не найдена");
+        assertThat(bookingStorage.findById(waiting.getId()).orElseThrow().getStatus()).isEqualTo(BookingState.APPROVED);
+    }
+
+    @Test
+    void updateStatesByOwner_WithNonOwner_ShouldLeaveBookingsUntouched() {
+        BookingResponseDto waiting = bookingService.create(booker1.getId(), createDto1);
+
+        List<BookingStatusResultDto> result = bookingService.updateStatesByOwner(stranger.getId(), List.of(waiting.getId()), false);
+
+        assertThat(result.getFirst().getError()).contains("не является владельцем");
+        assertThat(bookingStorage.findById(waiting.getId()).orElseThrow().getStatus()).isEqualTo(BookingState.WAITING);
+    }
+
+    @Test
+    void updateStatesByOwner_WithRejection_ShouldFreeTheSlot() {
+        BookingResponseDto waiting = bookingService.create(booker1.getId(), createDto1);
+
+        bookingService.updateStatesByOwner(owner.getId(), List.of(waiting.getId()), false);
+
+        assertThat(bookingService.create(booker2.getId(), createDto1).getStatus()).isEqualTo(BookingState.WAITING);
+    }
+
+    @Test
+    void getSummaryForOwner_ShouldCountBookingsByState() {
+        LocalDateTime now = LocalDateTime.now();
+        bookingStorage.saveAll(List.of(
+                Booking.builder().item(item1).user(booker1).start(now.minusDays(3)).end(now.minusDays(2))
+                        .status(BookingState.APPROVED).build(),
+                Booking.builder().item(item1).user(booker1).start(now.minusHours(1)).end(now.plusHours(1))
+                        .status(BookingState.APPROVED).build(),
+                Booking.builder().item(item1).user(booker2).start(now.plusDays(1)).end(now.plusDays(2))
+                        .status(BookingState.WAITING).build(),
+                Booking.builder().item(item1).user(booker2).start(now.plusDays(3)).end(now.plusDays(4))
+                        .status(BookingState.REJECTED).build()));
+
+        BookingSummaryDto result = bookingService.getSummaryForOwner(owner.getId());
+
+        assertThat(result).isEqualTo(new BookingSummaryDto(4L, 1L, 1L, 2L, 1L, 1L));
+    }
+
+    @Test
+    void getSummaryForOwner_AfterCreateAndApprove_ShouldNotReturnStaleCounts() {
+        assertThat(bookingService.getSummaryForOwner(owner.getId()).getAll()).isZero();
+
+        BookingResponseDto booking = bookingService.create(booker1.getId(), createDto1);
+        assertThat(bookingService.getSummaryForOwner(owner.getId()).getWaiting()).isEqualTo(1L);
+
+        bookingService.updateStateByOwner(owner.getId(), booking.getId(), false);
+        BookingSummaryDto result = bookingService.getSummaryForOwner(owner.getId());
+        assertThat(result.getWaiting()).isZero();
+        assertThat(result.getRejected()).isEqualTo(1L);
+    }
+
+    @Test
+    void getSummaryForOwner_WithNonExistingUser_ShouldThrowException() {
+        assertThatThrownBy(() -> bookingService.getSummaryForOwner(999L))
+                .isInstanceOf(NotFoundException.class);
+    }
 }
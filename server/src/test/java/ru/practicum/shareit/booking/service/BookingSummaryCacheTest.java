@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookingSummaryCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_ShouldServeCachedSummaryUntilInvalidated() {
+        BookingSummaryCache cache = new BookingSummaryCache(Duration.ofMinutes(1), 100);
+
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+        assertThat(loads.get()).isEqualTo(1);
+
+        cache.invalidate(1L);
+        cache.get(1L, this::load);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void get_WithInvalidationDuringLoad_ShouldNotCacheLoadedSummary() {
+        BookingSummaryCache cache = new BookingSummaryCache(Duration.ofMinutes(1), 100);
+
+        BookingSummaryDto stale = cache.get(1L, () -> {
+            BookingSummaryDto summary = load();
+            cache.invalidate(1L);
+            return summary;
+        });
+        BookingSummaryDto fresh = cache.get(1L, this::load);
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(fresh.getAll()).isNotEqualTo(stale.getAll());
+    }
+
+    @Test
+    void get_ShouldKeepAtMostMaxEntries() {
+        BookingSummaryCache cache = new BookingSummaryCache(Duration.ofMinutes(1), 2);
+
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        cache.get(1L, this::load);
+        cache.get(3L, this::load);
+
+        assertThat(cache.size()).isEqualTo(2);
+        cache.get(1L, this::load);
+        assertThat(loads.get()).isEqualTo(3);
+        cache.get(2L, this::load);
+        assertThat(loads.get()).isEqualTo(4);
+    }
+
+    private BookingSummaryDto load() {
+        long number = loads.incrementAndGet();
+        return new BookingSummaryDto(number, 0L, 0L, 0L, 0L, 0L);
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStateQueryParam;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingTimeBucket;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ComponentScan(basePackages = "ru.practicum.shareit")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingTimeBucketMaintainerTest {
+    private final BookingTimeBucketMaintainer maintainer;
+    private final BookingService bookingService;
+    private final BookingStorage bookingStorage;
+    private final ItemStorage itemStorage;
+    private final UserStorage userStorage;
+    private final TransactionTemplate transactionTemplate;
+
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userStorage.save(new User(null, "Owner", "owner@email.com"));
+        booker = userStorage.save(new User(null, "Booker", "booker@email.com"));
+        item = itemStorage.save(new Item(null, "Item", "Description", true, owner, null, null, null));
+    }
+
+    @Test
+    void save_ShouldAssignBucketFromDates() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(save(now.minusDays(2), now.minusDays(1), null).getTimeBucket()).isEqualTo(BookingTimeBucket.PAST);
+        assertThat(save(now.minusHours(1), now.plusHours(1), null).getTimeBucket()).isEqualTo(BookingTimeBucket.CURRENT);
+        assertThat(save(now.plusDays(1), now.plusDays(2), null).getTimeBucket()).isEqualTo(BookingTimeBucket.FUTURE);
+    }
+
+    @Test
+    void getAllForBooker_WithStaleBuckets_ShouldStillReturnExactResults() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking endedWhileFuture = save(now.minusDays(2), now.minusDays(1), BookingTimeBucket.FUTURE);
+        Booking startedWhileFuture = save(now.minusHours(1), now.plusHours(1), BookingTimeBucket.FUTURE);
+
+        assertThat(ids(BookingStateQueryParam.PAST)).containsExactly(endedWhileFuture.getId());
+        assertThat(ids(BookingStateQueryParam.CURRENT)).containsExactly(startedWhileFuture.getId());
+        assertThat(ids(BookingStateQueryParam.FUTURE)).isEmpty();
+    }
+
+    @Test
+    void advance_ShouldMoveBookingsAcrossBoundaries() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking ended = save(now.minusDays(2), now.minusDays(1), BookingTimeBucket.CURRENT);
+        Booking started = save(now.minusHours(1), now.plusHours(1), BookingTimeBucket.FUTURE);
+        Booking upcoming = save(now.plusDays(1), now.plusDays(2), BookingTimeBucket.FUTURE);
+
+        maintainer.advance();
+
+        assertThat(bookingStorage.findById(ended.getId()).orElseThrow().getTimeBucket()).isEqualTo(BookingTimeBucket.PAST);
+        assertThat(bookingStorage.findById(started.getId()).orElseThrow().getTimeBucket()).isEqualTo(BookingTimeBucket.CURRENT);
+        assertThat(bookingStorage.findById(upcoming.getId()).orElseThrow().getTimeBucket()).isEqualTo(BookingTimeBucket.FUTURE);
+    }
+
+    @Test
+    void advance_ShouldMoveInChunks() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            save(now.minusDays(10 - i), now.minusDays(9 - i), BookingTimeBucket.CURRENT);
+            save(now.minusHours(3 - i), now.plusDays(1 + i), BookingTimeBucket.FUTURE);
+        }
+        BookingTimeBucketMaintainer chunkedMaintainer = new BookingTimeBucketMaintainer(bookingStorage,
+                transactionTemplate, 2, 100);
+
+        assertThat(chunkedMaintainer.advance()).isEqualTo(6);
+        assertThat(chunkedMaintainer.advance()).isZero();
+
+        assertThat(bookingStorage.findAll()).extracting(Booking::getTimeBucket)
+                .containsOnly(BookingTimeBucket.PAST, BookingTimeBucket.CURRENT)
+                .filteredOn(bucket -> bucket == BookingTimeBucket.PAST)
+                .hasSize(3);
+    }
+
+    private Booking save(LocalDateTime start, LocalDateTime end, BookingTimeBucket timeBucket) {
+        return bookingStorage.save(Booking.builder()
+                .item(item)
+                .user(booker)
+                .start(start)
+                .end(end)
+                .status(BookingState.APPROVED)
+                .timeBucket(timeBucket)
+                .build());
+    }
+
+    private List<Long> ids(BookingStateQueryParam state) {
+        return bookingService.getAllForBooker(booker.getId(), state, null, 10).stream()
+                .map(BookingResponseDto::getId)
+                .toList();
+    }
+}
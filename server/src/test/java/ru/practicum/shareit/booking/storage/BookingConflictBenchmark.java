@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает проверку пересечения бронирований деревом интервалов {@link IntervalTree} и запросом
+ * {@link BookingStorage#hasTimeConflict} к H2 тестового профиля для вещи с {@code bookings} бронированиями.
+ * Запускается методом {@link #main} с тестовым classpath, в сборку тестов не входит.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingConflictBenchmark {
+    @Param({"100", "5000"})
+    private int bookings;
+
+    private ConfigurableApplicationContext context;
+    private BookingStorage bookingStorage;
+    private final IntervalTree tree = new IntervalTree();
+    private long itemId;
+    private LocalDateTime freeStart;
+    private LocalDateTime busyStart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run();
+        bookingStorage = context.getBean(BookingStorage.class);
+        UserStorage userStorage = context.getBean(UserStorage.class);
+        User owner = userStorage.save(new User(null, "Owner", "owner@email.com"));
+        User booker = userStorage.save(new User(null, "Booker", "booker@email.com"));
+        Item item = context.getBean(ItemStorage.class).save(new Item(null, "Item", "Description", true, owner, null, null, null));
+        itemId = item.getId();
+
+        // Бронирования по одному дню через день: нечётные дни свободны
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+        List<Booking> saved = new ArrayList<>();
+        for (int i = 0; i < bookings; i++) {
+            saved.add(Booking.builder()
+                    .item(item)
+                    .user(booker)
+                    .start(base.plusDays(2L * i))
+                    .end(base.plusDays(2L * i + 1))
+                    .status(BookingState.APPROVED)
+                    .build());
+        }
+        bookingStorage.saveAll(saved).forEach(booking -> tree.insert(booking.getId(), booking.getStart(), booking.getEnd()));
+        busyStart = base.plusDays(bookings).plusHours(12);
+        freeStart = base.plusDays(bookings + 1L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean treeWithoutConflict() {
+        return tree.overlaps(freeStart, freeStart.plusDays(1));
+    }
+
+    @Benchmark
+    public boolean treeWithConflict() {
+        return tree.overlaps(busyStart, busyStart.plusHours(1));
+    }
+
+    @Benchmark
+    public boolean queryWithoutConflict() {
+        return bookingStorage.hasTimeConflict(itemId, freeStart, freeStart.plusDays(1));
+    }
+
+    @Benchmark
+    public boolean queryWithConflict() {
+        return bookingStorage.hasTimeConflict(itemId, busyStart, busyStart.plusHours(1));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookingConflictBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BookingIntervalIndexTest {
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private final BookingStorage bookingStorage = mock(BookingStorage.class);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void hasKnownConflict_ShouldReportOnlyIndexedOverlaps() {
+        BookingIntervalIndex index = warmIndex(List.of(new BookingInterval(1L, 10L, base, base.plusDays(2))));
+
+        assertThat(index.hasKnownConflict(10L, base.plusDays(1), base.plusDays(3))).isTrue();
+        assertThat(index.hasKnownConflict(10L, base.plusDays(2), base.plusDays(3))).isFalse();
+        assertThat(index.hasKnownConflict(11L, base, base.plusDays(1))).isFalse();
+    }
+
+    @Test
+    void hasKnownConflict_WhenDisabledOrNotWarmedUp_ShouldNotReportConflicts() {
+        when(bookingStorage.findAllActiveIntervals()).thenReturn(List.of(new BookingInterval(1L, 10L, base, base.plusDays(2))));
+        BookingIntervalIndex disabled = new BookingIntervalIndex(bookingStorage, false);
+        disabled.warmUp();
+        BookingIntervalIndex cold = new BookingIntervalIndex(bookingStorage, true);
+        cold.add(new BookingInterval(2L, 10L, base, base.plusDays(2)));
+
+        assertThat(disabled.hasKnownConflict(10L, base, base.plusDays(1))).isFalse();
+        assertThat(cold.hasKnownConflict(10L, base, base.plusDays(1))).isFalse();
+    }
+
+    @Test
+    void addAndRemove_InsideTransaction_ShouldApplyOnlyAfterCommit() {
+        BookingIntervalIndex index = warmIndex(List.of(new BookingInterval(1L, 10L, base, base.plusDays(2))));
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.remove(10L, 1L, base);
+        index.add(new BookingInterval(2L, 10L, base.plusDays(5), base.plusDays(6)));
+        assertThat(index.hasKnownConflict(10L, base, base.plusDays(1))).isTrue();
+        assertThat(index.hasKnownConflict(10L, base.plusDays(5), base.plusDays(6))).isFalse();
+        complete(true);
+
+        assertThat(index.hasKnownConflict(10L, base, base.plusDays(1))).isFalse();
+        assertThat(index.hasKnownConflict(10L, base.plusDays(5), base.plusDays(6))).isTrue();
+    }
+
+    @Test
+    void remove_InsideRolledBackTransaction_ShouldKeepInterval() {
+        BookingIntervalIndex index = warmIndex(List.of(new BookingInterval(1L, 10L, base, base.plusDays(2))));
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.remove(10L, 1L, base);
+        complete(false);
+
+        assertThat(index.hasKnownConflict(10L, base, base.plusDays(1))).isTrue();
+    }
+
+    private BookingIntervalIndex warmIndex(List<BookingInterval> intervals) {
+        when(bookingStorage.findAllActiveIntervals()).thenReturn(intervals);
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingStorage, true);
+        index.warmUp();
+        return index;
+    }
+
+    private static void complete(boolean committed) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (committed) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(committed
+                ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+}
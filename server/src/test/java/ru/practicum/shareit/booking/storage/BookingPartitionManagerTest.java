@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет секционирование BOOKINGS на настоящем PostgreSQL; без Docker тест пропускается.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class BookingPartitionManagerTest {
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+
+    private long userId;
+    private long itemId;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(),
+                POSTGRES.getUsername(), POSTGRES.getPassword());
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"),
+                new ClassPathResource("schema-bookings-postgresql.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from bookings");
+        userId = jdbcTemplate.queryForObject("insert into users (name, email) values ('Owner', ?) returning id",
+                Long.class, "owner" + System.nanoTime() + "@email.com");
+        itemId = jdbcTemplate.queryForObject("insert into items (name, description, available, user_id) " +
+                "values ('Item', 'Description', true, ?) returning id", Long.class, userId);
+    }
+
+    @Test
+    void insert_WithoutManager_ShouldGoToDefaultPartition() {
+        LocalDateTime end = LocalDateTime.now().plusYears(5);
+
+        insertBooking(end);
+
+        assertThat(countIn("bookings_default")).isEqualTo(1);
+    }
+
+    @Test
+    void maintain_ShouldMoveRowsFromDefaultPartitionAndAttachMonthlyOnes() {
+        YearMonth farMonth = YearMonth.now().plusYears(6);
+        insertBooking(farMonth.atDay(10).atStartOfDay());
+        insertBooking(farMonth.atDay(20).atStartOfDay());
+        insertBooking(YearMonth.now().atDay(15).atStartOfDay());
+        BookingPartitionManager manager = new BookingPartitionManager(jdbcTemplate, transactionTemplate, 2, 0);
+
+        manager.maintain();
+        manager.maintain();
+
+        assertThat(countIn("bookings_default")).isZero();
+        assertThat(countIn(partition(farMonth))).isEqualTo(2);
+        assertThat(countIn(partition(YearMonth.now()))).isEqualTo(1);
+        assertThat(countIn("bookings")).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from pg_inherits as i " +
+                "join pg_class as c on c.oid = i.inhrelid where c.relname = ?", Integer.class, partition(YearMonth.now().plusMonths(2))))
+                .isEqualTo(1);
+
+        insertBooking(farMonth.atDay(25).atStartOfDay());
+        assertThat(countIn(partition(farMonth))).isEqualTo(3);
+    }
+
+    @Test
+    void schemaScript_WithUnpartitionedBookings_ShouldLeaveTableUntouched() {
+        jdbcTemplate.execute("create schema if not exists legacy");
+        String url = POSTGRES.getJdbcUrl();
+        DriverManagerDataSource legacy = new DriverManagerDataSource(
+                url + (url.contains("?") ? "&" : "?") + "currentSchema=legacy", POSTGRES.getUsername(), POSTGRES.getPassword());
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(legacy);
+        new JdbcTemplate(legacy).execute("create table if not exists bookings (id bigint primary key, " +
+                "start_date timestamp not null, end_date timestamp not null, state varchar(15) not null, " +
+                "user_id bigint not null, item_id bigint not null)");
+
+        ResourceDatabasePopulator bookingsScript = new ResourceDatabasePopulator(new ClassPathResource("schema-bookings-postgresql.sql"));
+        bookingsScript.execute(legacy);
+        bookingsScript.execute(legacy);
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from information_schema.tables " +
+                "where table_schema = 'legacy' and table_name = 'bookings_default'", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from pg_partitioned_table " +
+                "where partrelid = to_regclass('legacy.bookings')", Integer.class)).isZero();
+    }
+
+    private void insertBooking(LocalDateTime end) {
+        jdbcTemplate.update("insert into bookings (start_date, end_date, state, user_id, item_id) values (?, ?, 'WAITING', ?, ?)",
+                Timestamp.valueOf(end.minusDays(1)), Timestamp.valueOf(end), userId, itemId);
+    }
+
+    private int countIn(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+    }
+
+    private static String partition(YearMonth month) {
+        return "bookings_p" + month.format(DateTimeFormatter.ofPattern("yyyy_MM"));
+    }
+}
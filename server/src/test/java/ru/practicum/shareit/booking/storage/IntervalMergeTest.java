@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IntervalMergeTest {
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void findConflicts_WithNoExistingIntervals_ShouldReturnEmpty() {
+        BitSet conflicts = IntervalMerge.findConflicts(List.of(), List.of(interval(0, 1), interval(2, 3)));
+
+        assertThat(conflicts.isEmpty()).isTrue();
+    }
+
+    @Test
+    void findConflicts_ShouldTreatIntervalsAsHalfOpen() {
+        List<BookingInterval> existing = List.of(interval(10, 20));
+
+        BitSet conflicts = IntervalMerge.findConflicts(existing,
+                List.of(interval(0, 9), interval(5, 10), interval(9, 11), interval(19, 20), interval(20, 25)));
+
+        assertThat(conflicts.stream().toArray()).containsExactly(2, 3);
+    }
+
+    @Test
+    void findConflicts_WithLongExistingInterval_ShouldMarkEveryCoveredCandidate() {
+        List<BookingInterval> existing = List.of(interval(0, 1), interval(5, 100), interval(200, 210));
+
+        BitSet conflicts = IntervalMerge.findConflicts(existing,
+                List.of(interval(2, 3), interval(10, 11), interval(50, 51), interval(150, 151), interval(205, 206)));
+
+        assertThat(conflicts.stream().toArray()).containsExactly(1, 2, 4);
+    }
+
+    @Test
+    void findConflicts_ShouldMatchPairwiseCheck() {
+        Random random = new Random(42);
+        List<BookingInterval> existing = new ArrayList<>();
+        int hour = 0;
+        for (int i = 0; i < 500; i++) {
+            hour += 1 + random.nextInt(10);
+            int length = random.nextInt(8);
+            existing.add(interval(hour, hour + length));
+            hour += length;
+        }
+        List<BookingInterval> candidates = new ArrayList<>();
+        for (int start = 0; start < hour; start += 7) {
+            candidates.add(interval(start, start + 2));
+        }
+
+        BitSet conflicts = IntervalMerge.findConflicts(existing, candidates);
+
+        for (int i = 0; i < candidates.size(); i++) {
+            BookingInterval candidate = candidates.get(i);
+            boolean expected = existing.stream().anyMatch(interval ->
+                    interval.getStart().isBefore(candidate.getEnd()) && interval.getEnd().isAfter(candidate.getStart()));
+            assertThat(conflicts.get(i)).as("кандидат %d", i).isEqualTo(expected);
+        }
+    }
+
+    private BookingInterval interval(int fromHour, int toHour) {
+        return new BookingInterval(null, 1L, base.plusHours(fromHour), base.plusHours(toHour));
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IntervalTreeTest {
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private IntervalTree tree;
+
+    @BeforeEach
+    void setUp() {
+        tree = new IntervalTree();
+    }
+
+    @Test
+    void overlaps_WithEmptyTree_ShouldReturnFalse() {
+        assertThat(tree.overlaps(base, base.plusDays(1))).isFalse();
+    }
+
+    @Test
+    void overlaps_ShouldTreatIntervalsAsHalfOpen() {
+        tree.insert(1L, base.plusDays(1), base.plusDays(2));
+
+        assertThat(tree.overlaps(base, base.plusDays(1))).isFalse();
+        assertThat(tree.overlaps(base.plusDays(2), base.plusDays(3))).isFalse();
+        assertThat(tree.overlaps(base, base.plusDays(1).plusSeconds(1))).isTrue();
+        assertThat(tree.overlaps(base.plusDays(2).minusSeconds(1), base.plusDays(3))).isTrue();
+        assertThat(tree.overlaps(base, base.plusHours(23))).isFalse();
+        assertThat(tree.overlaps(base.plusDays(2).plusHours(1), base.plusDays(3))).isFalse();
+    }
+
+    @Test
+    void overlaps_WithLongIntervalInLeftSubtree_ShouldFindIt() {
+        tree.insert(1L, base, base.plusDays(30));
+        for (long i = 2; i < 50; i++) {
+            tree.insert(i, base.plusDays(i), base.plusDays(i).plusHours(1));
+        }
+
+        assertThat(tree.overlaps(base.plusDays(25).plusHours(5), base.plusDays(25).plusHours(6))).isTrue();
+        assertThat(tree.overlaps(base.plusDays(45).plusHours(5), base.plusDays(45).plusHours(6))).isFalse();
+    }
+
+    @Test
+    void insert_WithSameKey_ShouldBeIgnored() {
+        tree.insert(1L, base, base.plusDays(1));
+        tree.insert(1L, base, base.plusDays(1));
+
+        assertThat(tree.size()).isEqualTo(1);
+    }
+
+    @Test
+    void remove_ShouldDropInterval() {
+        tree.insert(1L, base, base.plusDays(1));
+        tree.insert(2L, base.plusDays(3), base.plusDays(4));
+
+        assertThat(tree.remove(1L, base)).isTrue();
+        assertThat(tree.remove(1L, base)).isFalse();
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.overlaps(base, base.plusDays(1))).isFalse();
+        assertThat(tree.overlaps(base.plusDays(3), base.plusDays(3).plusHours(1))).isTrue();
+    }
+
+    @Test
+    void overlaps_ShouldMatchLinearScanOnRandomData() {
+        Random random = new Random(42);
+        List<LocalDateTime[]> intervals = new ArrayList<>();
+        for (long i = 0; i < 2_000; i++) {
+            LocalDateTime start = base.plusHours(random.nextInt(100_000));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(200));
+            tree.insert(i, start, end);
+            intervals.add(new LocalDateTime[]{start, end});
+        }
+        for (int i = 0; i < 500; i += 2) {
+            tree.remove(i, intervals.get(i)[0]);
+            intervals.set(i, null);
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            LocalDateTime start = base.plusHours(random.nextInt(100_000));
+            LocalDateTime end = start.plusHours(random.nextInt(50));
+            boolean expected = intervals.stream()
+                    .anyMatch(interval -> interval != null
+                            && interval[0].isBefore(end)
+                            && interval[1].isAfter(start));
+            assertThat(tree.overlaps(start, end)).isEqualTo(expected);
+        }
+    }
+}
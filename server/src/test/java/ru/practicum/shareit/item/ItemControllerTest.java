@@ -7,12 +7,20 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.CommentCursor;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
+import ru.practicum.shareit.item.dto.ItemCursor;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSearchResultDto;
+import ru.practicum.shareit.item.model.ItemCategory;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
@@ -44,7 +52,7 @@ public class ItemControllerTest {
                 .available(true)
                 .build();
 
-        when(itemService.getById(itemId))
+        when(itemService.getById(itemId, null))
                 .thenReturn(itemDto);
 
         mvc.perform(get("/items/{id}", itemId))
@@ -53,6 +61,23 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.name").value("Test Item"));
     }
 
+    @Test
+    void getById_WithUserHeader_ShouldPassUserId() throws Exception {
+        ItemDto itemDto = ItemDto.builder()
+                .id(itemId)
+                .name("Test Item")
+                .commentCount(3L)
+                .build();
+
+        when(itemService.getById(itemId, userId))
+                .thenReturn(itemDto);
+
+        mvc.perform(get("/items/{id}", itemId)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.commentCount").value(3));
+    }
+
     @Test
     void deleteById_ValidRequest_ShouldReturnOk() throws Exception {
         mvc.perform(delete("/items/{id}", itemId))
@@ -146,7 +171,7 @@ public class ItemControllerTest {
                 .available(true)
                 .build();
 
-        when(itemService.getItemsByUserId(userId))
+        when(itemService.getItemsByUserId(userId, null, 10))
                 .thenReturn(List.of(itemDto));
 
         mvc.perform(get("/items")
@@ -165,7 +190,7 @@ public class ItemControllerTest {
                 .available(true)
                 .build();
 
-        when(itemService.searchItems("drill"))
+        when(itemService.searchItems("drill", 0, 10))
                 .thenReturn(List.of(itemDto));
 
         mvc.perform(get("/items/search")
@@ -175,9 +200,22 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[0].name").value("Drill"));
     }
 
+    @Test
+    void searchItems_WithPage_ShouldPassPageToService() throws Exception {
+        when(itemService.searchItems("drill", 20, 5))
+                .thenReturn(List.of());
+
+        mvc.perform(get("/items/search")
+                        .param("text", "drill")
+                        .param("from", "20")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
     @Test
     void searchItems_WithEmptyQuery_ShouldReturnEmptyList() throws Exception {
-        when(itemService.searchItems(""))
+        when(itemService.searchItems("", 0, 10))
                 .thenReturn(List.of());
 
         mvc.perform(get("/items/search")
@@ -189,7 +227,7 @@ public class ItemControllerTest {
 
     @Test
     void searchItems_WithBlankQuery_ShouldReturnEmptyList() throws Exception {
-        when(itemService.searchItems("   "))
+        when(itemService.searchItems("   ", 0, 10))
                 .thenReturn(List.of());
 
         mvc.perform(get("/items/search")
@@ -201,7 +239,7 @@ public class ItemControllerTest {
 
     @Test
     void searchItems_WithoutQueryParam_ShouldUseDefaultEmpty() throws Exception {
-        when(itemService.searchItems(""))
+        when(itemService.searchItems("", 0, 10))
                 .thenReturn(List.of());
 
         mvc.perform(get("/items/search"))
@@ -210,6 +248,49 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$").isEmpty());
     }
 
+    @Test
+    void searchFaceted_ShouldPassFilterToService() throws Exception {
+        ItemSearchFilter filter = ItemSearchFilter.builder()
+                .text("drill")
+                .categories(Set.of(ItemCategory.TOOLS, ItemCategory.GARDEN))
+                .latitude(55.75)
+                .longitude(37.62)
+                .radiusKm(5.0)
+                .build();
+        when(itemService.searchFaceted(filter, 0, 10))
+                .thenReturn(ItemSearchResultDto.builder()
+                        .items(List.of(ItemDto.builder().id(itemId).name("Drill").build()))
+                        .total(1)
+                        .categories(Map.of(ItemCategory.TOOLS, 1L))
+                        .distances(Map.of(5, 1L))
+                        .build());
+
+        mvc.perform(get("/items/search/faceted")
+                        .param("text", "drill")
+                        .param("category", "TOOLS", "GARDEN")
+                        .param("lat", "55.75")
+                        .param("lon", "37.62")
+                        .param("radius", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(itemId))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.categories.TOOLS").value(1))
+                .andExpect(jsonPath("$.distances.5").value(1));
+    }
+
+    @Test
+    void suggest_ShouldReturnNames() throws Exception {
+        when(itemService.suggest("дре", 5))
+                .thenReturn(List.of("Дрель", "Дрель ударная"));
+
+        mvc.perform(get("/items/suggest")
+                        .param("prefix", "дре")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("Дрель"))
+                .andExpect(jsonPath("$[1]").value("Дрель ударная"));
+    }
+
     @Test
     void createComment_ValidRequest_ShouldReturnComment() throws Exception {
         CommentDto createDto = CommentDto.builder()
@@ -315,7 +396,7 @@ public class ItemControllerTest {
 
     @Test
     void getItemsByUserId_WithEmptyResult_ShouldReturnEmptyList() throws Exception {
-        when(itemService.getItemsByUserId(userId))
+        when(itemService.getItemsByUserId(userId, null, 10))
                 .thenReturn(List.of());
 
         mvc.perform(get("/items")
@@ -324,4 +405,90 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$").isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getItemsByUserId_WithFullPage_ShouldReturnNextCursor() throws Exception {
+        ItemDto first = ItemDto.builder().id(1L).name("First").build();
+        ItemDto second = ItemDto.builder().id(2L).name("Second").build();
+        String cursor = ItemCursor.encode(first);
+
+        when(itemService.getItemsByUserId(userId, cursor, 2))
+                .thenReturn(List.of(first, second));
+
+        mvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("cursor", cursor)
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemCursor.NEXT_CURSOR_HEADER, ItemCursor.encode(second)))
+                .andExpect(jsonPath("$[1].name").value("Second"));
+    }
+
+    @Test
+    void getComments_ShouldReturnPageWithNextCursor() throws Exception {
+        CommentDto comment = CommentDto.builder()
+                .id(commentId)
+                .text("Comment")
+                .authorName("Author")
+                .created(LocalDateTime.of(2030, 1, 1, 10, 0))
+                .build();
+
+        when(itemService.getComments(itemId, null, 1))
+                .thenReturn(List.of(comment));
+
+        mvc.perform(get("/items/{id}/comments", itemId)
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemCursor.NEXT_CURSOR_HEADER, CommentCursor.encode(comment)))
+                .andExpect(jsonPath("$[0].text").value("Comment"));
+    }
+
+    @Test
+    void getComments_WithPartialPage_ShouldNotReturnCursor() throws Exception {
+        when(itemService.getComments(itemId, null, 10))
+                .thenReturn(List.of());
+
+        mvc.perform(get("/items/{id}/comments", itemId))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ItemCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getAvailability_ValidRequest_ShouldReturnCacheableSlots() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 5, 10, 0);
+
+        when(itemService.getAvailability(itemId, from, to))
+                .thenReturn(List.of(new FreeSlotDto(from, to)));
+
+        mvc.perform(get("/items/{id}/availability", itemId)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-05T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=30, public"))
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$[0].start").value("2030-01-01T10:00:00"))
+                .andExpect(jsonPath("$[0].end").value("2030-01-05T10:00:00"));
+    }
+
+    @Test
+    void getAvailability_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 5, 10, 0);
+
+        when(itemService.getAvailability(itemId, from, to))
+                .thenReturn(List.of(new FreeSlotDto(from, to)));
+
+        String eTag = mvc.perform(get("/items/{id}/availability", itemId)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-05T10:00:00"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/items/{id}/availability", itemId)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-05T10:00:00")
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+}
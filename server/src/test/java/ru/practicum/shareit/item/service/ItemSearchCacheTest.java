@@ -0,0 +1,141 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemSearchCacheTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_WithSameNormalizedQuery_ShouldLoadOnce() {
+        ItemSearchCache cache = cache(DataSize.ofKilobytes(64));
+
+        cache.get("Дрель", 0, 10, loader("Дрель"));
+        List<ItemDto> cached = cache.get("дРЕЛЬ", 0, 10, loader("Дрель"));
+
+        assertThat(loads).hasValue(1);
+        assertThat(cached).extracting(ItemDto::getName).containsExactly("Дрель");
+        assertThat(meterRegistry.get("shareit.item.search.cache.hit.ratio").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    void get_WithExtraWhitespace_ShouldShareKey() {
+        ItemSearchCache cache = cache(DataSize.ofKilobytes(64));
+
+        cache.get("дрель ударная", 0, 10, loader("Дрель"));
+        cache.get("  Дрель \t  ударная ", 0, 10, loader("Дрель"));
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_WithOtherPage_ShouldLoadAgain() {
+        ItemSearchCache cache = cache(DataSize.ofKilobytes(64));
+
+        cache.get("дрель", 0, 10, loader("Дрель"));
+        cache.get("дрель", 10, 10, loader("Дрель"));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidateAll_ShouldMakeCachedResultsStale() {
+        ItemSearchCache cache = cache(DataSize.ofKilobytes(64));
+        cache.get("дрель", 0, 10, loader("Дрель"));
+
+        cache.invalidateAll();
+        cache.get("дрель", 0, 10, loader("Дрель"));
+        cache.get("дрель", 0, 10, loader("Дрель"));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_WhenInvalidatedDuringLoad_ShouldNotCacheResult() {
+        ItemSearchCache cache = cache(DataSize.ofKilobytes(64));
+
+        cache.get("дрель", 0, 10, () -> {
+            cache.invalidateAll();
+            return loader("Дрель").get();
+        });
+        cache.get("дрель", 0, 10, loader("Дрель"));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_ShouldKeepWeightWithinLimit() {
+        ItemSearchCache cache = cache(DataSize.ofKilobytes(4));
+
+        for (int i = 0; i < 500; i++) {
+            cache.get("запрос " + i, 0, 10, loader("Вещь " + i));
+        }
+
+        assertThat(cache.weight()).isLessThanOrEqualTo(4096);
+        assertThat(meterRegistry.get("shareit.item.search.cache.evictions").counter().count()).isPositive();
+    }
+
+    @Test
+    void get_WithScanOfRareQueries_ShouldKeepFrequentQueries() {
+        ItemSearchCache cache = cache(DataSize.ofKilobytes(4));
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 5; i++) {
+                cache.get("популярный " + i, 0, 10, loader("Вещь " + i));
+            }
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            cache.get("редкий " + i, 0, 10, loader("Вещь " + i));
+        }
+        int loadsBefore = loads.get();
+        for (int i = 0; i < 5; i++) {
+            cache.get("популярный " + i, 0, 10, loader("Вещь " + i));
+        }
+
+        assertThat(loads).hasValue(loadsBefore);
+    }
+
+    @Test
+    void get_WithZeroMaxWeight_ShouldNotCache() {
+        ItemSearchCache cache = cache(DataSize.ofBytes(0));
+
+        cache.get("дрель", 0, 10, loader("Дрель"));
+        cache.get("дрель", 0, 10, loader("Дрель"));
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.weight()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ItemSearchCache cache(DataSize maxWeight) {
+        ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any(Supplier.class))).thenReturn(meterRegistry);
+        return new ItemSearchCache(provider, maxWeight);
+    }
+
+    private Supplier<List<ItemDto>> loader(String name) {
+        return () -> {
+            loads.incrementAndGet();
+            return List.of(ItemDto.builder()
+                    .id(1L)
+                    .name(name)
+                    .description("Описание")
+                    .available(true)
+                    .build());
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSearchResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
+import ru.practicum.shareit.item.storage.ItemSearchMode;
+import ru.practicum.shareit.item.storage.ItemStorage;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ItemSearcherTest {
+    private final ItemStorage itemStorage = mock(ItemStorage.class);
+    private final ItemSearchIndex itemSearchIndex = mock(ItemSearchIndex.class);
+
+    @Test
+    void search_InFullTextMode_ShouldUseFullTextQuery() {
+        when(itemStorage.findByFullText("дрель", 20, 10)).thenReturn(List.of(item(1L, "Дрель")));
+
+        List<ItemDto> result = searcher(ItemSearchMode.FULL_TEXT).search("дрель", 20, 10);
+
+        assertThat(result).extracting(ItemDto::getId).containsExactly(1L);
+        verify(itemStorage, never()).findByQuery(anyString(), any(Limit.class));
+        verify(itemSearchIndex, never()).search(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void search_InMemoryModeWithReadyIndex_ShouldUseIndex() {
+        when(itemSearchIndex.isReady()).thenReturn(true);
+        when(itemSearchIndex.search("дрель", 0, 10))
+                .thenReturn(List.of(new ItemSearchDocument(2L, 1L, "Дрель", "Описание", true, null, null, null)));
+
+        List<ItemDto> result = searcher(ItemSearchMode.MEMORY).search("дрель", 0, 10);
+
+        assertThat(result).extracting(ItemDto::getId).containsExactly(2L);
+        verify(itemStorage, never()).findByQuery(anyString(), any(Limit.class));
+    }
+
+    @Test
+    void search_InMemoryModeBeforeWarmUp_ShouldUseLikeQuery() {
+        when(itemSearchIndex.isReady()).thenReturn(false);
+        when(itemStorage.findByQuery("дрель", Limit.of(2)))
+                .thenReturn(List.of(item(1L, "Дрель"), item(2L, "Дрель ударная")));
+
+        List<ItemDto> result = searcher(ItemSearchMode.MEMORY).search("дрель", 1, 1);
+
+        assertThat(result).extracting(ItemDto::getId).containsExactly(2L);
+    }
+
+    @Test
+    void search_InLikeMode_ShouldNotUseIndex() {
+        when(itemSearchIndex.isReady()).thenReturn(true);
+        when(itemStorage.findByQuery("дрель", Limit.of(10))).thenReturn(List.of(item(1L, "Дрель")));
+
+        List<ItemDto> result = searcher(ItemSearchMode.LIKE).search("дрель", 0, 10);
+
+        assertThat(result).extracting(ItemDto::getId).containsExactly(1L);
+        verify(itemSearchIndex, never()).search(anyString(), anyInt(), anyInt());
+        verify(itemStorage, never()).findByFullText(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void searchFaceted_InMemoryModeWithReadyIndex_ShouldUseIndex() {
+        ItemSearchFilter filter = ItemSearchFilter.builder().text("дрель").build();
+        ItemSearchResultDto indexed = ItemSearchResultDto.builder().items(List.of()).total(0).build();
+        when(itemSearchIndex.isReady()).thenReturn(true);
+        when(itemSearchIndex.searchFaceted(filter, 0, 10)).thenReturn(indexed);
+
+        assertThat(searcher(ItemSearchMode.MEMORY).searchFaceted(filter, 0, 10)).isSameAs(indexed);
+        verify(itemStorage, never()).findFaceted(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void searchFaceted_WithoutIndex_ShouldUseStorageQueries() {
+        ItemSearchFilter filter = ItemSearchFilter.builder().text("дрель").build();
+        ItemSearchResultDto found = ItemSearchResultDto.builder().items(List.of()).total(0).build();
+        when(itemSearchIndex.isReady()).thenReturn(true);
+        when(itemStorage.findFaceted(filter, 0, 10)).thenReturn(found);
+
+        assertThat(searcher(ItemSearchMode.LIKE).searchFaceted(filter, 0, 10)).isSameAs(found);
+        verify(itemSearchIndex, never()).searchFaceted(any(), anyInt(), anyInt());
+    }
+
+    private ItemSearcher searcher(ItemSearchMode mode) {
+        return new ItemSearcher(itemStorage, itemSearchIndex, mode);
+    }
+
+    private static Item item(long id, String name) {
+        return new Item(id, name, "Описание", true, null, null, null, null);
+    }
+}
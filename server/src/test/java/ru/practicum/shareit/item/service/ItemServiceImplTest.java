@@ -3,29 +3,49 @@ package ru.practicum.shareit.item.service;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.ComponentScan;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.storage.BookingStorage;
 import ru.practicum.shareit.exception.ConditionsNotMetException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.CommentCursor;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
+import ru.practicum.shareit.item.dto.ItemCursor;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSearchResultDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemCard;
+import ru.practicum.shareit.item.model.ItemCategory;
+import ru.practicum.shareit.item.model.ItemLocation;
 import ru.practicum.shareit.item.storage.CommentStorage;
+import ru.practicum.shareit.item.storage.ItemCardStorage;
 import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestStorage;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.storage.UserStorage;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -40,6 +60,10 @@ public class ItemServiceImplTest {
     private final BookingStorage bookingStorage;
     private final ItemRequestStorage itemRequestStorage;
     private final EntityManager em;
+    private final ItemCardStorage itemCardStorage;
+    private final ItemCardMaintainer itemCardMaintainer;
+    private final UserService userService;
+    private final BookingService bookingService;
 
     private User owner;
     private User booker;
@@ -61,13 +85,13 @@ public class ItemServiceImplTest {
 
         request = itemRequestStorage.save(new ItemRequest(null, "Need item", LocalDateTime.now(), booker));
 
-        item1 = itemStorage.save(new Item(null, "Item1", "Description1", true, owner, null));
-        itemStorage.save(new Item(null, "Item2", "Description2", false, owner, request));
+        item1 = itemStorage.save(new Item(null, "Item1", "Description1", true, owner, null, null, null));
+        itemStorage.save(new Item(null, "Item2", "Description2", false, owner, request, null, null));
     }
 
     @Test
     void getById_ShouldReturnItem() {
-        ItemDto result = itemService.getById(item1.getId());
+        ItemDto result = itemService.getById(item1.getId(), null);
 
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(item1.getId());
@@ -85,7 +109,7 @@ public class ItemServiceImplTest {
                 .created(LocalDateTime.now())
                 .build());
 
-        ItemDto result = itemService.getById(item1.getId());
+        ItemDto result = itemService.getById(item1.getId(), null);
 
         assertThat(result.getComments()).hasSize(1);
         assertThat(result.getComments().getFirst().getText()).isEqualTo("Great item!");
@@ -93,7 +117,7 @@ public class ItemServiceImplTest {
 
     @Test
     void getById_WithNonExistingItem_ShouldThrowException() {
-        assertThatThrownBy(() -> itemService.getById(999L))
+        assertThatThrownBy(() -> itemService.getById(999L, null))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("не найдена");
     }
@@ -247,7 +271,7 @@ public class ItemServiceImplTest {
 
     @Test
     void getItemsByUserId_ShouldReturnUserItems() {
-        List<ItemDto> result = itemService.getItemsByUserId(owner.getId());
+        List<ItemDto> result = itemService.getItemsByUserId(owner.getId(), null, 100);
 
         assertThat(result).hasSize(2);
         assertThat(result).extracting(ItemDto::getName)
@@ -264,7 +288,7 @@ public class ItemServiceImplTest {
                 .status(BookingState.APPROVED)
                 .build());
 
-        List<ItemDto> result = itemService.getItemsByUserId(owner.getId());
+        List<ItemDto> result = itemService.getItemsByUserId(owner.getId(), null, 100);
 
         assertThat(result).hasSize(2);
         ItemDto item1Dto = result.stream()
@@ -274,6 +298,70 @@ public class ItemServiceImplTest {
         assertThat(item1Dto.getLastBooking()).isNotNull();
     }
 
+    @Test
+    void getItemsByUserId_WithBookingsOnSeveralItems_ShouldResolveLastAndNextPerItem() {
+        Item item2 = itemStorage.save(new Item(null, "Item3", "Description3", true, owner, null, null, null));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        bookingStorage.saveAll(List.of(
+                approvedBooking(item1, now.minusDays(5), now.minusDays(4)),
+                approvedBooking(item1, now.minusDays(3), now.minusDays(2)),
+                approvedBooking(item1, now.plusDays(2), now.plusDays(3)),
+                approvedBooking(item1, now.plusDays(1), now.plusHours(30)),
+                approvedBooking(item2, now.minusDays(7), now.minusDays(6)),
+                approvedBooking(item2, now.plusDays(4), now.plusDays(5)),
+                Booking.builder()
+                        .item(item2)
+                        .user(booker)
+                        .start(now.plusDays(1))
+                        .end(now.plusDays(2))
+                        .status(BookingState.REJECTED)
+                        .build()));
+
+        Map<Long, ItemDto> result = itemService.getItemsByUserId(owner.getId(), null, 100).stream()
+                .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
+
+        assertThat(result.get(item1.getId()).getLastBooking().getEnd()).isEqualTo(now.minusDays(2));
+        assertThat(result.get(item1.getId()).getNextBooking().getStart()).isEqualTo(now.plusDays(1));
+        assertThat(result.get(item2.getId()).getLastBooking().getEnd()).isEqualTo(now.minusDays(6));
+        assertThat(result.get(item2.getId()).getNextBooking().getStart()).isEqualTo(now.plusDays(4));
+    }
+
+    @Test
+    void getItemsByUserId_WithManyItems_ShouldResolveBookingsForEveryItem() {
+        int itemCount = 10_000;
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new Item(null, "Bulk" + i, "Description", true, anotherUser, null, null, null));
+        }
+        items = itemStorage.saveAll(items);
+
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            Item item = items.get(i);
+            bookings.add(approvedBooking(item, now.minusDays(30).plusMinutes(i), now.minusDays(20).plusMinutes(i)));
+            bookings.add(approvedBooking(item, now.plusDays(1).plusMinutes(i), now.plusDays(10).plusMinutes(i)));
+        }
+        bookingStorage.saveAll(bookings);
+        em.flush();
+        em.clear();
+
+        List<ItemDto> result = new ArrayList<>();
+        List<ItemDto> page;
+        do {
+            page = itemService.getItemsByUserId(anotherUser.getId(),
+                    result.isEmpty() ? null : ItemCursor.encode(result.getLast()), 100);
+            result.addAll(page);
+        } while (page.size() == 100);
+
+        assertThat(result).hasSize(itemCount);
+        for (ItemDto itemDto : result) {
+            int index = Integer.parseInt(itemDto.getName().substring("Bulk".length()));
+            assertThat(itemDto.getLastBooking().getEnd()).isEqualTo(now.minusDays(20).plusMinutes(index));
+            assertThat(itemDto.getNextBooking().getStart()).isEqualTo(now.plusDays(1).plusMinutes(index));
+        }
+    }
+
     @Test
     void getItemsByUserId_WithComments_ShouldReturnItemsWithComments() {
         commentStorage.save(Comment.builder()
@@ -283,7 +371,7 @@ public class ItemServiceImplTest {
                 .created(LocalDateTime.now())
                 .build());
 
-        List<ItemDto> result = itemService.getItemsByUserId(owner.getId());
+        List<ItemDto> result = itemService.getItemsByUserId(owner.getId(), null, 100);
 
         assertThat(result).hasSize(2);
         ItemDto item1Dto = result.stream()
@@ -293,16 +381,194 @@ public class ItemServiceImplTest {
         assertThat(item1Dto.getComments()).hasSize(1);
     }
 
+    @Test
+    void getById_WithMoreComments_ShouldNotIssueMoreStatements() {
+        addComments(item1, 1);
+        itemService.getById(item1.getId(), null);
+        long statementsWithOneComment = countStatements(() -> itemService.getById(item1.getId(), null));
+
+        addComments(item1, 20);
+        long statementsWithManyComments = countStatements(() -> {
+            ItemDto result = itemService.getById(item1.getId(), null);
+            assertThat(result.getCommentCount()).isEqualTo(21);
+            assertThat(result.getComments())
+                    .hasSize(10)
+                    .allSatisfy(comment -> assertThat(comment.getAuthorName()).startsWith("Author"));
+        });
+
+        assertThat(statementsWithOneComment).isEqualTo(1);
+        assertThat(statementsWithManyComments).isEqualTo(statementsWithOneComment);
+    }
+
+    @Test
+    void getItemsByUserId_WithMoreItemsAndComments_ShouldNotIssueMoreStatements() {
+        addComments(item1, 1);
+        itemService.getItemsByUserId(owner.getId(), null, 100);
+        long statementsWithOneComment = countStatements(() -> itemService.getItemsByUserId(owner.getId(), null, 100));
+
+        for (int i = 0; i < 10; i++) {
+            ItemDto extra = itemService.create(owner.getId(), ItemDto.builder()
+                    .name("Extra" + i)
+                    .description("Description")
+                    .available(true)
+                    .build());
+            addComments(itemStorage.findById(extra.getId()).orElseThrow(), 3);
+        }
+        long statementsWithManyComments = countStatements(() -> assertThat(itemService.getItemsByUserId(owner.getId(), null, 100))
+                .hasSize(12)
+                .allSatisfy(item -> assertThat(item.getComments()).allSatisfy(comment ->
+                        assertThat(comment.getAuthorName()).startsWith("Author"))));
+
+        assertThat(statementsWithManyComments).isEqualTo(statementsWithOneComment);
+    }
+
+    @Test
+    void getItemsByUserId_WithCursor_ShouldWalkAllItemsPageByPage() {
+        for (int i = 0; i < 5; i++) {
+            itemService.create(owner.getId(), ItemDto.builder()
+                    .name("Extra" + i)
+                    .description("Description")
+                    .available(true)
+                    .build());
+        }
+        itemStorage.save(new Item(null, "Other", "Description", true, anotherUser, null, null, null));
+        itemCardStorage.deleteById(item1.getId());
+        List<Long> expected = itemService.getItemsByUserId(owner.getId(), null, 100).stream()
+                .map(ItemDto::getId)
+                .toList();
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        List<ItemDto> page;
+        do {
+            page = itemService.getItemsByUserId(owner.getId(), cursor, 3);
+            assertThat(page).hasSizeLessThanOrEqualTo(3);
+            page.forEach(item -> walked.add(item.getId()));
+            cursor = page.isEmpty() ? null : ItemCursor.encode(page.getLast());
+        } while (page.size() == 3);
+
+        assertThat(expected).hasSize(7);
+        assertThat(walked).isEqualTo(expected);
+    }
+
+    @Test
+    void getItemsByUserId_WithInvalidPage_ShouldThrowException() {
+        assertThatThrownBy(() -> itemService.getItemsByUserId(owner.getId(), null, 0))
+                .isInstanceOf(ConditionsNotMetException.class);
+        assertThatThrownBy(() -> itemService.getItemsByUserId(owner.getId(), "не-курсор", 10))
+                .isInstanceOf(ConditionsNotMetException.class);
+    }
+
+    @Test
+    void getComments_ShouldPageNewestFirst() {
+        LocalDateTime created = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 7; i++) {
+            commentStorage.save(Comment.builder()
+                    .text("Comment " + i)
+                    .item(item1)
+                    .user(booker)
+                    .created(created.plusMinutes(i / 2))
+                    .build());
+        }
+
+        List<String> texts = new ArrayList<>();
+        String cursor = null;
+        List<CommentDto> page;
+        do {
+            page = itemService.getComments(item1.getId(), cursor, 2);
+            page.forEach(comment -> texts.add(comment.getText()));
+            cursor = page.isEmpty() ? null : CommentCursor.encode(page.getLast());
+        } while (page.size() == 2);
+
+        assertThat(texts).containsExactly("Comment 6", "Comment 5", "Comment 4", "Comment 3",
+                "Comment 2", "Comment 1", "Comment 0");
+    }
+
+    @Test
+    void getComments_WithNonExistingItem_ShouldThrowException() {
+        assertThat(itemService.getComments(item1.getId(), null, 10)).isEmpty();
+        assertThatThrownBy(() -> itemService.getComments(999L, null, 10))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void getById_ShouldShowBookingsToOwnerOnly() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        bookingStorage.saveAll(List.of(
+                approvedBooking(item1, now.minusDays(3), now.minusDays(2)),
+                approvedBooking(item1, now.plusDays(1), now.plusDays(2))));
+
+        ItemDto forOwner = itemService.getById(item1.getId(), owner.getId());
+        ItemDto forOther = itemService.getById(item1.getId(), booker.getId());
+
+        assertThat(forOwner.getLastBooking().getEnd()).isEqualTo(now.minusDays(2));
+        assertThat(forOwner.getNextBooking().getStart()).isEqualTo(now.plusDays(1));
+        assertThat(forOther.getLastBooking()).isNull();
+        assertThat(forOther.getNextBooking()).isNull();
+        assertThat(forOther.getCommentCount()).isZero();
+    }
+
+    @Test
+    void itemCard_ShouldFollowItemAndCommentWrites() {
+        ItemDto created = itemService.create(owner.getId(), ItemDto.builder()
+                .name("Drill")
+                .description("Cordless")
+                .available(true)
+                .build());
+        Item item = itemStorage.findById(created.getId()).orElseThrow();
+        assertThat(itemCardStorage.findById(created.getId())).isPresent();
+
+        itemService.update(created.getId(), owner.getId(), ItemDto.builder().name("Hammer drill").build());
+        addComments(item, 2);
+
+        ItemDto result = itemService.getById(created.getId(), null);
+        assertThat(result.getName()).isEqualTo("Hammer drill");
+        assertThat(result.getCommentCount()).isEqualTo(2);
+        assertThat(result.getComments()).extracting(CommentDto::getText).containsExactly("Comment 1", "Comment 0");
+    }
+
+    @Test
+    void itemCard_WithExpiredBookings_ShouldRefreshThem() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        bookingStorage.save(approvedBooking(item1, now.plusDays(1), now.plusDays(2)));
+        assertThat(itemService.getById(item1.getId(), owner.getId()).getNextBooking().getStart()).isEqualTo(now.plusDays(1));
+
+        // Бронирование сохранено в обход сервиса, карточка узнает о нём после истечения срока
+        bookingStorage.save(approvedBooking(item1, now.plusHours(1), now.plusHours(2)));
+        assertThat(itemService.getById(item1.getId(), owner.getId()).getNextBooking().getStart()).isEqualTo(now.plusDays(1));
+
+        ItemCard card = itemCardStorage.findById(item1.getId()).orElseThrow();
+        card.setBookingsValidUntil(now.minusMinutes(1));
+        itemCardStorage.save(card);
+        itemCardMaintainer.refreshExpired();
+
+        assertThat(itemCardStorage.findById(item1.getId()).orElseThrow().getBookingsValidUntil()).isEqualTo(now.plusHours(1));
+        assertThat(itemService.getById(item1.getId(), owner.getId()).getNextBooking().getStart()).isEqualTo(now.plusHours(1));
+    }
+
+    @Test
+    void itemCard_WhenAuthorDeleted_ShouldBeRebuiltWithoutTheirComments() {
+        addComments(item1, 1);
+        assertThat(itemService.getById(item1.getId(), null).getCommentCount()).isEqualTo(1);
+        long authorId = commentStorage.findAll().getFirst().getUser().getId();
+
+        userService.deleteById(authorId);
+
+        ItemDto result = itemService.getById(item1.getId(), null);
+        assertThat(result.getCommentCount()).isZero();
+        assertThat(result.getComments()).isEmpty();
+    }
+
     @Test
     void getItemsByUserId_WithNonExistingUser_ShouldThrowException() {
-        assertThatThrownBy(() -> itemService.getItemsByUserId(999L))
+        assertThatThrownBy(() -> itemService.getItemsByUserId(999L, null, 10))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("не найден");
     }
 
     @Test
     void searchItems_ShouldReturnMatchingItems() {
-        List<ItemDto> result = itemService.searchItems("item1");
+        List<ItemDto> result = itemService.searchItems("item1", 0, 10);
 
         assertThat(result).hasSize(1);
         assertThat(result.getFirst().getName()).isEqualTo("Item1");
@@ -310,7 +576,7 @@ public class ItemServiceImplTest {
 
     @Test
     void searchItems_ByDescription_ShouldReturnMatchingItems() {
-        List<ItemDto> result = itemService.searchItems("description1");
+        List<ItemDto> result = itemService.searchItems("description1", 0, 10);
 
         assertThat(result).hasSize(1);
         assertThat(result.getFirst().getDescription()).isEqualTo("Description1");
@@ -318,22 +584,142 @@ public class ItemServiceImplTest {
 
     @Test
     void searchItems_WithEmptyQuery_ShouldReturnEmptyList() {
-        List<ItemDto> result = itemService.searchItems(" ");
+        List<ItemDto> result = itemService.searchItems(" ", 0, 10);
 
         assertThat(result).isEmpty();
     }
 
     @Test
     void searchItems_OnlyAvailable_ShouldReturnOnlyAvailableItems() {
-        List<ItemDto> result = itemService.searchItems("item");
+        List<ItemDto> result = itemService.searchItems("item", 0, 10);
 
         assertThat(result).hasSize(1);
         assertThat(result.getFirst().getName()).isEqualTo("Item1");
     }
 
+    @Test
+    void searchItems_ShouldRankNameMatchesFirstAndPage() {
+        Item byDescription = itemStorage.save(new Item(null, "Hammer", "Works with item1 nails", true, owner, null, null, null));
+
+        assertThat(itemService.searchItems("item1", 0, 10))
+                .extracting(ItemDto::getId)
+                .containsExactly(item1.getId(), byDescription.getId());
+        assertThat(itemService.searchItems("item1", 1, 1))
+                .extracting(ItemDto::getId)
+                .containsExactly(byDescription.getId());
+    }
+
+    @Test
+    void searchItems_WithInvalidPage_ShouldThrowException() {
+        assertThatThrownBy(() -> itemService.searchItems("item", -1, 10))
+                .isInstanceOf(ConditionsNotMetException.class);
+        assertThatThrownBy(() -> itemService.searchItems("item", 0, 101))
+                .isInstanceOf(ConditionsNotMetException.class);
+        assertThatThrownBy(() -> itemService.searchItems("item", 9_999, 2))
+                .isInstanceOf(ConditionsNotMetException.class);
+    }
+
+    @Test
+    void searchFaceted_WithoutIndex_ShouldFilterAndCountFacets() {
+        Item nearDrill = itemStorage.save(new Item(null, "Дрель", "Ударная", true, owner, null,
+                ItemCategory.TOOLS, new ItemLocation(55.77, 37.65)));
+        Item nearTent = itemStorage.save(new Item(null, "Палатка", "Двухместная", true, owner, null,
+                ItemCategory.TRAVEL, new ItemLocation(55.75, 37.62)));
+        itemStorage.save(new Item(null, "Дрель аккумуляторная", "Лёгкая", true, owner, null,
+                ItemCategory.TOOLS, new ItemLocation(59.93, 30.33)));
+
+        ItemSearchResultDto result = itemService.searchFaceted(ItemSearchFilter.builder()
+                .latitude(55.75)
+                .longitude(37.62)
+                .radiusKm(10.0)
+                .build(), 0, 10);
+
+        assertThat(result.getItems()).extracting(ItemDto::getId).containsExactly(nearTent.getId(), nearDrill.getId());
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getCategories()).containsOnly(entry(ItemCategory.TOOLS, 1L), entry(ItemCategory.TRAVEL, 1L));
+        assertThat(result.getDistances()).containsEntry(1, 1L).containsEntry(5, 2L).containsEntry(100, 2L);
+
+        result = itemService.searchFaceted(ItemSearchFilter.builder()
+                .text("дрель")
+                .categories(Set.of(ItemCategory.TOOLS))
+                .build(), 0, 10);
+
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getItems().getFirst().getCategory()).isEqualTo(ItemCategory.TOOLS);
+        assertThat(result.getItems().getFirst().getLatitude()).isEqualTo(55.77);
+        assertThat(result.getDistances()).isEmpty();
+    }
+
+    @Test
+    void searchFaceted_WithoutIndex_ShouldPageAndCountInQueries() {
+        Item far = itemStorage.save(new Item(null, "Дрель", "Описание", true, owner, null,
+                ItemCategory.TOOLS, new ItemLocation(55.80, 37.62)));
+        Item near = itemStorage.save(new Item(null, "Дрель", "Описание", true, owner, null,
+                ItemCategory.TOOLS, new ItemLocation(55.76, 37.62)));
+        itemStorage.save(new Item(null, "Дрель", "Описание", true, owner, null,
+                ItemCategory.HOUSEHOLD, new ItemLocation(55.75, 37.62)));
+        Item unlocated = itemStorage.save(new Item(null, "Дрель", "Описание", true, owner, null, ItemCategory.TOOLS, null));
+        itemStorage.save(new Item(null, "Дрель", "Описание", false, owner, null,
+                ItemCategory.TOOLS, new ItemLocation(55.75, 37.62)));
+
+        ItemSearchResultDto result = itemService.searchFaceted(ItemSearchFilter.builder()
+                .text(" дрель ")
+                .categories(Set.of(ItemCategory.TOOLS))
+                .latitude(55.75)
+                .longitude(37.62)
+                .radiusKm(10.0)
+                .build(), 1, 10);
+
+        assertThat(result.getItems()).extracting(ItemDto::getId).containsExactly(far.getId());
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getCategories()).containsOnly(entry(ItemCategory.TOOLS, 2L), entry(ItemCategory.HOUSEHOLD, 1L));
+        assertThat(result.getDistances()).containsEntry(1, 0L).containsEntry(5, 1L).containsEntry(10, 2L);
+
+        result = itemService.searchFaceted(ItemSearchFilter.builder()
+                .latitude(55.75)
+                .longitude(37.62)
+                .categories(Set.of(ItemCategory.TOOLS))
+                .build(), 0, 10);
+
+        assertThat(result.getItems()).extracting(ItemDto::getId).containsExactly(near.getId(), far.getId(), unlocated.getId());
+        assertThat(result.getTotal()).isEqualTo(3);
+    }
+
+    @Test
+    void searchFaceted_WithInvalidFilter_ShouldThrowException() {
+        assertThatThrownBy(() -> itemService.searchFaceted(ItemSearchFilter.builder().latitude(55.0).build(), 0, 10))
+                .isInstanceOf(ConditionsNotMetException.class);
+        assertThatThrownBy(() -> itemService.searchFaceted(ItemSearchFilter.builder().radiusKm(5.0).build(), 0, 10))
+                .isInstanceOf(ConditionsNotMetException.class);
+        assertThatThrownBy(() -> itemService.searchFaceted(ItemSearchFilter.builder()
+                .latitude(55.0).longitude(37.0).radiusKm(501.0).build(), 0, 10))
+                .isInstanceOf(ConditionsNotMetException.class);
+        assertThatThrownBy(() -> itemService.searchFaceted(ItemSearchFilter.builder().build(), 0, 101))
+                .isInstanceOf(ConditionsNotMetException.class);
+    }
+
+    @Test
+    void suggest_WithoutIndex_ShouldQueryAvailableItemsByWordPrefix() {
+        itemStorage.save(new Item(null, "Item1", "Another", true, owner, null, null, null));
+        itemStorage.save(new Item(null, "Old item3", "Description3", true, owner, null, null, null));
+
+        assertThat(itemService.suggest(" ITEM", 10)).containsExactly("Item1", "Old item3");
+        assertThat(itemService.suggest("item", 1)).containsExactly("Item1");
+        assertThat(itemService.suggest("tem", 10)).isEmpty();
+        assertThat(itemService.suggest(" ", 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_WithInvalidSize_ShouldThrowException() {
+        assertThatThrownBy(() -> itemService.suggest("item", 0))
+                .isInstanceOf(ConditionsNotMetException.class);
+        assertThatThrownBy(() -> itemService.suggest("item", 21))
+                .isInstanceOf(ConditionsNotMetException.class);
+    }
+
     @Test
     void searchItems_WithNoMatches_ShouldReturnEmptyList() {
-        List<ItemDto> result = itemService.searchItems("nonexistent");
+        List<ItemDto> result = itemService.searchItems("nonexistent", 0, 10);
 
         assertThat(result).isEmpty();
     }
@@ -458,4 +844,115 @@ public class ItemServiceImplTest {
                 .isInstanceOf(ConditionsNotMetException.class)
                 .hasMessageContaining("не брал вещь");
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAvailability_ShouldReturnGapsBetweenActiveBookings() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        bookingStorage.saveAll(List.of(
+                approvedBooking(item1, from.plusDays(1), from.plusDays(3)),
+                approvedBooking(item1, from.plusDays(2), from.plusDays(4)),
+                Booking.builder()
+                        .item(item1)
+                        .user(booker)
+                        .start(from.plusDays(6))
+                        .end(from.plusDays(7))
+                        .status(BookingState.WAITING)
+                        .build(),
+                Booking.builder()
+                        .item(item1)
+                        .user(booker)
+                        .start(from.plusDays(8))
+                        .end(from.plusDays(9))
+                        .status(BookingState.REJECTED)
+                        .build()));
+
+        List<FreeSlotDto> result = itemService.getAvailability(item1.getId(), from, from.plusDays(10));
+
+        assertThat(result).containsExactly(
+                new FreeSlotDto(from, from.plusDays(1)),
+                new FreeSlotDto(from.plusDays(4), from.plusDays(6)),
+                new FreeSlotDto(from.plusDays(7), from.plusDays(10)));
+    }
+
+    @Test
+    void getAvailability_ShouldReturnSlotsThatCanBeBookedExactly() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        bookingStorage.saveAll(List.of(
+                approvedBooking(item1, from.plusDays(1), from.plusDays(2)),
+                approvedBooking(item1, from.plusDays(3), from.plusDays(4))));
+
+        List<FreeSlotDto> slots = itemService.getAvailability(item1.getId(), from, from.plusDays(5));
+
+        assertThat(slots).hasSize(3);
+        for (FreeSlotDto slot : slots) {
+            BookingCreateDto createDto = BookingCreateDto.builder()
+                    .itemId(item1.getId())
+                    .start(slot.getStart())
+                    .end(slot.getEnd())
+                    .build();
+            assertThat(bookingService.create(booker.getId(), createDto).getId()).isNotNull();
+        }
+        assertThat(itemService.getAvailability(item1.getId(), from, from.plusDays(5))).isEmpty();
+    }
+
+    @Test
+    void getAvailability_WithUnavailableItem_ShouldReturnNoSlots() {
+        Item unavailable = itemStorage.save(new Item(null, "Item3", "Description3", false, owner, null, null, null));
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+
+        assertThat(itemService.getAvailability(unavailable.getId(), from, from.plusDays(1))).isEmpty();
+    }
+
+    @Test
+    void getAvailability_WithInvalidRange_ShouldThrowException() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+
+        assertThatThrownBy(() -> itemService.getAvailability(item1.getId(), from, from.minusHours(1)))
+                .isInstanceOf(ConditionsNotMetException.class);
+        assertThatThrownBy(() -> itemService.getAvailability(item1.getId(), from, from.plusYears(2)))
+                .isInstanceOf(ConditionsNotMetException.class);
+    }
+
+    private void addComments(Item item, int count) {
+        for (int i = 0; i < count; i++) {
+            long number = userStorage.count();
+            User author = userStorage.save(new User(null, "Author" + number, "author" + number + "@email.com"));
+            bookingStorage.save(Booking.builder()
+                    .item(item)
+                    .user(author)
+                    .start(LocalDateTime.now().minusDays(2))
+                    .end(LocalDateTime.now().minusDays(1))
+                    .status(BookingState.APPROVED)
+                    .build());
+            itemService.createComment(author.getId(), item.getId(), CommentDto.builder().text("Comment " + i).build());
+        }
+    }
+
+    /**
+     * Считает SQL-запросы, выполненные действием, при пустом контексте персистентности,
+     * чтобы ленивые связи загружались из БД, а не из уже загруженных сущностей.
+     */
+    private long countStatements(Runnable action) {
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            action.run();
+            return statistics.getPrepareStatementCount();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    private Booking approvedBooking(Item item, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .item(item)
+                .user(booker)
+                .start(start)
+                .end(end)
+                .status(BookingState.APPROVED)
+                .build();
+    }
+}
@@ -0,0 +1,356 @@
+package ru.practicum.shareit.item.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSearchResultDto;
+import ru.practicum.shareit.item.model.ItemCategory;
+import ru.practicum.shareit.item.model.ItemLocation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+public class ItemSearchIndexTest {
+    private final ItemStorage itemStorage = mock(ItemStorage.class);
+
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex(itemStorage, ItemSearchMode.MEMORY);
+    }
+
+    @Test
+    void warmUp_ShouldLoadDocumentsFromStorage() {
+        warmUp(List.of(
+                document(1L, 10L, "Дрель ударная", "Мощная дрель", true),
+                document(2L, 10L, "Отвёртка", "Крестовая", true)));
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(ids("ДРЕЛ")).containsExactly(1L);
+        assertThat(ids("крест")).containsExactly(2L);
+    }
+
+    @Test
+    void search_ShouldMatchSubstringInNameOrDescriptionIgnoringCase() {
+        warmUp(List.of(
+                document(1L, 10L, "Power Drill", "Cordless", true),
+                document(2L, 10L, "Hammer", "Good for drilling holes", true),
+                document(3L, 10L, "Saw", "Sharp", true)));
+
+        assertThat(ids("DRILL")).containsExactly(1L, 2L);
+        assertThat(ids("r dr")).containsExactly(1L, 2L);
+        assertThat(ids("er d")).containsExactly(1L);
+        assertThat(ids("cordless")).containsExactly(1L);
+        assertThat(ids("nothing")).isEmpty();
+    }
+
+    @Test
+    void search_WithExtraWhitespace_ShouldMatchNormalizedQuery() {
+        warmUp(List.of(
+                document(1L, 10L, "Дрель ударная", "Мощная", true),
+                document(2L, 10L, "Дрель", "Аккумуляторная", true)));
+
+        assertThat(ids("  дрель   УДАРНАЯ ")).containsExactly(1L);
+    }
+
+    @Test
+    void search_ShouldSkipUnavailableItems() {
+        warmUp(List.of(
+                document(1L, 10L, "Drill", "Tool", true),
+                document(2L, 10L, "Drill", "Tool", false)));
+
+        assertThat(ids("drill")).containsExactly(1L);
+    }
+
+    @Test
+    void search_WithShortQuery_ShouldUseTokensAndScan() {
+        warmUp(List.of(
+                document(1L, 10L, "Ax", "Small tool", true),
+                document(2L, 10L, "Box", "Empty", true),
+                document(3L, 10L, "Tent", "Four persons", true)));
+
+        assertThat(ids("x")).containsExactly(1L, 2L);
+        assertThat(ids("AX")).containsExactly(1L);
+        assertThat(ids("l t")).containsExactly(1L);
+        assertThat(ids("r ")).containsExactly(3L);
+    }
+
+    @Test
+    void put_ShouldReplacePreviousVersionOfItem() {
+        warmUp(List.of(document(1L, 10L, "Drill", "Tool", true)));
+
+        index.put(document(1L, 10L, "Hammer", "Tool", true));
+
+        assertThat(ids("drill")).isEmpty();
+        assertThat(ids("hammer")).containsExactly(1L);
+
+        index.put(document(1L, 10L, "Hammer", "Tool", false));
+
+        assertThat(ids("hammer")).isEmpty();
+    }
+
+    @Test
+    void remove_ShouldHideItem() {
+        warmUp(List.of(
+                document(1L, 10L, "Drill", "Tool", true),
+                document(2L, 20L, "Drill", "Tool", true),
+                document(3L, 20L, "Drill", "Tool", true)));
+
+        index.remove(1L);
+        assertThat(ids("drill")).containsExactly(2L, 3L);
+
+        index.removeByOwner(20L);
+        assertThat(ids("drill")).isEmpty();
+    }
+
+    @Test
+    void put_WithManyUpdates_ShouldCompactAndKeepResults() {
+        warmUp(List.of(document(1L, 10L, "Drill", "Tool", true)));
+
+        for (int i = 0; i < 25_000; i++) {
+            index.put(document(2L, 10L, "Hammer " + i, "Tool", true));
+        }
+
+        assertThat(ids("drill")).containsExactly(1L);
+        assertThat(index.search("hammer", 0, 10)).extracting(ItemSearchDocument::getName).containsExactly("Hammer 24999");
+    }
+
+    @Test
+    void search_ShouldMatchBruteForce() {
+        Random random = new Random(7);
+        String[] words = {"дрель", "перфоратор", "пила", "лестница", "палатка", "drill", "saw", "ladder", "tent", "box"};
+        List<ItemSearchDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            documents.add(document(id, id % 50, phrase(random, words), phrase(random, words), random.nextInt(4) > 0));
+        }
+        warmUp(documents);
+
+        for (String query : List.of("дрел", "ПИЛА", "a", "ат", "er t", "saw drill", "tent", "ц", "box box")) {
+            String needle = query.toLowerCase(Locale.ROOT);
+            List<Long> expected = documents.stream()
+                    .filter(ItemSearchDocument::getAvailable)
+                    .filter(document -> document.getName().toLowerCase(Locale.ROOT).contains(needle)
+                            || document.getDescription().toLowerCase(Locale.ROOT).contains(needle))
+                    .map(ItemSearchDocument::getId)
+                    .toList();
+            assertThat(ids(query)).as(query).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @Test
+    void search_ShouldRankNameMatchesAboveDescriptionMatches() {
+        warmUp(List.of(
+                document(1L, 10L, "Hammer", "Better than a drill", true),
+                document(2L, 10L, "Cordless drill with two batteries and a case", "Tool", true),
+                document(3L, 10L, "Drill", "Tool", true)));
+
+        assertThat(ids("drill")).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void search_WithEqualScores_ShouldOrderById() {
+        warmUp(List.of(
+                document(3L, 10L, "Drill", "Tool", true),
+                document(1L, 10L, "Drill", "Tool", true),
+                document(2L, 10L, "Drill", "Tool", true)));
+
+        assertThat(ids("drill")).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void search_WithPages_ShouldSplitFullRanking() {
+        Random random = new Random(5);
+        String[] words = {"drill", "saw", "ladder", "tent", "drilling", "box"};
+        List<ItemSearchDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            documents.add(document(id, 1L, phrase(random, words), phrase(random, words) + " " + phrase(random, words), true));
+        }
+        warmUp(documents);
+
+        List<Long> full = ids("drill");
+        List<Long> paged = new ArrayList<>();
+        for (int from = 0; from < full.size(); from += 7) {
+            List<ItemSearchDocument> page = index.search("drill", from, 7);
+            assertThat(page).hasSizeLessThanOrEqualTo(7);
+            page.forEach(document -> paged.add(document.getId()));
+        }
+        assertThat(paged).isEqualTo(full);
+        assertThat(index.search("drill", full.size(), 7)).isEmpty();
+    }
+
+    @Test
+    void search_WithLargeIndex_ShouldStayFast() {
+        Random random = new Random(11);
+        String[] words = {"дрель", "перфоратор", "пила", "лестница", "палатка", "шуруповёрт", "болгарка", "стремянка",
+                "drill", "saw", "ladder", "tent", "kayak", "bike", "projector", "camera"};
+        List<ItemSearchDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 200_000; id++) {
+            documents.add(document(id, id % 1000, phrase(random, words) + " " + id, phrase(random, words), true));
+        }
+        warmUp(documents);
+
+        int iterations = 200;
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            assertThat(index.search("12345", 0, 10)).isNotEmpty();
+        }
+        long elapsed = System.nanoTime() - started;
+        log.info("Поиск по индексу из {} вещей: {} мкс на запрос", documents.size(), elapsed / iterations / 1000);
+
+        started = System.nanoTime();
+        for (int i = 0; i < iterations / 10; i++) {
+            assertThat(index.search("drill", 0, 10)).hasSize(10);
+        }
+        elapsed = System.nanoTime() - started;
+        log.info("Ранжирование частого слова в индексе из {} вещей: {} мкс на запрос", documents.size(), elapsed / (iterations / 10) / 1000);
+    }
+
+    @Test
+    void searchFaceted_ShouldCountEachFacetWithoutItsOwnFilter() {
+        warmUp(List.of(
+                located(1L, "Drill", ItemCategory.TOOLS, 55.77, 37.65),
+                located(2L, "Drill bits", ItemCategory.TOOLS, 55.75, 37.62),
+                located(3L, "Drill stand", ItemCategory.HOUSEHOLD, 55.80, 37.70),
+                located(4L, "Drill", ItemCategory.TOOLS, 59.93, 30.33),
+                located(5L, "Tent", ItemCategory.TRAVEL, 55.75, 37.62)));
+
+        ItemSearchResultDto result = index.searchFaceted(ItemSearchFilter.builder()
+                .text("drill")
+                .categories(Set.of(ItemCategory.TOOLS))
+                .latitude(55.75)
+                .longitude(37.62)
+                .radiusKm(10.0)
+                .build(), 0, 10);
+
+        assertThat(result.getItems()).extracting(ItemDto::getId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getCategories()).containsOnly(entry(ItemCategory.TOOLS, 2L), entry(ItemCategory.HOUSEHOLD, 1L));
+        assertThat(result.getDistances()).containsEntry(1, 1L).containsEntry(5, 2L).containsEntry(100, 2L);
+    }
+
+    @Test
+    void searchFaceted_WithoutText_ShouldOrderByDistance() {
+        warmUp(List.of(
+                located(1L, "Kayak", ItemCategory.SPORTS, 55.90, 37.62),
+                located(2L, "Tent", ItemCategory.TRAVEL, 55.76, 37.62),
+                document(3L, 10L, "Bike", "Without location", true),
+                located(4L, "Rope", ItemCategory.SPORTS, 55.80, 37.62)));
+
+        ItemSearchResultDto result = index.searchFaceted(ItemSearchFilter.builder()
+                .latitude(55.75)
+                .longitude(37.62)
+                .build(), 0, 10);
+
+        assertThat(result.getItems()).extracting(ItemDto::getId).containsExactly(2L, 4L, 1L, 3L);
+        assertThat(index.searchFaceted(ItemSearchFilter.builder().latitude(55.75).longitude(37.62).build(), 1, 2)
+                .getItems()).extracting(ItemDto::getId).containsExactly(4L, 1L);
+    }
+
+    @Test
+    void searchFaceted_AfterUpdatesAndCompaction_ShouldUseCurrentAttributes() {
+        warmUp(List.of(located(1L, "Drill", ItemCategory.TOOLS, 55.75, 37.62)));
+
+        for (int i = 0; i < 25_000; i++) {
+            index.put(located(2L, "Tent " + i, ItemCategory.TRAVEL, 10.0 + i % 50, 20.0));
+        }
+        index.put(located(1L, "Drill", ItemCategory.HOUSEHOLD, 40.0, 20.0));
+        index.remove(2L);
+
+        ItemSearchResultDto result = index.searchFaceted(ItemSearchFilter.builder()
+                .latitude(40.0)
+                .longitude(20.0)
+                .radiusKm(1.0)
+                .build(), 0, 10);
+        assertThat(result.getItems()).extracting(ItemDto::getId).containsExactly(1L);
+        assertThat(result.getCategories()).containsOnly(entry(ItemCategory.HOUSEHOLD, 1L));
+        assertThat(index.searchFaceted(ItemSearchFilter.builder()
+                .categories(Set.of(ItemCategory.TOOLS, ItemCategory.TRAVEL))
+                .build(), 0, 10).getTotal()).isZero();
+    }
+
+    @Test
+    void searchFaceted_WithRadius_ShouldMatchBruteForce() {
+        Random random = new Random(21);
+        List<ItemSearchDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 3_000; id++) {
+            ItemCategory category = ItemCategory.values()[random.nextInt(ItemCategory.values().length)];
+            // Часть вещей у полюса и у линии перемены дат, чтобы проверить границы геоячеек
+            double latitude = id % 10 == 0 ? 88 + random.nextDouble() * 2 : -60 + random.nextDouble() * 120;
+            double longitude = id % 7 == 0 ? 179 + random.nextDouble() * 2 - 1 : -180 + random.nextDouble() * 360;
+            documents.add(random.nextInt(10) == 0
+                    ? document(id, 10L, "Item " + id, "Description", random.nextBoolean())
+                    : new ItemSearchDocument(id, 10L, "Item " + id, "Description", random.nextInt(5) > 0,
+                    category, latitude, Math.min(longitude, 180)));
+        }
+        warmUp(documents);
+
+        double[][] points = {{55.75, 37.62}, {89.5, 0}, {10, 179.9}, {-10, -179.9}, {0, 0}};
+        for (double[] point : points) {
+            for (double radius : new double[]{50, 300, 500}) {
+                List<Long> expected = documents.stream()
+                        .filter(ItemSearchDocument::getAvailable)
+                        .filter(document -> document.getLatitude() != null)
+                        .filter(document -> ItemLocation.distanceKm(point[0], point[1],
+                                document.getLatitude(), document.getLongitude()) <= radius)
+                        .map(ItemSearchDocument::getId)
+                        .toList();
+
+                ItemSearchResultDto result = index.searchFaceted(ItemSearchFilter.builder()
+                        .latitude(point[0])
+                        .longitude(point[1])
+                        .radiusKm(radius)
+                        .build(), 0, 100);
+
+                assertThat(result.getTotal()).as("%s, %s км", Arrays.toString(point), radius).isEqualTo(expected.size());
+                assertThat(result.getItems()).extracting(ItemDto::getId).isSubsetOf(expected);
+            }
+        }
+    }
+
+    private void warmUp(List<ItemSearchDocument> documents) {
+        when(itemStorage.findSearchDocuments(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            int limit = invocation.getArgument(1, Limit.class).max();
+            return documents.stream()
+                    .filter(document -> document.getId() > afterId)
+                    .limit(limit)
+                    .toList();
+        });
+        index.warmUp();
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query, 0, 10_000).stream()
+                .map(ItemSearchDocument::getId)
+                .toList();
+    }
+
+    private static String phrase(Random random, String[] words) {
+        return words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+    }
+
+    private static ItemSearchDocument located(long id, String name, ItemCategory category, double latitude, double longitude) {
+        return new ItemSearchDocument(id, 10L, name, "Description", true, category, latitude, longitude);
+    }
+
+    private static ItemSearchDocument document(long id, long ownerId, String name, String description, boolean available) {
+        return new ItemSearchDocument(id, ownerId, name, description, available, null, null, null);
+    }
+}
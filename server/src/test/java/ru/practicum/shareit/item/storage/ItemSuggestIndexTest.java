@@ -0,0 +1,173 @@
+package ru.practicum.shareit.item.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+public class ItemSuggestIndexTest {
+    private final ItemStorage itemStorage = mock(ItemStorage.class);
+
+    private ItemSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSuggestIndex(itemStorage, true);
+    }
+
+    @Test
+    void suggest_ShouldMatchStartOfAnyWordIgnoringCase() {
+        warmUp(List.of(
+                document(1L, 10L, "Дрель ударная", true),
+                document(2L, 10L, "Аккумуляторная дрель-шуруповёрт", true),
+                document(3L, 10L, "Удочка", true)));
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.suggest("ДРЕ", 10)).containsExactlyInAnyOrder("Дрель ударная", "Аккумуляторная дрель-шуруповёрт");
+        assertThat(index.suggest("шуру", 10)).containsExactly("Аккумуляторная дрель-шуруповёрт");
+        assertThat(index.suggest("уд", 10)).containsExactlyInAnyOrder("Удочка", "Дрель ударная");
+        assertThat(index.suggest("рель", 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_WithSeveralWords_ShouldMatchPhrase() {
+        warmUp(List.of(
+                document(1L, 10L, "Дрель ударная", true),
+                document(2L, 10L, "Дрель   угловая", true),
+                document(3L, 10L, "Дрельщик", true)));
+
+        assertThat(index.suggest("дрель  уд", 10)).containsExactly("Дрель ударная");
+        assertThat(index.suggest("дрель ", 10)).containsExactlyInAnyOrder("Дрель ударная", "Дрель   угловая");
+    }
+
+    @Test
+    void suggest_ShouldOrderByNumberOfAvailableItems() {
+        warmUp(List.of(
+                document(1L, 10L, "Палатка", true),
+                document(2L, 11L, "Палатка двухместная", true),
+                document(3L, 12L, "Палатка двухместная", true),
+                document(4L, 13L, "палатка ДВУХМЕСТНАЯ", true),
+                document(5L, 14L, "Палатка туристическая", false)));
+
+        assertThat(index.suggest("пал", 10)).containsExactly("палатка ДВУХМЕСТНАЯ", "Палатка");
+        assertThat(index.suggest("пал", 1)).containsExactly("палатка ДВУХМЕСТНАЯ");
+        assertThat(index.suggest("тур", 10)).isEmpty();
+    }
+
+    @Test
+    void put_ShouldFollowNameAndAvailabilityChanges() {
+        warmUp(List.of(document(1L, 10L, "Дрель", true)));
+
+        index.put(document(1L, 10L, "Перфоратор", true));
+        assertThat(index.suggest("дре", 10)).isEmpty();
+        assertThat(index.suggest("пер", 10)).containsExactly("Перфоратор");
+
+        index.put(document(1L, 10L, "Перфоратор", false));
+        assertThat(index.suggest("пер", 10)).isEmpty();
+
+        index.put(document(2L, 10L, "Пила", true));
+        assertThat(index.suggest("п", 10)).containsExactly("Пила");
+    }
+
+    @Test
+    void remove_ShouldHideItems() {
+        warmUp(List.of(
+                document(1L, 10L, "Лестница", true),
+                document(2L, 20L, "Лестница", true),
+                document(3L, 20L, "Лебёдка", true)));
+
+        index.remove(1L);
+        assertThat(index.suggest("ле", 10)).containsExactlyInAnyOrder("Лестница", "Лебёдка");
+
+        index.removeByOwner(20L);
+        assertThat(index.suggest("ле", 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_WithRandomUpdates_ShouldMatchBruteForce() {
+        Random random = new Random(3);
+        String[] words = {"дрель", "дрели", "дремота", "пила", "пилка", "лестница", "лес", "drill", "dr", "d"};
+        Map<Long, ItemSearchDocument> current = new HashMap<>();
+        warmUp(List.of());
+        for (int step = 0; step < 5_000; step++) {
+            long id = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                current.remove(id);
+            } else {
+                String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+                ItemSearchDocument document = document(id, 1L, name, random.nextInt(5) > 0);
+                index.put(document);
+                current.put(id, document);
+            }
+        }
+
+        for (String prefix : List.of("д", "дре", "дрель п", "пил", "лес", "dr", "d", "x")) {
+            Map<String, Integer> counts = new HashMap<>();
+            current.values().stream()
+                    .filter(ItemSearchDocument::getAvailable)
+                    .filter(document -> (" " + document.getName()).contains(" " + prefix))
+                    .forEach(document -> counts.merge(document.getName(), 1, Integer::sum));
+            List<Integer> expected = counts.values().stream()
+                    .sorted(Comparator.reverseOrder())
+                    .limit(5)
+                    .toList();
+
+            List<String> suggestions = index.suggest(prefix, 5);
+            assertThat(suggestions).as(prefix).doesNotHaveDuplicates();
+            assertThat(suggestions.stream().map(counts::get).toList()).as(prefix).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void suggest_WithLargeIndex_ShouldStayFast() {
+        Random random = new Random(13);
+        String[] words = {"дрель", "перфоратор", "пила", "лестница", "палатка", "шуруповёрт", "болгарка", "стремянка",
+                "drill", "saw", "ladder", "tent", "kayak", "bike", "projector", "camera"};
+        List<ItemSearchDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 200_000; id++) {
+            documents.add(document(id, id % 1000, words[random.nextInt(words.length)] + " "
+                    + words[random.nextInt(words.length)] + " " + random.nextInt(20_000), true));
+        }
+        warmUp(documents);
+
+        int iterations = 20_000;
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            assertThat(index.suggest(i % 2 == 0 ? "п" : "дрель п", 10)).hasSize(10);
+        }
+        long elapsed = System.nanoTime() - started;
+        log.info("Подсказки по индексу из {} вещей: {} мкс на запрос", documents.size(), elapsed / iterations / 1000);
+    }
+
+    private void warmUp(List<ItemSearchDocument> documents) {
+        when(itemStorage.findSearchDocuments(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            int limit = invocation.getArgument(1, Limit.class).max();
+            return documents.stream()
+                    .filter(document -> document.getId() > afterId)
+                    .limit(limit)
+                    .toList();
+        });
+        index.warmUp();
+    }
+
+    private static ItemSearchDocument document(long id, long ownerId, String name, boolean available) {
+        return new ItemSearchDocument(id, ownerId, name, "Описание", available, null, null, null);
+    }
+}
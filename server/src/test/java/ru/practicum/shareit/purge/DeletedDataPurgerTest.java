@@ -0,0 +1,158 @@
+package ru.practicum.shareit.purge;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.CommentStorage;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.storage.ItemRequestStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ComponentScan(basePackages = "ru.practicum.shareit")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class DeletedDataPurgerTest {
+    private final DeletedDataPurger purger;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final UserStorage userStorage;
+    private final ItemStorage itemStorage;
+    private final BookingStorage bookingStorage;
+    private final CommentStorage commentStorage;
+    private final ItemRequestStorage itemRequestStorage;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager em;
+
+    private User owner;
+    private User booker;
+    private Item ownerItem;
+    private Item bookerItem;
+
+    @BeforeEach
+    void setUp() {
+        owner = userStorage.save(new User(null, "Owner", "owner@email.com"));
+        booker = userStorage.save(new User(null, "Booker", "booker@email.com"));
+        ownerItem = itemStorage.save(new Item(null, "Owner item", "Description", true, owner, null, null, null));
+        bookerItem = itemStorage.save(new Item(null, "Booker item", "Description", true, booker, null, null, null));
+        itemRequestStorage.save(new ItemRequest(null, "Need item", LocalDateTime.now(), owner));
+        for (int i = 0; i < 5; i++) {
+            bookingStorage.save(booking(ownerItem, booker, i));
+            bookingStorage.save(booking(bookerItem, owner, i));
+            commentStorage.save(comment(ownerItem, booker, i));
+            commentStorage.save(comment(bookerItem, owner, i));
+        }
+    }
+
+    @Test
+    void deleteUser_ShouldHideRowsUntilPurgeRemovesThem() {
+        userService.deleteById(owner.getId());
+
+        assertThat(userStorage.findAll()).containsExactly(booker);
+        assertThat(itemStorage.findAll()).containsExactly(bookerItem);
+        assertThat(bookingStorage.findAll()).isEmpty();
+        assertThat(commentStorage.findAll()).isEmpty();
+        assertThat(itemRequestStorage.findAll()).isEmpty();
+        assertThat(count("users")).isEqualTo(2);
+        assertThat(count("bookings")).isEqualTo(10);
+
+        em.flush();
+        assertThat(purger.purge()).isEqualTo(1 + 1 + 10 + 10 + 1);
+        assertThat(purger.purge()).isZero();
+
+        assertThat(count("users")).isEqualTo(1);
+        assertThat(count("items")).isEqualTo(1);
+        assertThat(count("bookings")).isZero();
+        assertThat(count("comments")).isZero();
+        assertThat(count("item_requests")).isZero();
+    }
+
+    @Test
+    void deleteItem_ShouldPurgeOnlyItsRows() {
+        itemService.deleteById(ownerItem.getId());
+
+        assertThat(bookingStorage.findAll()).allSatisfy(booking ->
+                assertThat(booking.getItem().getId()).isEqualTo(bookerItem.getId()));
+
+        em.flush();
+        assertThat(purger.purge()).isEqualTo(5 + 5 + 1);
+
+        assertThat(count("users")).isEqualTo(2);
+        assertThat(count("items")).isEqualTo(1);
+        assertThat(count("bookings")).isEqualTo(5);
+        assertThat(count("comments")).isEqualTo(5);
+        assertThat(count("item_requests")).isEqualTo(1);
+    }
+
+    @Test
+    void purge_WithBatchLimit_ShouldRemoveParentsLast() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DeletedDataPurger limitedPurger = new DeletedDataPurger(jdbcTemplate, transactionTemplate,
+                new StaticListableBeanFactory(Map.of("registry", registry)).getBeanProvider(MeterRegistry.class),
+                2, 0, 3);
+        userService.deleteById(owner.getId());
+        em.flush();
+
+        int runs = 0;
+        int removed = 0;
+        while (count("users") == 2 && runs < 100) {
+            removed += limitedPurger.purge();
+            runs++;
+            if (count("items") == 1) {
+                assertThat(count("bookings") + count("comments")).isZero();
+            }
+        }
+
+        assertThat(count("users")).isEqualTo(1);
+        assertThat(runs).isGreaterThan(1);
+        assertThat(removed).isEqualTo(23);
+        assertThat(registry.get("shareit.purge.rows").tag("table", "bookings").counter().count()).isEqualTo(10);
+        assertThat(count("bookings") + count("comments") + count("item_requests")).isZero();
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+    }
+
+    private static Booking booking(Item item, User user, int offset) {
+        return Booking.builder()
+                .item(item)
+                .user(user)
+                .start(LocalDateTime.now().plusDays(offset * 2L + 1))
+                .end(LocalDateTime.now().plusDays(offset * 2L + 2))
+                .status(BookingState.APPROVED)
+                .build();
+    }
+
+    private static Comment comment(Item item, User user, int number) {
+        return Comment.builder()
+                .text("Comment " + number)
+                .item(item)
+                .user(user)
+                .created(LocalDateTime.now())
+                .build();
+    }
+}
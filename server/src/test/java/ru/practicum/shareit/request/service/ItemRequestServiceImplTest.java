@@ -55,8 +55,8 @@ public class ItemRequestServiceImplTest {
         request2 = itemRequestStorage.save(new ItemRequest(null, "Need item 2", LocalDateTime.now().minusDays(2), user2));
         request3 = itemRequestStorage.save(new ItemRequest(null, "Need item 3", LocalDateTime.now().minusDays(1), user1));
 
-        itemStorage.save(new Item(null, "Item for request 1", "Description", true, user2, request1));
-        itemStorage.save(new Item(null, "Item for request 2", "Description", true, user3, request1));
+        itemStorage.save(new Item(null, "Item for request 1", "Description", true, user2, request1, null, null));
+        itemStorage.save(new Item(null, "Item for request 2", "Description", true, user3, request1, null, null));
     }
 
     @Test
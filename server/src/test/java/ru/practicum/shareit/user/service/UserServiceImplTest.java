@@ -83,6 +83,20 @@ public class UserServiceImplTest {
         assertThat(userStorage.count()).isEqualTo(1);
     }
 
+    @Test
+    void deleteById_ShouldFreeEmailForNewUser() {
+        userService.deleteById(existingUserId);
+
+        UserDto result = userService.create(UserDto.builder()
+                .name("New User")
+                .email("existing@email.com")
+                .build());
+
+        assertThat(result.getId()).isNotEqualTo(existingUserId);
+        assertThatThrownBy(() -> userService.getById(existingUserId))
+                .isInstanceOf(NotFoundException.class);
+    }
+
     @Test
     void deleteById_WithNonExistingId_ShouldNotThrowException() {
         assertThatNoException().isThrownBy(() -> userService.deleteById(999L));